@@ -1,25 +1,28 @@
 package business;
 
+import support.TSBHashBag;
+
 import java.util.ArrayList;
-import java.util.Objects;
 
 public class Depto
 {
+    // valores de los campos del registro que se cuentan por separado...
+    private static final String HOMBRE = "\"M\"";
+    private static final String PRIMERA = "1";
+
     private String nombre;
-    private int cantVacunasHombre;
-    private int cantVacunasMujer;
-    private int cantPrimeraVac;
-    private int cantSegundaVac;
-    private ArrayList<Vacuna> vacunas;
+
+    // conteos por categoría: sexo, orden de la dosis y nombre de la vacuna...
+    private TSBHashBag<String> sexos;
+    private TSBHashBag<String> dosis;
+    private TSBHashBag<String> vacunas;
 
     public Depto(String nombre)
     {
         this.nombre = nombre;
-        cantVacunasHombre = 0;
-        cantVacunasMujer = 0;
-        cantPrimeraVac = 0;
-        cantSegundaVac = 0;
-        vacunas = new ArrayList<>();
+        sexos = new TSBHashBag<>();
+        dosis = new TSBHashBag<>();
+        vacunas = new TSBHashBag<>();
     }
 
     /**
@@ -31,14 +34,7 @@ public class Depto
      */
     public void addSexo(String sexo)
     {
-        if (Objects.equals(sexo, "\"M\""))
-        {
-            cantVacunasHombre++;
-        }
-        else
-        {
-            cantVacunasMujer++;
-        }
+        sexos.add(sexo);
     }
 
     /**
@@ -50,38 +46,31 @@ public class Depto
      */
     public void addNroDosis(String numero)
     {
-        if (Objects.equals(numero, "1"))
-        {
-            cantPrimeraVac++;
-        }
-        else
-        {
-            cantSegundaVac++;
-        }
+        dosis.add(numero);
     }
 
     /**
-     * agrega una nueva vacuna al vector de vacunas en caso de no haberse registrado antes,
-     * y aumenta en 1 la cantidad de registros donde se aplicaron dicha vacuna.
+     * Aumenta en 1 la cantidad de registros donde se aplicó la vacuna indicada
+     * (la vacuna queda registrada la primera vez que aparece).
      * @param nombre parámetro que representa el nombre de la vacuna aplicada.
      */
     public void addVacuna(String nombre)
     {
-        for (Vacuna vac : vacunas)
-        {
-            if (Objects.equals(vac.getNombre(), nombre))
-            {
-                // si la vacuna ya se encontraba registrada, aumenta en 1 su cantidad de registros.
-
-                int cant = vac.getCant();
-                vac.setCant(cant+1);
-                return;
-            }
-        }
-        // si no la encuentra, agrega la vacuna al vector de vacunas, con cant = 1.
+        vacunas.add(nombre);
+    }
 
-        Vacuna vac = new Vacuna(nombre);
-        this.vacunas.add(vac);
+    /**
+     * Suma a este departamento los conteos de otro (del mismo departamento,
+     * cargado por otro hilo).
+     * @param otro el departamento cuyos conteos se suman.
+     * @return este departamento.
+     */
+    public Depto merge(Depto otro)
+    {
+        sexos.addAll(otro.sexos);
+        dosis.addAll(otro.dosis);
+        vacunas.addAll(otro.vacunas);
+        return this;
     }
 
     public String getNombre() {
@@ -92,36 +81,45 @@ public class Depto
         this.nombre = nombre;
     }
 
+    // todo registro que no es "M" se cuenta como mujer, y toda dosis que no es
+    // la primera se cuenta como segunda...
+
     public int getCantVacunasHombre() {
-        return cantVacunasHombre;
+        return sexos.count(HOMBRE);
     }
 
     public void setCantVacunasHombre(int cantVacunasHombre) {
-        this.cantVacunasHombre = cantVacunasHombre;
+        sexos.setCount(HOMBRE, cantVacunasHombre);
     }
 
     public int getCantVacunasMujer() {
-        return cantVacunasMujer;
+        return (int) (sexos.size() - sexos.count(HOMBRE));
     }
 
     public void setCantVacunasMujer(int cantVacunasMujer) {
-        this.cantVacunasMujer = cantVacunasMujer;
+        int hombres = sexos.count(HOMBRE);
+        sexos.clear();
+        sexos.add(HOMBRE, hombres);
+        sexos.add("\"F\"", cantVacunasMujer);
     }
 
     public int getCantPrimeraVac() {
-        return cantPrimeraVac;
+        return dosis.count(PRIMERA);
     }
 
     public void setCantPrimeraVac(int cantPrimeraVac) {
-        this.cantPrimeraVac = cantPrimeraVac;
+        dosis.setCount(PRIMERA, cantPrimeraVac);
     }
 
     public int getCantSegundaVac() {
-        return cantSegundaVac;
+        return (int) (dosis.size() - dosis.count(PRIMERA));
     }
 
     public void setCantSegundaVac(int cantSegundaVac) {
-        this.cantSegundaVac = cantSegundaVac;
+        int primeras = dosis.count(PRIMERA);
+        dosis.clear();
+        dosis.add(PRIMERA, primeras);
+        dosis.add("2", cantSegundaVac);
     }
 
     public String toString()
@@ -129,9 +127,21 @@ public class Depto
         return nombre;
     }
 
+    /**
+     * Retorna las vacunas aplicadas en el departamento, cada una con su
+     * cantidad de registros, de la más aplicada a la menos aplicada.
+     * @return la lista de vacunas.
+     */
     public ArrayList<Vacuna> getVacunas()
     {
-        return vacunas;
+        ArrayList<Vacuna> lista = new ArrayList<>();
+        for (TSBHashBag.Entry<String> e : vacunas.topK(vacunas.distinct()))
+        {
+            Vacuna vac = new Vacuna(e.getElement());
+            vac.setCant(e.getCount());
+            lista.add(vac);
+        }
+        return lista;
     }
 }
 
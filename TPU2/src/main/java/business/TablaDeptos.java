@@ -1,76 +1,338 @@
 package business;
 
+import support.TSBByteSliceHashTable;
+import support.TSBCacheDA;
 import support.TSBHashTableDA;
+import support.TSBShardedHashTableDA;
 
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Scanner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class TablaDeptos {
+    // tamaño mínimo (en bytes) de cada tramo del archivo que se carga en paralelo...
+    private static final long MIN_TRAMO = 1 << 20;
+
+    // cantidad de campos de cada línea que se usan (el último es el orden de la dosis)...
+    private static final int CAMPOS = 14;
+
+    // el valor del campo jurisdicción de los registros de Córdoba, en UTF-8...
+    private static final byte[] CORDOBA = "\"Córdoba\"".getBytes(StandardCharsets.UTF_8);
+
     private TSBHashTableDA<Integer, Depto> tabla;
 
+    // la última carga completa, sobre la que se hacen las consultas: mientras
+    // se carga otro archivo, las consultas siguen viendo la versión anterior...
+    private volatile Consulta consulta;
+
     public TablaDeptos() {
         tabla = new TSBHashTableDA<>();
+        tabla.registerMBean("TablaDeptos");     // métricas de la tabla visibles en JConsole / VisualVM.
     }
 
+    /**
+     * Carga los registros de Córdoba del archivo, reemplazando los de la carga
+     * anterior. El archivo se divide en tramos (terminados en fin de línea)
+     * que se procesan en paralelo, cada uno en su propia tabla de
+     * departamentos; al final las tablas se combinan en esta, sumando los
+     * conteos de los departamentos que aparecen en varias. Las consultas ven
+     * la carga nueva recién cuando termina completa; si falla, siguen viendo
+     * la anterior.
+     * @param f el archivo CSV a cargar.
+     */
     public void cargar(File f) {
-        int counter = 0;
+        if (!f.isFile()) {
+            System.err.println("El archivo no existe");
+        } else {
+            try {
+                long[] limites = tramos(f, Runtime.getRuntime().availableProcessors());
+                int n = limites.length - 1;
+                TSBShardedHashTableDA<Integer, Depto> shards = new TSBShardedHashTableDA<>(n);
 
-        try {
-            Scanner miEscaner = new Scanner(f);
-            while (miEscaner.hasNextLine()) {
-                String[] linea = miEscaner.nextLine().split(",");
+                ExecutorService hilos = Executors.newFixedThreadPool(n);
+                try {
+                    List<Callable<Void>> tareas = new ArrayList<>();
+                    for (int i = 0; i < n; i++) {
+                        final int tramo = i;
+                        tareas.add(() -> {
+                            cargarTramo(f, limites[tramo], limites[tramo + 1], tramo == 0, shards.shard(tramo));
+                            return null;
+                        });
+                    }
+                    for (Future<Void> tarea : hilos.invokeAll(tareas)) {
+                        tarea.get();
+                    }
+                } finally {
+                    hilos.shutdown();
+                }
 
-                if (counter == 0) // esto se hace para no contar la primera vuelta donde están los nombres de cada campo.
-                {
-                    counter++;
+                tabla.clear();
+                shards.mergeInto(tabla, Depto::merge);
+
+                // la tabla ya no cambia hasta la próxima carga: las consultas se
+                // hacen sobre una copia con función hash perfecta (un solo
+                // casillero revisado por búsqueda), que es inmutable y puede
+                // publicarse a otros hilos. La copia y su caché se publican
+                // juntas, con una sola escritura.
+                consulta = new Consulta(tabla.freeze());
+            } catch (IOException e) {
+                System.err.println("Error al leer el archivo: " + e.getMessage());
+            } catch (ExecutionException e) {
+                System.err.println("Error al leer el archivo: " + e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                System.err.println("Carga interrumpida");
+            }
+        }
+    }
+
+    /**
+     * Retorna el departamento con el id indicado, o null si no hubo registros
+     * de ese departamento (o si todavía no se cargó ningún archivo).
+     * @param id_depto el id del departamento.
+     * @return el departamento con ese id, o null.
+     */
+    public Depto getDepto(int id_depto) {
+        Consulta actual = consulta;
+        if (actual == null) return null;
+        return actual.deptos.get(id_depto);
+    }
+
+    /**
+     * Divide el archivo en (a lo sumo) n tramos de tamaño parecido, cada uno
+     * terminado en un fin de línea. Los archivos chicos no se dividen.
+     * @return los límites de los tramos: el tramo i va de limites[i] (incluido)
+     *         a limites[i+1] (excluido).
+     */
+    private static long[] tramos(File f, int n) throws IOException {
+        long largo = f.length();
+        if (largo < MIN_TRAMO * 2) n = 1;
+        n = (int) Math.max(1, Math.min(n, largo / MIN_TRAMO));
+
+        long[] limites = new long[n + 1];
+        limites[n] = largo;
+        try (RandomAccessFile archivo = new RandomAccessFile(f, "r")) {
+            for (int i = 1; i < n; i++) {
+                long pos = Math.max(limites[i - 1], largo * i / n);
+                archivo.seek(pos);
+                int b;
+                do {
+                    b = archivo.read();
+                    pos++;
+                } while (b != -1 && b != '\n');
+                limites[i] = Math.min(pos, largo);
+            }
+        }
+        return limites;
+    }
+
+    /**
+     * Carga en destino los registros de Córdoba de las líneas del archivo que
+     * están entre las posiciones desde (incluida) y hasta (excluida).
+     * @param encabezado true si la primera línea del tramo tiene los nombres de
+     *                   los campos (y no debe cargarse).
+     */
+    private static void cargarTramo(File f, long desde, long hasta, boolean encabezado,
+                                    TSBHashTableDA<Integer, Depto> destino) throws IOException {
+        // los valores de sexo, dosis y vacuna se repiten en todas las líneas:
+        // se buscan directamente por sus bytes y se usa siempre el mismo String.
+        TSBByteSliceHashTable<String> textos = new TSBByteSliceHashTable<>();
+        int[] fin = new int[CAMPOS];    // posición donde termina cada campo de la línea.
+
+        try (InputStream in = new FileInputStream(f)) {
+            long salteados = 0;
+            while (salteados < desde) {
+                long s = in.skip(desde - salteados);
+                if (s <= 0) return;
+                salteados += s;
+            }
+
+            LectorLineas lector = new LectorLineas(in, hasta - desde);
+            while (lector.siguiente()) {
+                if (encabezado) {
+                    encabezado = false;
                     continue;
                 }
 
-                String nom_jurid = linea[6];    // nombre de la jurisdicción donde fue aplicada la vacuna.
-                int id_depto = Integer.parseInt(linea[9].substring(1, linea[9].length() - 1));     // id del departamento donde fue aplicada la vacuna.
-                String nom_depto = linea[8];    // nombre del departamento donde fue aplicada la vacuna.
-                String sexo = linea[0];         // Género de la persona a la cual se le aplicó la vacuna, M o F.
-                String numDosis = linea[13];    // orden de la dosis aplicada.
-                String vacuna = linea[11];      // nombre de la vacuna aplicada.
+                byte[] linea = lector.linea;
+                if (!separar(linea, lector.largo, fin)) continue;
+
+                // pregunta si el registro fue en Córdoba (campo 6: jurisdicción donde fue aplicada la vacuna).
+                if (!Arrays.equals(linea, inicio(fin, 6), fin[6], CORDOBA, 0, CORDOBA.length)) continue;
 
-                if (Objects.equals(nom_jurid, "\"Córdoba\"")) // pregunta si el registro fue en Córdoba.
+                int id_depto = numero(linea, inicio(fin, 9), fin[9]);   // id del departamento donde fue aplicada la vacuna.
+                String sexo = texto(textos, linea, inicio(fin, 0), fin[0]);         // Género de la persona a la cual se le aplicó la vacuna, M o F.
+                String numDosis = texto(textos, linea, inicio(fin, 13), fin[13]);   // orden de la dosis aplicada.
+                String vacuna = texto(textos, linea, inicio(fin, 11), fin[11]);     // nombre de la vacuna aplicada.
+
+                Depto departamento = destino.get(id_depto);
+                if (departamento == null) // pregunta si la tabla ya tiene ese depto registrado.
                 {
-                    if (tabla.get(id_depto) == null) // pregunta si la tabla ya tiene ese depto registrado.
-                    {
-                        // el departamento actual no se encuentra en la tabla, lo agrega.
-
-                        Depto departamento = new Depto(nom_depto);  // crea el departamento con su nombre.
-                        departamento.addSexo(sexo);                 // suma +1 al contador de sexo de acuerdo al género del registro.
-                        departamento.addNroDosis(numDosis);         // suma +1 al contador de orden de la dosis de acuerdo al orden del registro.
-                        departamento.addVacuna(vacuna);             // suma +1 al contador de vacunas de acuerdo a la vacuna aplicada en el registro.
-
-                        tabla.put(id_depto, departamento);          // agrega el departamento a la tablaDeptos.
-                    } else {
-                        // el departamento ya se encuentra en la tabla.
-
-                        Depto departamento = (Depto) tabla.get(id_depto); // recupera el departamento.
-                        departamento.addSexo(sexo);                 // suma +1 al contador de sexo de acuerdo al género del registro.
-                        departamento.addNroDosis(numDosis);         // suma +1 al contador de orden de la dosis de acuerdo al orden del registro.
-                        departamento.addVacuna(vacuna);             // suma +1 al contador de vacunas de acuerdo a la vacuna aplicada en el registro.
+                    // el departamento actual no se encuentra en la tabla, lo agrega con su nombre (campo 8).
+                    String nom_depto = new String(linea, inicio(fin, 8), fin[8] - inicio(fin, 8), StandardCharsets.UTF_8);
+                    departamento = new Depto(nom_depto);
+                    destino.put(id_depto, departamento);
+                }
+                departamento.addSexo(sexo);                 // suma +1 al contador de sexo de acuerdo al género del registro.
+                departamento.addNroDosis(numDosis);         // suma +1 al contador de orden de la dosis de acuerdo al orden del registro.
+                departamento.addVacuna(vacuna);             // suma +1 al contador de vacunas de acuerdo a la vacuna aplicada en el registro.
+            }
+        }
+    }
+
+    /**
+     * Busca en la línea el final de cada uno de los primeros CAMPOS campos
+     * (separados por comas) y lo guarda en fin.
+     * @return false si la línea tiene menos campos.
+     */
+    private static boolean separar(byte[] linea, int largo, int[] fin) {
+        int campo = 0;
+        for (int i = 0; i < largo && campo < fin.length; i++) {
+            if (linea[i] == ',') fin[campo++] = i;
+        }
+        if (campo == fin.length - 1) fin[campo++] = largo; // el último campo termina con la línea.
+        return campo == fin.length;
+    }
+
+    private static int inicio(int[] fin, int campo) {
+        return (campo == 0) ? 0 : fin[campo - 1] + 1;
+    }
+
+    /**
+     * Retorna el número entero escrito entre comillas en linea[desde .. hasta-1].
+     */
+    private static int numero(byte[] linea, int desde, int hasta) {
+        if (hasta - desde < 3) throw new NumberFormatException("campo numérico vacío");
+        int n = 0;
+        for (int i = desde + 1; i < hasta - 1; i++) {
+            int d = linea[i] - '0';
+            if (d < 0 || d > 9) throw new NumberFormatException("campo numérico inválido");
+            n = n * 10 + d;
+        }
+        return n;
+    }
+
+    /**
+     * Retorna el String de linea[desde .. hasta-1], creándolo solo la primera
+     * vez que aparece ese valor.
+     */
+    private static String texto(TSBByteSliceHashTable<String> textos, byte[] linea, int desde, int hasta) {
+        String t = textos.get(linea, desde, hasta - desde);
+        if (t == null) {
+            t = new String(linea, desde, hasta - desde, StandardCharsets.UTF_8);
+            textos.put(linea, desde, hasta - desde, t);
+        }
+        return t;
+    }
+
+    /**
+     * Lee un archivo línea por línea, dejando cada línea (sin el fin de línea)
+     * en un arreglo de bytes que se reutiliza. Lee como máximo la cantidad de
+     * bytes indicada al crearlo.
+     */
+    private static class LectorLineas {
+        private final InputStream in;
+        private final byte[] buffer = new byte[1 << 16];
+        private int pos, lim;
+        private long restantes;
+
+        // la última línea leída ocupa linea[0 .. largo-1]...
+        private byte[] linea = new byte[512];
+        private int largo;
+
+        LectorLineas(InputStream in, long restantes) {
+            this.in = in;
+            this.restantes = restantes;
+        }
+
+        boolean siguiente() throws IOException {
+            largo = 0;
+            boolean leyo = false;
+            while (true) {
+                if (pos == lim) {
+                    lim = (restantes > 0) ? in.read(buffer, 0, (int) Math.min(buffer.length, restantes)) : -1;
+                    pos = 0;
+                    if (lim > 0) restantes -= lim;
+                    if (lim <= 0) {
+                        lim = 0;
+                        if (!leyo) return false;
+                        break;
                     }
                 }
+                leyo = true;
+                byte b = buffer[pos++];
+                if (b == '\n') break;
+                if (largo == linea.length) linea = Arrays.copyOf(linea, largo * 2);
+                linea[largo++] = b;
             }
-        } catch (FileNotFoundException e) {
-            System.err.println("El archivo no existe");
+            if (largo > 0 && linea[largo - 1] == '\r') largo--;
+            return true;
         }
     }
 
     public String toString() {
-        return tabla.values().toString();
+        Consulta actual = consulta;
+        return (actual == null) ? "[]" : actual.deptos.values().toString();
     }
 
 
-    // la idea es que este metodo recupere el depto de la tabla a partir del nombre pasado por paramentro,
-    // pero el key es el id y el value es un objeto Depto, nose como resolverlo
-//    public Depto getDepto(String nombre)
-//    {
-//        return tabla.get()
-//    }
+    /**
+     * Retorna el departamento con el nombre indicado (tal como figura en el
+     * combo, sin comillas), o null si no hubo registros de ese departamento.
+     * Como la tabla está indexada por id, la primera búsqueda de cada nombre
+     * recorre la tabla; las siguientes se resuelven con una caché.
+     * @param nombre el nombre del departamento.
+     * @return el departamento con ese nombre, o null.
+     */
+    public Depto getDepto(String nombre) {
+        Consulta actual = consulta;
+        if (actual == null || nombre == null) return null;
+        return actual.buscar(nombre);
+    }
+
+    /**
+     * Una carga completa: la copia inmutable de la tabla y la caché de
+     * búsquedas por nombre sobre esa copia. Cada carga publica una Consulta
+     * nueva, por lo que una caché nunca mezcla departamentos de dos cargas ni
+     * se vacía mientras otro hilo la usa.
+     */
+    private static final class Consulta {
+        private final Map<Integer, Depto> deptos;
+
+        // departamentos ya buscados por nombre (la búsqueda por nombre recorre
+        // toda la tabla), acotada a la cantidad de departamentos de la provincia.
+        // TSBCacheDA no es thread-safe: se accede sincronizando sobre ella...
+        private final TSBCacheDA<String, Depto> porNombre = new TSBCacheDA<>(26);
+
+        Consulta(Map<Integer, Depto> deptos) {
+            this.deptos = deptos;
+        }
+
+        Depto buscar(String nombre) {
+            synchronized (porNombre) {
+                return porNombre.get(nombre, this::buscarPorNombre);
+            }
+        }
+
+        private Depto buscarPorNombre(String nombre) {
+            String buscado = "\"" + nombre + "\"";
+            for (Depto depto : deptos.values()) {
+                if (Objects.equals(depto.getNombre(), buscado)) return depto;
+            }
+            return null;
+        }
+    }
 }
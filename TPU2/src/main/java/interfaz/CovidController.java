@@ -5,6 +5,7 @@ import business.TablaDeptos;
 
 import business.Vacuna;
 import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -40,7 +41,9 @@ public class CovidController
     private TableView<?> tableDatos;
 
     private File f;
-    private TablaDeptos deptos;
+    // las consultas usan siempre la última carga completa: la tabla publica
+    // una copia nueva recién al terminar cada carga...
+    private final TablaDeptos deptos = new TablaDeptos();
 
     public void initialize()
     {
@@ -91,13 +94,35 @@ public class CovidController
     void ProcesarClick(ActionEvent event)
     {
         lblSituacion.setText("Procesando, espere por favor...");
+        btnProcesar.setDisable(true);
 
-        deptos = new TablaDeptos();
-        deptos.cargar(f);
-
-        lblSituacion.setText("Archivo cargado con exito.");
+        // la carga se hace en otro hilo para que la ventana siga respondiendo;
+        // mientras tanto las consultas usan la carga anterior...
+        File archivo = f;
+        Task<Void> carga = new Task<Void>()
+        {
+            @Override
+            protected Void call()
+            {
+                deptos.cargar(archivo);
+                return null;
+            }
+        };
+        carga.setOnSucceeded(e ->
+        {
+            btnProcesar.setDisable(false);
+            lblSituacion.setText("Archivo cargado con exito.");
+            System.out.println(deptos);
+        });
+        carga.setOnFailed(e ->
+        {
+            btnProcesar.setDisable(false);
+            lblSituacion.setText("Error al procesar el archivo.");
+        });
 
-        System.out.println(deptos);
+        Thread hilo = new Thread(carga, "carga-deptos");
+        hilo.setDaemon(true);
+        hilo.start();
     }
 
 
@@ -108,7 +133,7 @@ public class CovidController
         // aca hay que ver como recuperar el depto seleccionado del combo
 
         String nombre_depto = (String) cmbDeptos.getValue();
-        //Depto departamento = deptos.getDepto();
+        Depto departamento = deptos.getDepto(nombre_depto);
 
 
 
@@ -1,8 +1,11 @@
 module interfaz.tpu2 {
     requires javafx.controls;
     requires javafx.fxml;
+    requires jdk.jfr;
+    requires java.management;
 
 
     opens interfaz to javafx.fxml;
     exports interfaz;
+    exports support to java.management;
 }
\ No newline at end of file
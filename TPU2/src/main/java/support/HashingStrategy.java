@@ -0,0 +1,126 @@
+package support;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Estrategia que calcula el hash de las claves de una TSBHashTableDA y decide
+ * si dos claves son iguales, en lugar de los hashCode() y equals() de las
+ * propias claves. Permite, por ejemplo, usar como claves cadenas sin distinguir
+ * mayúsculas de minúsculas, o arreglos de bytes comparados por contenido, sin
+ * tener que envolver cada clave en otro objeto.
+ *
+ * Como cualquier par hashCode()/equals(), las dos operaciones deben ser
+ * consistentes: si equals(a, b) es true, hash(a) debe ser igual a hash(b).
+ * Las estrategias son Serializable porque se guardan con la tabla.
+ *
+ * @author Ardiles Micaela, Avila Pilar, Ríos Cardona Gastón, Targón Juan Cruz
+ * @version Octubre del 2021.
+ * @param <K> el tipo de las claves.
+ */
+public interface HashingStrategy<K> extends Serializable
+{
+    /**
+     * Retorna el hash de la clave.
+     * @param key la clave (nunca null).
+     * @return el hash de la clave.
+     */
+    int hash(K key);
+
+    /**
+     * Determina si dos claves son iguales.
+     * @param a una clave (nunca null).
+     * @param b la otra clave (nunca null).
+     * @return true si las claves son iguales.
+     */
+    boolean equals(K a, K b);
+
+
+    /**
+     * Estrategia para cadenas que no distingue mayúsculas de minúsculas (igual
+     * que String.equalsIgnoreCase()).
+     * @return la estrategia.
+     */
+    static HashingStrategy<String> caseInsensitive()
+    {
+        return (HashingStrategy<String>) (HashingStrategy<?>) Estrategias.CASE_INSENSITIVE;
+    }
+
+    /**
+     * Estrategia para arreglos de bytes que los compara por contenido.
+     * @return la estrategia.
+     */
+    static HashingStrategy<byte[]> byteArray()
+    {
+        return (HashingStrategy<byte[]>) (HashingStrategy<?>) Estrategias.BYTE_ARRAY;
+    }
+
+    /**
+     * Estrategia que compara las claves por identidad (==) y usa
+     * System.identityHashCode() como hash.
+     * @param <K> el tipo de las claves.
+     * @return la estrategia.
+     */
+    static <K> HashingStrategy<K> identity()
+    {
+        return (HashingStrategy<K>) Estrategias.IDENTITY;
+    }
+}
+
+/*
+ * Las estrategias predefinidas (una única instancia de cada una)...
+ */
+enum Estrategias implements HashingStrategy<Object>
+{
+    CASE_INSENSITIVE
+    {
+        @Override
+        public int hash(Object key)
+        {
+            // el mismo criterio de String.equalsIgnoreCase(), carácter por carácter...
+            String s = (String) key;
+            int h = 0;
+            for(int i = 0; i < s.length(); i++)
+            {
+                h = 31 * h + Character.toLowerCase(Character.toUpperCase(s.charAt(i)));
+            }
+            return h;
+        }
+
+        @Override
+        public boolean equals(Object a, Object b)
+        {
+            return ((String) a).equalsIgnoreCase((String) b);
+        }
+    },
+
+    BYTE_ARRAY
+    {
+        @Override
+        public int hash(Object key)
+        {
+            return Arrays.hashCode((byte[]) key);
+        }
+
+        @Override
+        public boolean equals(Object a, Object b)
+        {
+            return Arrays.equals((byte[]) a, (byte[]) b);
+        }
+    },
+
+    IDENTITY
+    {
+        @Override
+        public int hash(Object key)
+        {
+            return System.identityHashCode(key);
+        }
+
+        @Override
+        public boolean equals(Object a, Object b)
+        {
+            return a == b;
+        }
+    }
+}
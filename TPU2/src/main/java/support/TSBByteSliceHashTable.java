@@ -0,0 +1,391 @@
+package support;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Tabla hash cuyas claves son porciones de un arreglo de bytes (arreglo,
+ * posición inicial y largo), pensada para buscar directamente los campos de
+ * una línea leída como bytes (por ejemplo, de un archivo CSV en UTF-8) sin
+ * crear un String por campo. El hash y la comparación se hacen sobre los bytes
+ * de la porción.
+ *
+ * La tabla no guarda el arreglo recibido: la primera vez que se agrega una
+ * clave, sus bytes se copian a un arreglo propio (donde se guardan todas las
+ * claves una a continuación de otra). Buscar una clave, o reemplazar el valor
+ * de una que ya está, no crea ningún objeto.
+ *
+ * Usa direccionamiento abierto con exploración cuadrática sobre un arreglo de
+ * tamaño potencia de 2, y no admite valores null. Los bytes de las claves
+ * eliminadas se liberan recién en el siguiente rehash.
+ *
+ * @author Ardiles Micaela, Avila Pilar, Ríos Cardona Gastón, Targón Juan Cruz
+ * @version Octubre del 2021.
+ * @param <V> el tipo de los objetos que serán los valores de la tabla.
+ */
+public class TSBByteSliceHashTable<V> implements Serializable
+{
+    //************************ Constantes (privadas o públicas).
+
+    // valores especiales del arreglo de posiciones: casillero abierto y tumba...
+    private final static int ABIERTO = -1;
+    private final static int TUMBA = -2;
+
+    // el tamaño máximo que podrá tener la tabla (potencia de 2)...
+    private final static int MAX_SIZE = 1 << 30;
+
+
+    //************************ Atributos privados (estructurales).
+
+    // para cada casillero: posición de la clave en datos (o ABIERTO / TUMBA),
+    // largo de la clave, su hash y el valor asociado...
+    private int []posiciones;
+    private int []largos;
+    private int []hashes;
+    private Object []values;
+
+    // los bytes de todas las claves, una a continuación de otra...
+    private byte []datos;
+    private int usados;
+
+    // la cantidad de claves, y la cantidad de casilleros con tumba...
+    private int count;
+    private int tumbas;
+
+    // el tamaño inicial de la tabla...
+    private int initial_capacity;
+
+
+    //************************ Constructores.
+
+    /**
+     * Crea una tabla vacía con 16 casilleros.
+     */
+    public TSBByteSliceHashTable()
+    {
+        this(16);
+    }
+
+    /**
+     * Crea una tabla vacía con (al menos) la cantidad de casilleros indicada,
+     * redondeada a la siguiente potencia de 2.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     */
+    public TSBByteSliceHashTable(int initial_capacity)
+    {
+        if(initial_capacity < 4) { initial_capacity = 4; }
+        if(initial_capacity > MAX_SIZE) { initial_capacity = MAX_SIZE; }
+        this.initial_capacity = Integer.highestOneBit(initial_capacity - 1) << 1;
+        this.clear();
+    }
+
+
+    //************************ Métodos de la tabla.
+
+    /**
+     * Retorna el valor asociado a la clave formada por los bytes
+     * b[off .. off+len-1], o null si la clave no está en la tabla.
+     * @param b el arreglo que contiene la clave.
+     * @param off la posición del primer byte de la clave.
+     * @param len la cantidad de bytes de la clave.
+     * @return el valor asociado a la clave, o null.
+     * @throws NullPointerException si b es null.
+     * @throws IndexOutOfBoundsException si la porción no está dentro de b.
+     */
+    public V get(byte []b, int off, int len)
+    {
+        controlar(b, off, len);
+
+        int slot = this.buscar(b, off, len, hash(b, off, len));
+        return (posiciones[slot] >= 0) ? (V) values[slot] : null;
+    }
+
+    /**
+     * Determina si la clave formada por los bytes b[off .. off+len-1] está en
+     * la tabla.
+     * @param b el arreglo que contiene la clave.
+     * @param off la posición del primer byte de la clave.
+     * @param len la cantidad de bytes de la clave.
+     * @return true si la clave está en la tabla.
+     */
+    public boolean containsKey(byte []b, int off, int len)
+    {
+        return this.get(b, off, len) != null;
+    }
+
+    /**
+     * Asocia el valor a la clave formada por los bytes b[off .. off+len-1]. Si
+     * la clave no estaba, sus bytes se copian a la tabla (el arreglo b puede
+     * reutilizarse luego); si ya estaba, solo se reemplaza el valor.
+     * @param b el arreglo que contiene la clave.
+     * @param off la posición del primer byte de la clave.
+     * @param len la cantidad de bytes de la clave.
+     * @param value el valor a asociar.
+     * @return el valor anterior asociado a la clave, o null si no estaba.
+     * @throws NullPointerException si b o value son null.
+     */
+    public V put(byte []b, int off, int len, V value)
+    {
+        controlar(b, off, len);
+        if(value == null) throw new NullPointerException("put(): parámetro null");
+
+        if(count + tumbas + 1 > posiciones.length / 2) this.rehash();
+
+        int hash = hash(b, off, len);
+        int slot = this.buscar(b, off, len, hash);
+        if(posiciones[slot] >= 0)
+        {
+            V old = (V) values[slot];
+            values[slot] = value;
+            return old;
+        }
+
+        if(posiciones[slot] == TUMBA) tumbas--;
+        posiciones[slot] = this.copiar(b, off, len);
+        largos[slot] = len;
+        hashes[slot] = hash;
+        values[slot] = value;
+        count++;
+        return null;
+    }
+
+    /**
+     * Igual que put(b, 0, b.length, value), para una clave dada como String
+     * (que se codifica en UTF-8).
+     * @param key la clave.
+     * @param value el valor a asociar.
+     * @return el valor anterior asociado a la clave, o null si no estaba.
+     */
+    public V put(String key, V value)
+    {
+        byte []b = key.getBytes(StandardCharsets.UTF_8);
+        return this.put(b, 0, b.length, value);
+    }
+
+    /**
+     * Elimina la clave formada por los bytes b[off .. off+len-1].
+     * @param b el arreglo que contiene la clave.
+     * @param off la posición del primer byte de la clave.
+     * @param len la cantidad de bytes de la clave.
+     * @return el valor que estaba asociado a la clave, o null si no estaba.
+     */
+    public V remove(byte []b, int off, int len)
+    {
+        controlar(b, off, len);
+
+        int slot = this.buscar(b, off, len, hash(b, off, len));
+        if(posiciones[slot] < 0) return null;
+
+        V old = (V) values[slot];
+        posiciones[slot] = TUMBA;
+        values[slot] = null;
+        count--;
+        tumbas++;
+        return old;
+    }
+
+    /**
+     * Retorna la cantidad de claves de la tabla.
+     * @return la cantidad de claves.
+     */
+    public int size()
+    {
+        return count;
+    }
+
+    /**
+     * Determina si la tabla está vacía.
+     * @return true si la tabla no tiene claves.
+     */
+    public boolean isEmpty()
+    {
+        return count == 0;
+    }
+
+    /**
+     * Elimina todas las claves, y vuelve la tabla a su tamaño inicial.
+     */
+    public void clear()
+    {
+        this.crear(this.initial_capacity);
+        this.datos = new byte[64];
+        this.usados = 0;
+        this.count = 0;
+        this.tumbas = 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder cad = new StringBuilder("{");
+        for(int i = 0; i < posiciones.length; i++)
+        {
+            if(posiciones[i] < 0) continue;
+            if(cad.length() > 1) cad.append(", ");
+            cad.append(new String(datos, posiciones[i], largos[i], StandardCharsets.UTF_8));
+            cad.append("=").append(values[i]);
+        }
+        return cad.append("}").toString();
+    }
+
+    /**
+     * Retorna la cantidad de casilleros de la tabla.
+     * @return la capacidad actual de la tabla.
+     */
+    int capacity()
+    {
+        return this.posiciones.length;
+    }
+
+    /**
+     * Retorna la cantidad de tumbas de la tabla.
+     * @return la cantidad de tumbas.
+     */
+    int tombstones()
+    {
+        return this.tumbas;
+    }
+
+    /**
+     * Retorna la cantidad de bytes usados del arreglo de claves, incluyendo
+     * los de las claves eliminadas desde el último rehash.
+     * @return la cantidad de bytes usados.
+     */
+    int used()
+    {
+        return this.usados;
+    }
+
+    /**
+     * Retorna el tamaño del arreglo donde se guardan los bytes de las claves.
+     * @return el tamaño del arreglo de claves.
+     */
+    int dataLength()
+    {
+        return this.datos.length;
+    }
+
+
+    //************************ Métodos privados.
+
+    private static void controlar(byte []b, int off, int len)
+    {
+        if(b == null) throw new NullPointerException("parámetro null");
+        if(off < 0 || len < 0 || off > b.length - len)
+        {
+            throw new IndexOutOfBoundsException("porción fuera del arreglo: " + off + ", " + len);
+        }
+    }
+
+    /*
+     * Hash de los bytes de la porción (el mismo polinomio que String.hashCode()),
+     * mezclado para que los bits bajos, que eligen el casillero, dependan de
+     * todos los bytes.
+     */
+    private static int hash(byte []b, int off, int len)
+    {
+        int h = 0;
+        for(int i = off; i < off + len; i++)
+        {
+            h = 31 * h + b[i];
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    /*
+     * Retorna el casillero de la clave si está, o si no, el casillero donde
+     * debería agregarse (la primera tumba del recorrido, o el casillero abierto
+     * que lo terminó). Usa la secuencia de números triangulares, que en una
+     * tabla de tamaño potencia de 2 visita todos los casilleros.
+     */
+    private int buscar(byte []b, int off, int len, int hash)
+    {
+        int mask = posiciones.length - 1;
+        int slot = hash & mask;
+        int t = -1;
+        for(int j = 1; ; j++)
+        {
+            int pos = posiciones[slot];
+            if(pos == ABIERTO)
+            {
+                return (t == -1) ? slot : t;
+            }
+            if(pos == TUMBA)
+            {
+                if(t == -1) { t = slot; }
+            }
+            else if(hashes[slot] == hash && largos[slot] == len &&
+                    Arrays.equals(datos, pos, pos + len, b, off, off + len))
+            {
+                return slot;
+            }
+            slot = (slot + j) & mask;
+        }
+    }
+
+    /*
+     * Copia los bytes de la clave al final de datos, y retorna su posición.
+     */
+    private int copiar(byte []b, int off, int len)
+    {
+        if(usados + len > datos.length)
+        {
+            datos = Arrays.copyOf(datos, Math.max(datos.length * 2, usados + len));
+        }
+        System.arraycopy(b, off, datos, usados, len);
+        int pos = usados;
+        usados += len;
+        return pos;
+    }
+
+    private void crear(int length)
+    {
+        this.posiciones = new int[length];
+        Arrays.fill(this.posiciones, ABIERTO);
+        this.largos = new int[length];
+        this.hashes = new int[length];
+        this.values = new Object[length];
+    }
+
+    /*
+     * Duplica el tamaño de la tabla (o lo mantiene, si lo que la llenó fueron
+     * tumbas) y reubica las claves, copiando sus bytes a un arreglo nuevo sin
+     * los de las claves eliminadas.
+     */
+    private void rehash()
+    {
+        int []oldPosiciones = posiciones;
+        int []oldLargos = largos;
+        int []oldHashes = hashes;
+        Object []oldValues = values;
+        byte []oldDatos = datos;
+
+        int length = posiciones.length;
+        if(count + 1 > length / 4 && length < MAX_SIZE) length *= 2;
+
+        this.crear(length);
+        this.datos = new byte[Math.max(64, usados)];
+        this.usados = 0;
+        this.tumbas = 0;
+
+        int mask = length - 1;
+        for(int i = 0; i < oldPosiciones.length; i++)
+        {
+            if(oldPosiciones[i] < 0) continue;
+
+            int slot = oldHashes[i] & mask;
+            for(int j = 1; posiciones[slot] != ABIERTO; j++)
+            {
+                slot = (slot + j) & mask;
+            }
+            posiciones[slot] = this.copiar(oldDatos, oldPosiciones[i], oldLargos[i]);
+            largos[slot] = oldLargos[i];
+            hashes[slot] = oldHashes[i];
+            values[slot] = oldValues[i];
+        }
+    }
+}
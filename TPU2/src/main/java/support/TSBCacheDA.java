@@ -0,0 +1,266 @@
+package support;
+
+import java.util.function.Function;
+
+/**
+ * Caché de tamaño acotado construida sobre una TSBHashTableDA. La tabla hash
+ * asocia cada clave con un casillero de los arreglos laterales (claves,
+ * valores y bit de referencia), y cuando la caché está llena se desaloja un
+ * par usando el algoritmo CLOCK (segunda oportunidad): una aguja recorre los
+ * casilleros en forma circular, y cada casillero referenciado desde la última
+ * pasada pierde su bit en lugar de ser desalojado.
+ *
+ * Un acierto solo marca el bit de referencia del casillero, sin crear objetos
+ * nuevos. La cantidad de pares guardados nunca supera la capacidad indicada al
+ * crear la caché, sin importar cuántas claves distintas se consulten.
+ *
+ * Igual que la TSBHashTableDA, no admite claves ni valores null.
+ *
+ * @author Ardiles Micaela, Avila Pilar, Ríos Cardona Gastón, Targón Juan Cruz
+ * @version Octubre del 2021.
+ * @param <K> el tipo de los objetos que serán usados como clave en la caché.
+ * @param <V> el tipo de los objetos que serán los valores de la caché.
+ */
+public class TSBCacheDA<K,V>
+{
+    //************************ Atributos privados.
+
+    // la tabla que asocia cada clave con su casillero en los arreglos laterales...
+    private TSBHashTableDA<K, Integer> indice;
+
+    // los arreglos laterales: clave, valor y bit de referencia de cada casillero...
+    private Object []claves;
+    private Object []valores;
+    private boolean []referenciado;
+
+    // pila de casilleros libres (por clear() o remove())...
+    private int []libres;
+    private int cantLibres;
+
+    // la posición actual de la aguja del algoritmo CLOCK...
+    private int aguja;
+
+    // contadores de aciertos, fallos y desalojos...
+    private long aciertos;
+    private long fallos;
+    private long desalojos;
+
+
+    //************************ Constructores.
+
+    /**
+     * Crea una caché vacía que guardará como máximo la cantidad de pares
+     * indicada.
+     * @param capacidad la cantidad máxima de pares de la caché.
+     * @throws IllegalArgumentException si la capacidad es menor a 1.
+     */
+    public TSBCacheDA(int capacidad)
+    {
+        if(capacidad < 1)
+        {
+            throw new IllegalArgumentException("TSBCacheDA(): capacidad menor a 1");
+        }
+
+        // la tabla se crea con el doble de casilleros para que nunca haga rehash...
+        this.indice = new TSBHashTableDA<>(capacidad * 2 + 1);
+        this.claves = new Object[capacidad];
+        this.valores = new Object[capacidad];
+        this.referenciado = new boolean[capacidad];
+        this.libres = new int[capacidad];
+        this.clear();
+    }
+
+
+    //************************ Métodos de la caché.
+
+    /**
+     * Retorna el valor asociado a la clave, o null si la clave no está en la
+     * caché. Cuenta un acierto o un fallo según el caso.
+     * @param key la clave a buscar.
+     * @return el valor asociado a la clave, o null.
+     * @throws NullPointerException si key es null.
+     */
+    public V get(K key)
+    {
+        if(key == null) throw new NullPointerException("get(): parámetro null");
+
+        Integer i = indice.get(key);
+        if(i == null)
+        {
+            fallos++;
+            return null;
+        }
+
+        aciertos++;
+        referenciado[i] = true;
+        return (V) valores[i];
+    }
+
+    /**
+     * Retorna el valor asociado a la clave. Si la clave no está en la caché,
+     * lo calcula con la función indicada y lo guarda (desalojando otro par si
+     * hace falta) antes de retornarlo.
+     * @param key la clave a buscar.
+     * @param cargar la función que calcula el valor de una clave que no está.
+     * @return el valor asociado a la clave, o null si cargar retornó null (en
+     *         cuyo caso no se guarda nada).
+     * @throws NullPointerException si key o cargar son null.
+     */
+    public V get(K key, Function<? super K, ? extends V> cargar)
+    {
+        if(cargar == null) throw new NullPointerException("get(): parámetro null");
+
+        V value = this.get(key);
+        if(value == null)
+        {
+            value = cargar.apply(key);
+            if(value != null) this.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Asocia el valor a la clave en la caché. Si la clave no estaba y la caché
+     * está llena, desaloja antes el par elegido por el algoritmo CLOCK.
+     * @param key la clave a agregar.
+     * @param value el valor a asociar a la clave.
+     * @return el valor anterior asociado a la clave, o null si no estaba.
+     * @throws NullPointerException si key o value son null.
+     */
+    public V put(K key, V value)
+    {
+        if(key == null || value == null) throw new NullPointerException("put(): parámetro null");
+
+        Integer i = indice.get(key);
+        if(i != null)
+        {
+            V old = (V) valores[i];
+            valores[i] = value;
+            referenciado[i] = true;
+            return old;
+        }
+
+        int libre = (cantLibres > 0) ? libres[--cantLibres] : this.desalojar();
+        claves[libre] = key;
+        valores[libre] = value;
+        referenciado[libre] = false;
+        indice.put(key, libre);
+        return null;
+    }
+
+    /**
+     * Elimina de la caché el par con la clave indicada.
+     * @param key la clave a eliminar.
+     * @return el valor que estaba asociado a la clave, o null si no estaba.
+     * @throws NullPointerException si key es null.
+     */
+    public V remove(K key)
+    {
+        if(key == null) throw new NullPointerException("remove(): parámetro null");
+
+        Integer i = indice.remove(key);
+        if(i == null) return null;
+
+        V old = (V) valores[i];
+        claves[i] = null;
+        valores[i] = null;
+        referenciado[i] = false;
+        libres[cantLibres++] = i;
+        return old;
+    }
+
+    /**
+     * Elimina todos los pares de la caché. Los contadores no se reinician.
+     */
+    public void clear()
+    {
+        indice.clear();
+        for(int i = 0; i < claves.length; i++)
+        {
+            claves[i] = null;
+            valores[i] = null;
+            referenciado[i] = false;
+            libres[i] = claves.length - 1 - i;
+        }
+        cantLibres = claves.length;
+        aguja = 0;
+    }
+
+    /**
+     * Retorna la cantidad de pares que contiene la caché.
+     * @return la cantidad de pares de la caché.
+     */
+    public int size()
+    {
+        return claves.length - cantLibres;
+    }
+
+    /**
+     * Retorna la cantidad máxima de pares que puede contener la caché.
+     * @return la capacidad de la caché.
+     */
+    public int capacity()
+    {
+        return claves.length;
+    }
+
+    /**
+     * Retorna la cantidad de búsquedas que encontraron la clave en la caché.
+     * @return la cantidad de aciertos.
+     */
+    public long getHits()
+    {
+        return aciertos;
+    }
+
+    /**
+     * Retorna la cantidad de búsquedas que no encontraron la clave en la caché.
+     * @return la cantidad de fallos.
+     */
+    public long getMisses()
+    {
+        return fallos;
+    }
+
+    /**
+     * Retorna la cantidad de pares desalojados para hacer lugar a otros.
+     * @return la cantidad de desalojos.
+     */
+    public long getEvictions()
+    {
+        return desalojos;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TSBCacheDA[size=" + this.size() + ", capacity=" + this.capacity() +
+               ", hits=" + aciertos + ", misses=" + fallos + ", evictions=" + desalojos + "]";
+    }
+
+
+    //************************ Métodos privados.
+
+    /*
+     * Avanza la aguja hasta un casillero no referenciado (quitando el bit a
+     * los referenciados que encuentra en el camino), desaloja su par y retorna
+     * el casillero, que queda libre. Solo se invoca con la caché llena.
+     */
+    private int desalojar()
+    {
+        while(referenciado[aguja])
+        {
+            referenciado[aguja] = false;
+            aguja = (aguja + 1) % claves.length;
+        }
+
+        int victima = aguja;
+        aguja = (aguja + 1) % claves.length;
+
+        indice.remove((K) claves[victima]);
+        claves[victima] = null;
+        valores[victima] = null;
+        desalojos++;
+        return victima;
+    }
+}
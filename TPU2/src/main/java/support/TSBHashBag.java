@@ -0,0 +1,246 @@
+package support;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Multiconjunto (bag) que cuenta cuántas veces se agregó cada elemento. Está
+ * construido sobre una TSBObjectIntHashTableDA que asocia cada elemento con su
+ * cuenta como int: sumar a la cuenta de un elemento es una búsqueda en la
+ * tabla y un incremento, sin crear objetos ni convertir la cuenta a Integer.
+ * Los Entry (elemento y cuenta) se crean solo al consultar el bag con topK(),
+ * entries() o iterator().
+ *
+ * Sirve para los conteos por categoría (por vacuna, por sexo, por dosis...)
+ * sin importar cuántas categorías distintas aparezcan. No admite elementos
+ * null.
+ *
+ * @author Ardiles Micaela, Avila Pilar, Ríos Cardona Gastón, Targón Juan Cruz
+ * @version Octubre del 2021.
+ * @param <E> el tipo de los elementos que se cuentan.
+ */
+public class TSBHashBag<E> implements Iterable<TSBHashBag.Entry<E>>, Serializable
+{
+    //************************ Atributos privados.
+
+    // la tabla que asocia cada elemento con su cuenta...
+    private TSBObjectIntHashTableDA<E> tabla;
+
+    // la suma de las cuentas de todos los elementos...
+    private long total;
+
+
+    //************************ Constructores.
+
+    /**
+     * Crea un bag vacío.
+     */
+    public TSBHashBag()
+    {
+        this.tabla = new TSBObjectIntHashTableDA<>();
+        this.total = 0;
+    }
+
+
+    //************************ Métodos del bag.
+
+    /**
+     * Suma 1 a la cuenta del elemento.
+     * @param e el elemento a contar.
+     * @return la nueva cuenta del elemento.
+     * @throws NullPointerException si e es null.
+     */
+    public int add(E e)
+    {
+        return this.add(e, 1);
+    }
+
+    /**
+     * Suma n a la cuenta del elemento.
+     * @param e el elemento a contar.
+     * @param n la cantidad a sumar.
+     * @return la nueva cuenta del elemento.
+     * @throws NullPointerException si e es null.
+     * @throws IllegalArgumentException si n es negativo.
+     */
+    public int add(E e, int n)
+    {
+        if(e == null) throw new NullPointerException("add(): parámetro null");
+        if(n < 0) throw new IllegalArgumentException("add(): cantidad negativa");
+
+        if(n == 0) return tabla.getInt(e);
+
+        this.total += n;
+        return tabla.addTo(e, n) + n;
+    }
+
+    /**
+     * Suma a este bag las cuentas de todos los elementos del bag indicado.
+     * @param otro el bag cuyas cuentas se suman.
+     * @throws NullPointerException si otro es null.
+     */
+    public void addAll(TSBHashBag<? extends E> otro)
+    {
+        otro.tabla.forEach((e, n) -> this.add(e, n));
+    }
+
+    /**
+     * Fija la cuenta del elemento. Si la cuenta es 0, el elemento deja de
+     * estar en el bag.
+     * @param e el elemento.
+     * @param n la nueva cuenta.
+     * @return la cuenta anterior del elemento.
+     * @throws NullPointerException si e es null.
+     * @throws IllegalArgumentException si n es negativo.
+     */
+    public int setCount(E e, int n)
+    {
+        if(e == null) throw new NullPointerException("setCount(): parámetro null");
+        if(n < 0) throw new IllegalArgumentException("setCount(): cantidad negativa");
+
+        int old = (n == 0) ? tabla.removeInt(e) : tabla.putInt(e, n);
+        this.total += n - old;
+        return old;
+    }
+
+    /**
+     * Retorna la cuenta del elemento.
+     * @param e el elemento.
+     * @return la cantidad de veces que se agregó el elemento (0 si nunca).
+     * @throws NullPointerException si e es null.
+     */
+    public int count(Object e)
+    {
+        if(e == null) throw new NullPointerException("count(): parámetro null");
+
+        return tabla.getInt(e);
+    }
+
+    /**
+     * Retorna los k elementos con mayor cuenta, de mayor a menor (los empates
+     * quedan en cualquier orden). Si hay menos de k elementos, los retorna a
+     * todos. Usa un heap de k elementos, por lo que cuesta O(n log k).
+     * @param k la cantidad de elementos pedidos.
+     * @return la lista de los (a lo sumo) k Entry con mayor cuenta.
+     * @throws IllegalArgumentException si k es negativo.
+     */
+    public List<Entry<E>> topK(int k)
+    {
+        if(k < 0) throw new IllegalArgumentException("topK(): k negativo");
+        if(k == 0) return new ArrayList<>();
+
+        // heap de mínimo: la raíz es el menor de los k mejores hasta ahora...
+        PriorityQueue<Entry<E>> heap = new PriorityQueue<>(k, (a, b) -> Integer.compare(a.count, b.count));
+        tabla.forEach((e, n) ->
+        {
+            if(heap.size() < k)
+            {
+                heap.add(new Entry<>(e, n));
+            }
+            else if(n > heap.peek().count)
+            {
+                heap.poll();
+                heap.add(new Entry<>(e, n));
+            }
+        });
+
+        List<Entry<E>> top = new ArrayList<>(heap);
+        top.sort((a, b) -> Integer.compare(b.count, a.count));
+        return top;
+    }
+
+    /**
+     * Retorna los Entry (elemento y cuenta) del bag, en una colección de solo
+     * lectura que no refleja los cambios posteriores del bag.
+     * @return la colección de Entry.
+     */
+    public Collection<Entry<E>> entries()
+    {
+        List<Entry<E>> lista = new ArrayList<>(tabla.size());
+        tabla.forEach((e, n) -> lista.add(new Entry<>(e, n)));
+        return Collections.unmodifiableList(lista);
+    }
+
+    /**
+     * Retorna un iterador sobre los Entry del bag (sin remove()).
+     * @return el iterador.
+     */
+    @Override
+    public Iterator<Entry<E>> iterator()
+    {
+        return this.entries().iterator();
+    }
+
+    /**
+     * Retorna la cantidad de elementos distintos del bag.
+     * @return la cantidad de elementos distintos.
+     */
+    public int distinct()
+    {
+        return tabla.size();
+    }
+
+    /**
+     * Retorna la suma de las cuentas de todos los elementos.
+     * @return el total contado.
+     */
+    public long size()
+    {
+        return this.total;
+    }
+
+    /**
+     * Elimina todos los elementos del bag.
+     */
+    public void clear()
+    {
+        tabla.clear();
+        this.total = 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.entries().toString();
+    }
+
+
+    //************************ Clases Internas.
+
+    /**
+     * Un elemento del bag junto con su cuenta (al momento de la consulta).
+     * @param <E> el tipo del elemento.
+     */
+    public static final class Entry<E> implements Serializable
+    {
+        private final E element;
+        private final int count;
+
+        private Entry(E element, int count)
+        {
+            this.element = element;
+            this.count = count;
+        }
+
+        public E getElement()
+        {
+            return element;
+        }
+
+        public int getCount()
+        {
+            return count;
+        }
+
+        @Override
+        public String toString()
+        {
+            return element + ": " + count;
+        }
+    }
+}
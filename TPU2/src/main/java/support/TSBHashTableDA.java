@@ -1,15 +1,39 @@
 package support;
 
 import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.lang.ref.WeakReference;
+import java.lang.management.ManagementFactory;
+import java.lang.invoke.VarHandle;
 import java.util.AbstractSet;
 import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
 
 /**
  * Clase para emular la funcionalidad de la clase java.util.Hashtable provista
@@ -44,6 +68,35 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
     // el tamaño máximo que podrá tener el arreglo de soporte...
     private final static int MAX_SIZE = Integer.MAX_VALUE; // el MAX_VALUE de Integer también es primo.
 
+    // la cantidad de casilleros que procesa cada tarea del rehash paralelo...
+    private final static int TRAMO_REHASH = 1 << 16;
+
+    // la cantidad de inserciones medidas entre dos ajustes del factor de carga
+    // adaptativo...
+    private final static int MUESTRAS_AJUSTE = 64;
+
+    // a partir de esta cantidad de casilleros recorridos, una búsqueda emite un
+    // evento LongProbe (si la grabación JFR lo tiene activado)...
+    private static volatile int umbral_sondeo_largo = 32;
+
+    // a partir de esta cantidad de entries, el rehash los reubica en paralelo
+    // (visible en el paquete para poder bajarlo en las pruebas)...
+    static volatile int umbral_paralelo = 1 << 20;
+
+    // acceso atómico (compareAndSet) a los casilleros de un Object[]...
+    private final static VarHandle CASILLERO = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    // la cantidad de casilleros de cada tramo que se copia para los snapshots
+    // antes de modificarlo (ver snapshot())...
+    private final static int TRAMO_SNAPSHOT = 1 << 10;
+
+    // acceso con semántica acquire / release a los tramos copiados de un snapshot...
+    private final static VarHandle TRAMO = MethodHandles.arrayElementVarHandle(Object[][].class);
+
+    // registerMBean() y unregisterMBean() de todas las tablas se hacen de a
+    // uno, porque varias tablas pueden usar el mismo nombre de MBean...
+    private final static Object REGISTRO_MBEANS = new Object();
+
 
     //************************ Atributos privados (estructurales).
     
@@ -55,9 +108,69 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
     
     // la cantidad de objetos que contiene la tabla en TODAS sus listas...
     private int count;
+
+    // la cantidad de tumbas (casilleros de entries eliminados) de la tabla...
+    private int tumbas;
     
     // el factor de carga para calcular si hace falta un rehashing...
     private float load_factor;
+
+    // la estrategia que calcula el hash de las claves y las compara, o null
+    // para usar hashCode() y equals() de las propias claves...
+    private final HashingStrategy<? super K> estrategia;
+
+    // tiempo de vida (en nanosegundos) de los pares agregados con put(key, value),
+    // o 0 si no vencen...
+    private long ttl;
+
+    // la cantidad de entries cerrados que tienen vencimiento (si es 0, no hace
+    // falta consultar el reloj)...
+    private int vencibles;
+
+    // el próximo casillero a revisar por el barrido de entries vencidos...
+    private int barrido;
+
+    // factor de carga adaptativo: si está activado, el factor de carga se
+    // ajusta entre lf_min y lf_max según la longitud media de las búsquedas
+    // fallidas, buscando que no supere a sondeo_objetivo...
+    private boolean adaptativo;
+    private float lf_min;
+    private float lf_max;
+    private float sondeo_objetivo;
+
+    // casilleros recorridos y cantidad de búsquedas fallidas medidas desde el
+    // último ajuste...
+    private long sondeos;
+    private int muestras;
+
+    // cantidad de rehash realizados, y el tiempo total (en nanosegundos) que
+    // llevaron...
+    private long rehashes;
+    private long tiempo_rehash;
+
+    // el MBean con el que la tabla está registrada, o null (también pasa a
+    // null si otra tabla o una consola JMX quita ese registro)...
+    private transient volatile Registro mbean;
+
+    // filtro de Bloom con los hash de las claves, o null si no está activado...
+    private FiltroBloom filtro;
+
+    // versión actual de la tabla: se incrementa con cada snapshot(). Los
+    // entries creados en versiones anteriores son compartidos con algún
+    // snapshot y no se modifican (se reemplazan por una copia)...
+    private int version;
+
+    // los snapshots que comparten el arreglo table (con referencias débiles,
+    // para no retener los que ya no se usan), o null si ninguno lo comparte.
+    // Antes de modificar un tramo del arreglo se les guarda una copia...
+    private transient ArrayList<WeakReference<Snapshot>> compartida;
+
+    // para cada tramo del arreglo table, la versión en la que se lo copió por
+    // última vez para los snapshots (si es la actual, ya todos tienen su copia)...
+    private transient int []tramo_copiado;
+
+    // cantidad de tramos copiados para los snapshots...
+    private long tramos_copiados;
       
 
 
@@ -117,6 +230,35 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
      * @param load_factor el factor de carga de la tabla.
      */
     public TSBHashTableDA(int initial_capacity, float load_factor)
+    {
+        this(initial_capacity, load_factor, null);
+    }
+
+    /**
+     * Crea una tabla vacía, con la capacidad inicial igual a 11, con factor de
+     * carga igual a 0.5f, y que calcula el hash de las claves y las compara
+     * con la estrategia indicada.
+     * @param estrategia la estrategia de hash de las claves.
+     */
+    public TSBHashTableDA(HashingStrategy<? super K> estrategia)
+    {
+        this(11, 0.5f, estrategia);
+    }
+
+    /**
+     * Crea una tabla vacía, con la capacidad inicial y el factor de carga
+     * indicados (ajustados igual que en TSBHashTableDA(initial_capacity,
+     * load_factor)), que calcula el hash de las claves y las compara con la
+     * estrategia indicada en lugar de usar sus hashCode() y equals(). Permite,
+     * por ejemplo, usar como claves cadenas sin distinguir mayúsculas de
+     * minúsculas o arreglos de bytes comparados por contenido, sin envolverlas
+     * en otro objeto.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     * @param load_factor el factor de carga de la tabla.
+     * @param estrategia la estrategia de hash de las claves, o null para usar
+     *                   hashCode() y equals() de las claves.
+     */
+    public TSBHashTableDA(int initial_capacity, float load_factor, HashingStrategy<? super K> estrategia)
     {
         if(load_factor <= 0) { load_factor = 0.5f; }
         if(initial_capacity <= 2) { initial_capacity = 11; }
@@ -138,6 +280,7 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
         
         this.initial_capacity = initial_capacity;
         this.load_factor = load_factor;
+        this.estrategia = estrategia;
         this.count = 0;
         this.modCount = 0;
     }
@@ -221,7 +364,10 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
     {
        if(key == null) throw new NullPointerException("get(): parámetro null");
 
-       int index = this.search_for_entry_index((K)key);
+       int hash = this.hashDe(key);
+       if(this.filtro != null && !this.filtro.puedeEstar(hash)) return null; // seguro no está.
+
+       int index = this.search_for_entry_index((K)key, hash);
        Entry<K,V> entry =(Entry<K,V>) table[index];
        return (entry.getEstado() == 1) ? entry.getValue() : null; // se evalua que sea un entry ocupado y no una tumba.
     }
@@ -240,27 +386,72 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
      */
     @Override
     public V put(K key, V value) 
+    {
+        return this.insertar(key, value, this.ttl);
+    }
+
+    /**
+     * Igual que put(key, value), pero el par vence luego del tiempo indicado,
+     * sin importar el tiempo de vida fijado para la tabla con setTimeToLive().
+     * Si el tiempo es cero o negativo, el par no vence.
+     * @param key la clave del objeto que se quiere agregar a la tabla.
+     * @param value el objeto que se quiere agregar a la tabla.
+     * @param ttl el tiempo de vida del par.
+     * @param unit la unidad en la que está expresado ttl.
+     * @return el objeto anteriormente asociado a la clave, o null.
+     * @throws NullPointerException si key, value o unit son null.
+     */
+    public V put(K key, V value, long ttl, TimeUnit unit)
+    {
+        return this.insertar(key, value, (ttl > 0) ? unit.toNanos(ttl) : 0);
+    }
+
+    /*
+     * Implementación de put(): ttl es el tiempo de vida en nanosegundos, o 0
+     * si el par no vence.
+     */
+    private V insertar(K key, V value, long ttl)
     {
         if(key == null || value == null) throw new NullPointerException("put(): parámetro null");
 
-        if(count >= this.load_factor * table.length) this.rehash();
+        return this.insertar(key, value, this.hashDe(key), ttl);
+    }
+
+    /*
+     * Igual que insertar(key, value, ttl), pero recibe el hash de la key ya
+     * calculado (y no controla que key y value no sean null).
+     */
+    private V insertar(K key, V value, int hash, long ttl)
+    {
+        // cada inserción revisa unos pocos casilleros en busca de vencidos...
+        if(this.vencibles > 0) this.barrer(System.nanoTime());
+
+        // las tumbas también alargan las búsquedas: si junto con los entries
+        // cerrados superan el límite, el rehash las elimina...
+        if(count + tumbas >= this.load_factor * table.length) this.rehash();
 
         int index;
         V old = null;
-        index = this.search_for_entry_index(key);
+        index = this.search_for_entry_index(key, hash); // el hash queda guardado en el entry.
+        long vence = (ttl > 0) ? vencimiento(ttl) : 0;
         Entry<K,V> entry = (Entry<K,V>) table[index];
-        if(entry.getEstado() != 0) // es un entry ocupado
+        if(entry.getEstado() == 1) // es un entry ocupado con la misma key
         {
-            if (entry.getEstado() == 1) // si es entry, no es tumba
-           {
-               old = entry.getValue();
-           }
+           entry = this.propia(index);
+           old = entry.getValue();
            entry.setValue(value);
-           entry.setEstado(1);
+           if(entry.vence != 0) this.vencibles--;
+           entry.vence = vence;
+           if(vence != 0) this.vencibles++;
         }
-        else // no está ocupado
+        else // está abierto o es una tumba (que puede ser de otra key): se reemplaza
         {
-            table[index] = new Entry<>(key, value);
+            if(entry.getEstado() == 2) this.tumbas--;
+            entry = new Entry<>(key, value, 1, hash);
+            entry.vence = vence;
+            if(vence != 0) this.vencibles++;
+            this.ubicar(index, entry);
+            if(this.filtro != null) this.filtro.agregar(hash);
             this.count++;
             this.modCount++; // aca se hace modCount++ por si no se hizo rehash, para mostrar que se modificó la tabla
         }
@@ -273,6 +464,9 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
      * Utiliza el metodo search_for_entry_index para obtener el índice del lugar
      * donde debería encontrarse el objeto.A partir de ahí se evalúa si ya existe
      * la key ingresada por parámetro en la tabla.
+     * Si luego de eliminar la cantidad de objetos queda por debajo de la cuarta
+     * parte del límite de rehash (load_factor * table.length / 4), la tabla se
+     * achica a la mitad (nunca por debajo de initial_capacity).
      * @param key la clave a eliminar.
      * @return El objeto al cual la clave estaba asociada, o null si la clave no
      *         estaba en la tabla.
@@ -280,6 +474,22 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
      */
     @Override
     public V remove(Object key) 
+    {
+       V old = this.eliminar(key);
+
+       // si quedó por debajo de la marca mínima, se achica la tabla...
+       if(old != null && table.length > initial_capacity && count < this.load_factor * table.length / 4)
+       {
+           this.redimensionar(Math.max(initial_capacity, siguientePrimo(table.length / 2)));
+       }
+       return old;
+    }
+
+    /*
+     * Implementación de remove() sin achicar la tabla, para que la usen los
+     * iteradores (que recorren el arreglo de soporte actual).
+     */
+    private V eliminar(Object key)
     {
        if(key == null) throw new NullPointerException("remove(): parámetro null");
 
@@ -288,9 +498,12 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
        Entry<K,V> entry =(Entry<K,V>) table[index];
        if(entry.getEstado() == 1)
        {
+           entry = this.propia(index);
            old = entry.getValue();
            entry.setEstado(2);
+           if(entry.vence != 0) this.vencibles--;
            this.count--;
+           this.tumbas++;
            this.modCount++;
        }
        return old;        
@@ -312,6 +525,105 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
         }
     }
 
+    /**
+     * Asocia cada values[i] con keys[i] en esta tabla, igual que si se invocara
+     * a put(keys[i], values[i]) para cada i (si una clave se repite, queda el
+     * último valor). Antes de insertar se controla que no haya nulls y la
+     * tabla se agranda una sola vez para que entren todas las claves, de
+     * forma que las inserciones no provocan ningún rehash intermedio.
+     * @param keys las claves a agregar.
+     * @param values los valores a asociar a cada clave.
+     * @throws NullPointerException si alguno de los arreglos, o alguno de sus
+     *         elementos, es null (en ese caso no se agrega ningún par).
+     * @throws IllegalArgumentException si los arreglos no tienen el mismo largo.
+     */
+    public void putAll(K[] keys, V[] values)
+    {
+        if(keys == null || values == null) throw new NullPointerException("putAll(): parámetro null");
+        if(keys.length != values.length)
+        {
+            throw new IllegalArgumentException("putAll(): keys y values tienen distinto largo");
+        }
+        for(int i = 0; i < keys.length; i++)
+        {
+            if(keys[i] == null || values[i] == null) throw new NullPointerException("putAll(): parámetro null");
+        }
+
+        // agrandar la tabla una sola vez, en lugar de un rehash por cada duplicación...
+        long necesario = (long) ((count + (long) keys.length) / this.load_factor) + 1;
+        if(necesario > table.length)
+        {
+            this.redimensionar(siguientePrimo((int) Math.min(necesario, TSBHashTableDA.MAX_SIZE - 2)));
+        }
+
+        for(int i = 0; i < keys.length; i++)
+        {
+            this.insertar(keys[i], values[i], this.ttl);
+        }
+    }
+
+    /**
+     * Retorna la clave de la tabla que es igual (según equals()) a key, si hay
+     * alguna; si no, agrega key asociada a value y retorna key. Permite usar
+     * la tabla como un pool de instancias únicas: todas las claves iguales que
+     * pasan por intern() terminan compartiendo la misma instancia.
+     * @param key la clave a buscar o agregar.
+     * @param value el valor a asociar a key si hay que agregarla.
+     * @return la instancia de la clave que queda en la tabla.
+     * @throws NullPointerException si key o value son null.
+     */
+    public K intern(K key, V value)
+    {
+        if(key == null || value == null) throw new NullPointerException("intern(): parámetro null");
+
+        int hash = this.hashDe(key);
+        int hashMadre = h(hash, table.length);
+        for(int j = 0; ; j++)
+        {
+            Entry<K,V> entrada = (Entry<K,V>) table[(hashMadre + j*j) % table.length];
+            if(entrada.getEstado() == 0) break; // casillero vacío: no hay ninguna clave igual.
+
+            if(entrada.getEstado() == 1 && entrada.getHash() == hash && this.iguales(entrada.getKey(), key) &&
+               (this.vencibles == 0 || !vencido(entrada, System.nanoTime())))
+            {
+                return entrada.getKey();
+            }
+        }
+
+        this.insertar(key, value, hash, this.ttl);
+        return key;
+    }
+
+    /**
+     * Busca todas las claves del arreglo keys y guarda en out[i] el valor
+     * asociado a keys[i] (o null si keys[i] no está en la tabla). Equivale a
+     * invocar a get(keys[i]) para cada i (con el mismo filtro de Bloom,
+     * vencimientos y estrategia de hash).
+     * @param keys las claves a buscar.
+     * @param out el arreglo donde se guardan los valores encontrados (debe ser
+     *            al menos tan largo como keys).
+     * @return la cantidad de claves encontradas.
+     * @throws NullPointerException si alguno de los arreglos, o alguna de las
+     *         claves, es null.
+     * @throws IllegalArgumentException si out es más corto que keys.
+     */
+    public int getAll(K[] keys, V[] out)
+    {
+        if(keys == null || out == null) throw new NullPointerException("getAll(): parámetro null");
+        if(out.length < keys.length)
+        {
+            throw new IllegalArgumentException("getAll(): out es más corto que keys");
+        }
+
+        int encontrados = 0;
+        for(int i = 0; i < keys.length; i++)
+        {
+            out[i] = this.get(keys[i]);
+            if(out[i] != null) encontrados++;
+        }
+        return encontrados;
+    }
+
     /**
      * Elimina todo el contenido de la tabla, de forma de dejarla vacía. En esta
      * implementación además, el arreglo de soporte vuelve a tener el tamaño que
@@ -325,10 +637,90 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
         {
             table[i] = new Entry<>();
         }
+        this.compartida = null;
+        this.tramo_copiado = null;
         this.count = 0;
+        this.tumbas = 0;
+        this.vencibles = 0;
+        if(this.filtro != null) this.filtro = new FiltroBloom(this.capacidadFiltro());
         this.modCount++;
     }
 
+    /**
+     * Aplica action a cada par (key, value) de la tabla. Recorre directamente
+     * el arreglo de soporte: no crea un iterador ni objetos Map.Entry, y el
+     * modCount se controla una sola vez, al terminar (si action modificó la
+     * estructura de la tabla, se lanza ConcurrentModificationException, pero
+     * algunos pares pueden no haber sido visitados). Los pares vencidos se
+     * saltean.
+     * @param action la acción a aplicar a cada par.
+     * @throws NullPointerException si action es null.
+     * @throws ConcurrentModificationException si action modificó la tabla.
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action)
+    {
+        if(action == null) throw new NullPointerException("forEach(): parámetro null");
+
+        int mc = this.modCount;
+        long ahora = (this.vencibles > 0) ? System.nanoTime() : 0;
+        Object []t = this.table;
+        for(int i = 0; i < t.length; i++)
+        {
+            Entry<K,V> entry = (Entry<K,V>) t[i];
+            if(entry.getEstado() != 1 || (ahora != 0 && vencido(entry, ahora))) continue;
+            action.accept(entry.getKey(), entry.getValue());
+        }
+        if(this.modCount != mc)
+        {
+            throw new ConcurrentModificationException("forEach(): modificación inesperada de tabla...");
+        }
+    }
+
+    /**
+     * Reemplaza el valor de cada par (key, value) de la tabla por el que
+     * retorna function para ese par. Igual que forEach(), recorre
+     * directamente el arreglo de soporte y controla el modCount una sola vez.
+     * Los entries compartidos con un snapshot se reemplazan por una copia (el
+     * snapshot conserva los valores anteriores).
+     * @param function la función que calcula el nuevo valor de cada par.
+     * @throws NullPointerException si function es null o retorna null.
+     * @throws ConcurrentModificationException si function modificó la tabla.
+     */
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function)
+    {
+        if(function == null) throw new NullPointerException("replaceAll(): parámetro null");
+
+        int mc = this.modCount;
+        long ahora = (this.vencibles > 0) ? System.nanoTime() : 0;
+        for(int i = 0; i < table.length; i++)
+        {
+            Entry<K,V> entry = (Entry<K,V>) table[i];
+            if(entry.getEstado() != 1 || (ahora != 0 && vencido(entry, ahora))) continue;
+
+            V value = function.apply(entry.getKey(), entry.getValue());
+            if(value == null) throw new NullPointerException("replaceAll(): la función retornó null");
+            if(entry.version != this.version) entry = this.propia(i);
+            entry.value = value;
+        }
+        if(this.modCount != mc)
+        {
+            throw new ConcurrentModificationException("replaceAll(): modificación inesperada de tabla...");
+        }
+    }
+
+    /**
+     * Retorna un cursor para recorrer los pares de la tabla sin crear objetos
+     * por cada par (ver MapCursor). El cursor puede reutilizarse para varios
+     * recorridos con reset().
+     * @return un cursor ubicado antes del primer par.
+     */
+    public MapCursor cursor()
+    {
+        return new MapCursor();
+    }
+
 
 
 
@@ -438,7 +830,7 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
     protected Object clone() //throws CloneNotSupportedException
     {
 
-        TSBHashTableDA<K, V> t = new TSBHashTableDA<>();
+        TSBHashTableDA<K, V> t = new TSBHashTableDA<>(11, 0.5f, this.estrategia);
         t.putAll(this);
         return t;
     }
@@ -539,184 +931,1709 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
      * Para calcular el nuevo tamaño, lo que hace es buscar el primo que le sigue al resultado de hacer el
      * largo anterior multiplicado por dos. Una vez obtenido, reordena. También se verifica que el nuevo
      * primo no supere al tamaño máximo de la tabla.
+     * Cada entry ya tiene guardado el hash de su key, por lo que no se vuelve a
+     * invocar a hashCode(): solo se recalcula el índice para el nuevo tamaño, y
+     * si ese casillero está ocupado se sigue la exploración cuadrática.
+     * Si el límite se alcanzó sobre todo por tumbas (los entries cerrados no
+     * llegan a la mitad del límite), la tabla mantiene su tamaño y el rehash
+     * solo elimina las tumbas.
+     */
+    protected void rehash()
+    {
+        int old_length = this.table.length;
+
+        // nuevo tamaño: el siguiente número primo del doble del anterior, o el
+        // mismo tamaño si casi todo lo que hay que eliminar son tumbas.
+        int new_length = old_length;
+        if(2 * count >= this.load_factor * old_length)
+        {
+            new_length = siguientePrimo(old_length * 2);
+        }
+
+        // no permitir que la tabla tenga un tamaño mayor al límite máximo...
+        // ... para evitar overflow y/o desborde de índices...
+        if(new_length > TSBHashTableDA.MAX_SIZE)
+        {
+            new_length = TSBHashTableDA.MAX_SIZE;
+        }
+
+        this.redimensionar(new_length);
+    }
+
+    /**
+     * Ajusta el tamaño del arreglo de soporte al mínimo que permite contener
+     * los objetos actuales sin superar el factor de carga (y nunca menor a
+     * initial_capacity), eliminando además todas las tumbas. Sirve para
+     * devolver memoria luego de eliminar muchos objetos de una tabla que ya no
+     * va a crecer.
+     */
+    public void trimToSize()
+    {
+        int new_length = Math.max(initial_capacity, siguientePrimo((int) (count / this.load_factor) + 1));
+        if(new_length < table.length || tumbas > 0)
+        {
+            this.redimensionar(Math.min(new_length, table.length));
+        }
+    }
+
+    /*
+     * Crea un arreglo de soporte de new_length casilleros y ubica en él a los
+     * entries cerrados de la tabla (las tumbas se descartan). new_length debe
+     * ser primo y mayor a la cantidad de objetos sobre el factor de carga. Con
+     * umbral_paralelo entries o más, la reubicación se hace en paralelo (ver
+     * Reubicacion) en el ForkJoinPool del hilo que hace el rehash, o en el
+     * común si ese hilo no es de un ForkJoinPool.
+     */
+    private void redimensionar(int new_length)
+    {
+        // eventos JFR: si la grabación no los tiene activados, no registran nada...
+        Rehash evento = new Rehash();
+        TombstonePurge purga = new TombstonePurge();
+        evento.begin();
+        purga.begin();
+        int old_length = this.table.length;
+        int tumbas_previas = this.tumbas;
+        long inicio = System.nanoTime();
+
+        Object []temp = new Object[new_length]; // temp[] es la nueva table[]
+
+        // notificación fail-fast iterator... la tabla cambió su estructura...
+        this.modCount++;  // la idea del incremento del modCount es mostrar que varió su valor, no tanto cuánto vale.
+                          // aca se hace modCount++ para avisar que hubo rehash...
+
+        ForkJoinPool pool = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool() : ForkJoinPool.commonPool();
+        boolean paralelo = this.count >= umbral_paralelo && pool.getParallelism() > 1;
+        if(paralelo)
+        {
+            // tabla muy grande: el viejo arreglo se divide en tramos que se
+            // reubican en paralelo, y luego se abren los casilleros que quedaron
+            // vacíos (en null)...
+            pool.invoke(new Reubicacion(this.table, temp, 0, this.table.length, false));
+            pool.invoke(new Reubicacion(this.table, temp, 0, new_length, true));
+        }
+        else
+        {
+            // crear el nuevo arreglo con new_length listas vacías...
+            for (int i = 0; i < new_length; i++)
+            {
+                temp[i] = new Entry<>();   // todo puede ser null?
+            }
+
+            // recorrer el viejo arreglo y redistribuir los objetos que tenia...
+
+            for(int i = 0; i < this.table.length; i++)
+            {
+                Entry entry = (Entry) table[i];
+                if (entry.getEstado()==1) // si no es una tumba, se lo ubica en la nueva tabla
+                {
+                    int hashMadre = h(entry.getHash(), new_length);
+                    int index = hashMadre;
+                    for (int j = 1; ((Entry) temp[index]).getEstado() != 0; j++)
+                    {
+                        index = (hashMadre + j*j) % new_length;
+                    }
+                    temp[index] = entry;
+                }
+            }
+        }
+
+        // cambiar la referencia table para que apunte a temp...
+        this.table = temp;
+        this.compartida = null;
+        this.tramo_copiado = null;
+        this.tumbas = 0;
+
+        // el filtro se reconstruye para el nuevo tamaño (y sin las claves eliminadas)...
+        if(this.filtro != null) this.llenarFiltro();
+
+        evento.end();
+        this.rehashes++;
+        this.tiempo_rehash += System.nanoTime() - inicio;
+        if(evento.shouldCommit())
+        {
+            evento.capacidadAnterior = old_length;
+            evento.capacidadNueva = new_length;
+            evento.entriesMovidos = this.count;
+            evento.paralelo = paralelo;
+            evento.commit();
+        }
+        purga.end();
+        if(tumbas_previas > 0 && purga.shouldCommit())
+        {
+            purga.tumbas = tumbas_previas;
+            purga.capacidad = new_length;
+            purga.commit();
+        }
+    }
+
+    /**
+     * Activa o desactiva un filtro de Bloom (por bloques) que se mantiene junto
+     * con la tabla. Con el filtro activado, get(), containsKey() y getAll()
+     * descartan la mayoría de las claves que no están en la tabla sin recorrer
+     * la secuencia de exploración: conviene cuando gran parte de las búsquedas
+     * son de claves ausentes (por ejemplo, al filtrar registros contra una
+     * tabla chica de claves permitidas). Cuesta algo más de un byte por
+     * casillero útil y un poco de tiempo en cada put() de una clave nueva.
+     *
+     * El filtro no puede eliminar claves: las eliminadas siguen pasando el
+     * filtro (y se buscan normalmente) hasta el próximo rehash, que lo vuelve a
+     * construir.
+     * @param activo true para activar el filtro, false para desactivarlo.
+     */
+    public void setBloomFilter(boolean activo)
+    {
+        if(!activo) this.filtro = null;
+        else if(this.filtro == null) this.llenarFiltro();
+    }
+
+    /**
+     * Activa el factor de carga adaptativo: en lugar de un valor fijo, la tabla
+     * mide cuántos casilleros recorre una búsqueda fallida (la que se hace al
+     * agregar una clave nueva, o al buscar una clave que no está) y cada cierta
+     * cantidad de búsquedas fallidas ajusta su factor de carga. Si la longitud media supera a sondeoObjetivo, baja el
+     * factor de carga (y la tabla crece antes); si se mantiene por debajo de la
+     * mitad del objetivo, lo sube (y la tabla aprovecha más su memoria). El
+     * factor de carga nunca sale del rango [min, max].
+     *
+     * Con exploración cuadrática sobre un tamaño primo solo está garantizado
+     * encontrar un casillero libre si la tabla no supera la mitad de su
+     * ocupación, por lo que max no puede ser mayor a 0.5.
+     * @param min el menor factor de carga admitido.
+     * @param max el mayor factor de carga admitido (a lo sumo 0.5).
+     * @param sondeoObjetivo la longitud media buscada para las búsquedas
+     *                       fallidas, en casilleros (al menos 1).
+     * @throws IllegalArgumentException si los parámetros están fuera de rango.
+     */
+    public void setAdaptiveLoadFactor(float min, float max, float sondeoObjetivo)
+    {
+        if(!(min > 0 && min <= max && max <= 0.5f && sondeoObjetivo >= 1))
+        {
+            throw new IllegalArgumentException("setAdaptiveLoadFactor(): parámetros fuera de rango");
+        }
+
+        this.adaptativo = true;
+        this.lf_min = min;
+        this.lf_max = max;
+        this.sondeo_objetivo = sondeoObjetivo;
+        this.sondeos = 0;
+        this.muestras = 0;
+        this.load_factor = Math.max(min, Math.min(max, this.load_factor));
+    }
+
+    /**
+     * Activa el factor de carga adaptativo entre 0.25 y 0.5, buscando que las
+     * búsquedas fallidas recorran en promedio 2 casilleros.
+     */
+    public void setAdaptiveLoadFactor()
+    {
+        this.setAdaptiveLoadFactor(0.25f, 0.5f, 2f);
+    }
+
+    /**
+     * Desactiva el factor de carga adaptativo. La tabla conserva el último
+     * factor de carga que había ajustado.
+     */
+    public void disableAdaptiveLoadFactor()
+    {
+        this.adaptativo = false;
+    }
+
+    /**
+     * Retorna el factor de carga actual de la tabla (que cambia con el tiempo
+     * si el factor de carga adaptativo está activado).
+     * @return el factor de carga.
+     */
+    public float getLoadFactor()
+    {
+        return this.load_factor;
+    }
+
+    /**
+     * Retorna la cantidad de casilleros del arreglo de soporte.
+     * @return la capacidad actual de la tabla.
+     */
+    int capacity()
+    {
+        return this.table.length;
+    }
+
+    /**
+     * Retorna la cantidad de tumbas de la tabla.
+     * @return la cantidad de tumbas.
+     */
+    int tombstones()
+    {
+        return this.tumbas;
+    }
+
+    /**
+     * Registra la tabla en el servidor de MBeans de la plataforma con el
+     * nombre indicado, para poder ver sus métricas (ver MetricsMBean) desde
+     * JConsole o VisualVM. El MBean queda registrado como
+     * TSBHashTableDA:name=nombre; si ya había otro MBean con ese nombre (por
+     * ejemplo, de una tabla anterior que cumplía la misma función), se lo
+     * reemplaza (y esa otra tabla deja de estar registrada). Si la tabla ya
+     * estaba registrada con otro nombre, se quita ese registro.
+     * @param nombre el nombre del MBean.
+     * @throws NullPointerException si nombre es null.
+     * @throws IllegalStateException si no se puede registrar el MBean.
+     */
+    public void registerMBean(String nombre)
+    {
+        if(nombre == null) throw new NullPointerException("registerMBean(): parámetro null");
+
+        synchronized(REGISTRO_MBEANS)
+        {
+            this.unregisterMBean();
+            try
+            {
+                MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+                ObjectName objeto = new ObjectName("TSBHashTableDA", "name", ObjectName.quote(nombre));
+                if(servidor.isRegistered(objeto)) servidor.unregisterMBean(objeto);
+                Registro registro = new Registro(objeto);
+                servidor.registerMBean(registro, objeto);
+                this.mbean = registro;
+            }
+            catch(JMException e)
+            {
+                throw new IllegalStateException("registerMBean(): no se pudo registrar " + nombre, e);
+            }
+        }
+    }
+
+    /**
+     * Quita el registro de la tabla como MBean (si estaba registrada). Si otra
+     * tabla se registró después con el mismo nombre, su MBean no se quita.
+     */
+    public void unregisterMBean()
+    {
+        synchronized(REGISTRO_MBEANS)
+        {
+            Registro registro = this.mbean;
+            if(registro == null) return;
+
+            try
+            {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(registro.nombre);
+            }
+            catch(JMException e)
+            {
+                // una consola JMX ya lo había quitado: no hay nada que hacer...
+            }
+            this.mbean = null;
+        }
+    }
+
+    /**
+     * Fija a partir de cuántos casilleros recorridos una búsqueda (en cualquier
+     * tabla) emite el evento JFR LongProbe. El evento solo se registra si la
+     * grabación lo tiene activado; si no, una búsqueda larga solo cuesta una
+     * comparación más.
+     * @param sondeos la cantidad mínima de casilleros recorridos (al menos 1).
+     * @throws IllegalArgumentException si sondeos es menor a 1.
+     */
+    public static void setLongProbeThreshold(int sondeos)
+    {
+        if(sondeos < 1) throw new IllegalArgumentException("setLongProbeThreshold(): umbral menor a 1");
+        umbral_sondeo_largo = sondeos;
+    }
+
+    /*
+     * Emite el evento LongProbe de una búsqueda que recorrió sondeos casilleros.
+     */
+    private static void sondeoLargo(int hash, int sondeos)
+    {
+        LongProbe evento = new LongProbe();
+        if(evento.shouldCommit())
+        {
+            evento.hash = hash;
+            evento.sondeos = sondeos;
+            evento.commit();
+        }
+    }
+
+    /*
+     * Registra los casilleros que recorrió una búsqueda fallida (la que termina
+     * en un casillero abierto), y cada MUESTRAS_AJUSTE mediciones ajusta el
+     * factor de carga.
+     */
+    private void medirSondeo(int recorridos)
+    {
+        this.sondeos += recorridos;
+
+        if(++this.muestras < MUESTRAS_AJUSTE) return;
+
+        float media = (float) this.sondeos / this.muestras;
+        if(media > this.sondeo_objetivo)
+        {
+            this.load_factor = Math.max(this.lf_min, this.load_factor * 0.9f);
+        }
+        else if(media < this.sondeo_objetivo / 2)
+        {
+            this.load_factor = Math.min(this.lf_max, this.load_factor * 1.1f);
+        }
+        this.sondeos = 0;
+        this.muestras = 0;
+    }
+
+    /*
+     * Crea un filtro de Bloom para la capacidad actual de la tabla y le agrega
+     * los hash de todas las claves.
+     */
+    private void llenarFiltro()
+    {
+        this.filtro = new FiltroBloom(this.capacidadFiltro());
+        for(int i = 0; i < table.length; i++)
+        {
+            Entry<K,V> entry = (Entry<K,V>) table[i];
+            if(entry.getEstado() == 1) this.filtro.agregar(entry.getHash());
+        }
+    }
+
+    /*
+     * La cantidad de claves que puede llegar a tener la tabla antes del
+     * próximo rehash.
+     */
+    private int capacidadFiltro()
+    {
+        return (int) Math.min(this.load_factor * table.length, table.length) + 1;
+    }
+
+    /**
+     * Fija el tiempo de vida de los pares que se agreguen a partir de ahora con
+     * put(key, value): luego de ese tiempo el par vence y la tabla se comporta
+     * como si hubiese sido eliminado. Los pares ya agregados conservan su
+     * vencimiento. Si el tiempo es cero o negativo, los nuevos pares no vencen
+     * (es el comportamiento por defecto).
+     *
+     * No hay ningún hilo que recorra la tabla: un par vencido se convierte en
+     * tumba cuando una búsqueda lo encuentra, y cada put() revisa además unos
+     * pocos casilleros siguiendo un barrido circular. Por eso size() y las
+     * vistas pueden seguir incluyendo pares vencidos que todavía no fueron
+     * alcanzados; removeExpired() los elimina a todos de una vez. Los
+     * snapshots y las copias retornadas por freeze() no vencen.
+     * @param ttl el tiempo de vida de los nuevos pares.
+     * @param unit la unidad en la que está expresado ttl.
+     * @throws NullPointerException si unit es null.
+     */
+    public void setTimeToLive(long ttl, TimeUnit unit)
+    {
+        this.ttl = (ttl > 0) ? unit.toNanos(ttl) : 0;
+    }
+
+    /**
+     * Recorre toda la tabla y elimina los pares vencidos.
+     * @return la cantidad de pares eliminados.
+     */
+    public int removeExpired()
+    {
+        if(this.vencibles == 0) return 0;
+
+        long ahora = System.nanoTime();
+        int eliminados = 0;
+        for(int i = 0; i < table.length; i++)
+        {
+            if(vencido((Entry<K,V>) table[i], ahora))
+            {
+                this.expirar(i);
+                eliminados++;
+            }
+        }
+        return eliminados;
+    }
+
+    /**
+     * Retorna una vista de solo lectura del contenido actual de la tabla, que
+     * no cambia aunque luego se modifique la tabla. Sirve para que otros hilos
+     * sigan consultando una versión consistente mientras esta tabla se sigue
+     * cargando o modificando, y para pasar de una versión a otra cambiando una
+     * sola referencia.
+     *
+     * Crear el snapshot no copia ningún casillero: comparte el arreglo de
+     * soporte y los entries con la tabla. El arreglo se considera dividido en
+     * tramos de TRAMO_SNAPSHOT casilleros, y antes de modificar por primera
+     * vez un casillero luego del snapshot, la tabla le guarda al snapshot una
+     * copia (de las referencias) del tramo de ese casillero. El snapshot lee
+     * cada casillero de la copia de su tramo si existe, o del arreglo de la
+     * tabla si no. Los entries compartidos que la tabla necesita modificar se
+     * reemplazan por una copia; los que no cambian siguen compartidos.
+     *
+     * Así, una modificación copia a lo sumo un tramo (una sola vez por tramo,
+     * compartida por todos los snapshots vivos), y los tramos que no se
+     * modifican nunca se copian. Crear el snapshot cuesta O(capacidad /
+     * TRAMO_SNAPSHOT). clear(), rehash() y trimToSize() arman un arreglo
+     * nuevo, por lo que dejan de compartir el anterior y no copian nada. Las
+     * búsquedas de la tabla no cambian: la indirección por tramos solo existe
+     * en el snapshot.
+     *
+     * La vista no admite modificaciones (lanza UnsupportedOperationException)
+     * y puede consultarse desde otros hilos sin sincronización mientras la
+     * tabla es modificada por un único hilo.
+     * @return un Map de solo lectura con el contenido actual de la tabla.
+     */
+    public Map<K,V> snapshot()
+    {
+        this.version++;
+        if(this.compartida == null)
+        {
+            this.compartida = new ArrayList<>();
+            this.tramo_copiado = new int[(table.length + TRAMO_SNAPSHOT - 1) / TRAMO_SNAPSHOT];
+        }
+        Snapshot s = new Snapshot(this.table, this.count);
+        this.compartida.add(new WeakReference<>(s));
+        return s;
+    }
+
+    /**
+     * Retorna la cantidad de tramos del arreglo de soporte que se copiaron
+     * para los snapshots (ver snapshot()).
+     * @return la cantidad de tramos copiados.
+     */
+    long tramosCopiados()
+    {
+        return this.tramos_copiados;
+    }
+
+    /**
+     * Retorna una copia inmutable del contenido actual de la tabla, pensada
+     * para tablas que ya no cambian (por ejemplo, luego de terminar una carga).
+     * La copia usa una función hash perfecta mínima (construida con el método
+     * CHD: "compress, hash and displace") sobre las claves actuales: cada clave
+     * tiene su propio casillero, sin casilleros vacíos ni tumbas, y una
+     * búsqueda revisa un único casillero.
+     *
+     * Las claves que la función no puede ubicar (las que repiten el hashCode()
+     * de otra clave o, en un caso muy improbable, todas las de un bucket sin
+     * desplazamiento válido) se guardan en un arreglo aparte, que se recorre
+     * en forma lineal cuando el casillero principal no tiene la clave
+     * buscada. Esas claves dejan casilleros vacíos, y sus búsquedas (y las de
+     * las claves que no están) revisan además ese arreglo.
+     *
+     * La copia no admite modificaciones (lanza UnsupportedOperationException)
+     * y todos sus atributos son final, por lo que puede compartirse entre
+     * hilos sin sincronización. Los cambios posteriores en esta tabla no se
+     * reflejan en la copia (pero los valores son los mismos objetos).
+     * @return un Map inmutable con los mismos pares que la tabla.
+     */
+    public Map<K,V> freeze()
+    {
+        Object []keys = new Object[this.count];
+        Object []values = new Object[this.count];
+        int []hashes = new int[this.count];
+        int n = 0;
+        for(int i = 0; i < table.length; i++)
+        {
+            Entry<K,V> entry = (Entry<K,V>) table[i];
+            if(entry.getEstado() == 1)
+            {
+                keys[n] = entry.getKey();
+                values[n] = entry.getValue();
+                hashes[n] = entry.getHash();
+                n++;
+            }
+        }
+        return new FrozenTable<>(keys, values, hashes, this.estrategia);
+    }
+    
+
+    //************************ Métodos privados.
+
+        // metodos hash.
+    /**
+     * Función hash. Toma una clave entera k y calcula y retorna un índice 
+     * válido para esa clave para entrar en la tabla.
+     * @param k recibe una clave de tipo int
+     * @return un indice válido de la tabla para dicha clave.
+     */
+
+    private int h(int k)
+    {
+        return h(k, table.length);
+    }
+    
+    /**
+     * Función hash. Toma un objeto key que representa una clave y calcula y 
+     * retorna un índice válido para esa clave para entrar en la tabla.
+     * @param key es una clave que se quiere hashear
+     * @return un indice valido para dicha clave para la tabla.
+     */
+    private int h(K key)
+    {
+        return h(this.hashDe(key), table.length);
+    }
+    
+    /**
+     * Función hash. Toma un objeto key que representa una clave y un tamaño de 
+     * tabla t, y calcula y retorna un índice válido para esa clave dedo ese
+     * tamaño.
+     * @param key es una clave que se quiere hashear
+     * @param t es el tamaño de la tabla
+     * @return un indice valido para esa clave y para el tamaño de tabla ingresado
+     */
+    private int h(K key, int t)
+    {
+        return h(this.hashDe(key), t);
+    }
+    
+    /**
+     * Función hash. Toma una clave entera k y un tamaño de tabla t, y calcula y 
+     * retorna un índice válido para esa clave dado ese tamaño.
+     * @param t recibe el tamaño de la tabla
+     * @param k recibe una clave de tipo entera
+     * @return un indice valido para el numero de clave y tamaño de tabla soliciotados.
+     */
+    private int h(int k, int t)
+    {
+        if(k < 0) k *= -1;
+        return k % t;        
+    }
+
+    /**
+     * El hash de la clave: el de la estrategia de la tabla, o si no tiene,
+     * key.hashCode().
+     */
+    private int hashDe(Object key)
+    {
+        return (estrategia == null) ? key.hashCode() : estrategia.hash((K) key);
+    }
+
+    /**
+     * Determina si la clave guardada en la tabla (a) es igual a la buscada (b),
+     * según la estrategia de la tabla o, si no tiene, según a.equals(b).
+     */
+    private boolean iguales(Object a, Object b)
+    {
+        return a == b || ((estrategia == null) ? a.equals(b) : estrategia.equals((K) a, (K) b));
+    }
+
+        // otros metodos privados.
+    /**
+     * Si el arreglo table está compartido con snapshots y el tramo del
+     * casillero index no se copió desde el último snapshot, guarda una copia
+     * de ese tramo (la misma para todos) en cada snapshot que todavía no
+     * tiene la suya. Se invoca antes de modificar el casillero.
+     */
+    private void escribible(int index)
+    {
+        if(this.compartida == null) return;
+
+        int c = index / TRAMO_SNAPSHOT;
+        if(this.tramo_copiado[c] == this.version) return;
+        this.tramo_copiado[c] = this.version;
+
+        int desde = c * TRAMO_SNAPSHOT;
+        Object []copia = Arrays.copyOfRange(this.table, desde, Math.min(this.table.length, desde + TRAMO_SNAPSHOT));
+        this.tramos_copiados++;
+
+        // los snapshots que ya no se usan, o que ya tienen copia de todos sus
+        // tramos, dejan de compartir el arreglo...
+        for(Iterator<WeakReference<Snapshot>> it = this.compartida.iterator(); it.hasNext(); )
+        {
+            Snapshot s = it.next().get();
+            if(s == null || s.guardar(c, copia)) it.remove();
+        }
+        if(this.compartida.isEmpty())
+        {
+            this.compartida = null;
+            this.tramo_copiado = null;
+        }
+    }
+
+    /**
+     * Guarda entry en el casillero index del arreglo table, copiando antes su
+     * tramo para los snapshots que lo comparten. La escritura es release, para
+     * que un snapshot que lee el casillero vea el entry completo (y la copia
+     * del tramo, ver Snapshot.leer()).
+     */
+    private void ubicar(int index, Entry<K,V> entry)
+    {
+        this.escribible(index);
+        CASILLERO.setRelease(this.table, index, entry);
+    }
+
+    /**
+     * Retorna el entry del casillero index listo para ser modificado: si fue
+     * creado antes del último snapshot, lo reemplaza en la tabla por una copia.
+     */
+    private Entry<K,V> propia(int index)
+    {
+        Entry<K,V> entry = (Entry<K,V>) table[index];
+        if(entry.version != this.version)
+        {
+            Entry<K,V> copia = new Entry<>(entry.getKey(), entry.getValue(), entry.getEstado(), entry.getHash());
+            copia.vence = entry.vence;
+            this.ubicar(index, copia);
+            entry = copia;
+        }
+        return entry;
+    }
+
+    /*
+     * Retorna el instante (según System.nanoTime()) en el que vence un par
+     * agregado ahora con el tiempo de vida indicado. Nunca retorna 0, que
+     * representa a los pares que no vencen.
+     */
+    private static long vencimiento(long ttl)
+    {
+        long vence = System.nanoTime() + ttl;
+        return (vence == 0) ? 1 : vence;
+    }
+
+    /*
+     * Determina si el entry está cerrado y su vencimiento ya pasó.
+     */
+    private boolean vencido(Entry entry, long ahora)
+    {
+        return entry.getEstado() == 1 && entry.vence != 0 && ahora - entry.vence >= 0;
+    }
+
+    /*
+     * Convierte en tumba el entry vencido del casillero index. No cuenta como
+     * modificación para los iteradores, ya que puede ocurrir durante un get().
+     */
+    private void expirar(int index)
+    {
+        Entry<K,V> entry = this.propia(index);
+        entry.setEstado(2);
+        this.vencibles--;
+        this.count--;
+        this.tumbas++;
+    }
+
+    /*
+     * Revisa los próximos casilleros del barrido circular y convierte en tumba
+     * a los entries vencidos que encuentre.
+     */
+    private void barrer(long ahora)
+    {
+        for(int i = 0; i < 4; i++)
+        {
+            if(this.barrido >= table.length) this.barrido = 0;
+            if(vencido((Entry<K,V>) table[this.barrido], ahora)) this.expirar(this.barrido);
+            this.barrido++;
+        }
+    }
+
+    /**
+     * Busca en la lista bucket un objeto Nodo cuya clave coincida con key.
+     * Si lo encuentra, retorna ese objeto Nodo. Si no lo encuentra, retorna
+     * null.
+     */
+    private int search_for_entry_index(K key)
+    {
+        return search_for_entry_index(key, this.hashDe(key));
+    }
+
+    /**
+     * Igual que search_for_entry_index(key), pero recibe el hash de la key ya
+     * calculado. Antes de comparar las keys se compara el hash guardado en
+     * cada entry, de forma que solo se comparan las keys cuyo hash coincide.
+     * Si la tabla tiene pares que vencen, los entries vencidos que se
+     * encuentran en el camino (sean o no de la key buscada) se convierten en
+     * tumbas, que la búsqueda trata como tales.
+     * @param key la clave a buscar.
+     * @param hash el hash de key (ver hashDe()).
+     * @return el índice del casillero encontrado.
+     */
+    private int search_for_entry_index(K key, int hash)
+    {
+        return search_for_entry_index(this.table, key, hash, (this.vencibles > 0) ? System.nanoTime() : 0, this.adaptativo);
+    }
+
+    /**
+     * Igual que search_for_entry_index(key, hash), pero busca en el arreglo
+     * indicado, sin vencer entries.
+     */
+    private int search_for_entry_index(Object []table, Object key, int hash)
+    {
+        return search_for_entry_index(table, key, hash, 0, false);
+    }
+
+    /**
+     * Implementación de la búsqueda. Si ahora no es 0, table debe ser el
+     * arreglo de la tabla, y los entries vencidos en ese instante se
+     * convierten en tumbas a medida que se los encuentra. Si medir es true, la
+     * longitud de la búsqueda (si es fallida) se registra para el factor de
+     * carga adaptativo.
+     */
+    private int search_for_entry_index(Object []table, Object key, int hash, long ahora, boolean medir)
+    {
+        int hashMadre = h(hash, table.length);
+        int index = 0;
+        int t = -1;
+        for (int j = 0; ;j++)
+        {
+            index = (hashMadre + j*j) % table.length;
+            Entry entrada = (Entry) table[index];
+            if (ahora != 0 && vencido(entrada, ahora))
+            {
+                // expirar() reemplaza el entry por una tumba (o por una copia
+                // convertida en tumba, si es compartido con un snapshot)...
+                this.expirar(index);
+                entrada = (Entry) table[index];
+            }
+            if (!(entrada.getEstado() == 0)) // el casillero está ocupado.
+            {
+                if (entrada.getHash() == hash && this.iguales(entrada.getKey(), key)) // las keys son las mismas.
+                {
+                    if (j >= umbral_sondeo_largo) sondeoLargo(hash, j + 1);
+                    return index; // retorna el index de ese nodo.
+                }
+                else // las keys son distintas.
+                {
+                    if (entrada.getEstado() == 2) // ese nodo es una tumba.
+                    {
+                        if (t == -1)  // ya encontró una tumba antes? si no, guarda el indice
+                        {
+                            t = index;
+                        }
+                    }
+                }
+            }
+            else
+            { // el casillero está vacio.
+                if (j >= umbral_sondeo_largo) sondeoLargo(hash, j + 1);
+                if (medir) this.medirSondeo(j + 1);
+                if (t == -1) // si no se encontró una tumba antes, retorna el index del casillero vacío.
+                {
+                    return index;
+                }
+                return t; // sino retorna el casillero de la primera tumba que encontró
+            }
+
+        }
+    }
+
+
+    /**
+     * Método que verifica si número ingresado por parámetro es primo. En caso de serlo, retorna true
+     * @param numero es el numero que se quiere verificar si es primo
+     * @return retorna un valor booleano. Retorna true en caso de que el número a verificar es primo,
+     *         y false en caso de no serlo.
+     */
+    private boolean esPrimo(int numero)
+    {
+        // El 0, 1 y 4 no son primos
+        if (numero == 0 || numero == 1 || numero == 4) {
+            return false;
+        }
+        for (int x = 2; x < numero / 2; x++) {
+            // Si es divisible por cualquiera de estos números, no
+            // es primo
+            if (numero % x == 0)
+                return false;
+        }
+        // Si no se pudo dividir por ninguno de los de arriba, sí es primo
+        return true;
+    }
+
+
+    /**
+     * Método que busca el siguiente primo de un número ingresado por parámetro.
+     * @param n valor del tipo int que representa el número del que se quiere saber el siguiente primo
+     * @return el valor del siguiente número primo del número solicitado
+     */
+    private  int siguientePrimo(int n)
+    {
+        if ( n % 2 == 0)
+            n++;
+        for ( ; !esPrimo(n); n+=2 ) ;
+        return n;
+    }
+
+    //************************ Clases Internas.
+
+    /**
+     * Clase interna que representa un filtro de Bloom por bloques: cada hash
+     * elige una palabra de 64 bits del arreglo y marca tres bits dentro de
+     * ella, de forma que agregar o consultar un hash accede a una sola palabra
+     * (una sola línea de cache). Usa unos 10 bits por clave, con lo que
+     * alrededor del 2% de las claves ausentes pasan el filtro.
+     */
+    private static class FiltroBloom implements Serializable
+    {
+        private final long []bloques;
+
+        FiltroBloom(int claves)
+        {
+            this.bloques = new long[Math.max(1, (int) (claves * 10L / 64) + 1)];
+        }
+
+        // los tres bits (dentro de su bloque) que corresponden al hash...
+        private static long mascara(long z)
+        {
+            return (1L << z) | (1L << (z >>> 6)) | (1L << (z >>> 12));
+        }
+
+        // el bloque que corresponde al hash, tomado de los 32 bits altos...
+        private int bloque(long z)
+        {
+            return (int) (((z >>> 32) * bloques.length) >>> 32);
+        }
+
+        private static long mezclar(int hash)
+        {
+            return (hash ^ (hash >>> 16)) * 0x9E3779B97F4A7C15L;
+        }
+
+        void agregar(int hash)
+        {
+            long z = mezclar(hash);
+            bloques[bloque(z)] |= mascara(z);
+        }
+
+        boolean puedeEstar(int hash)
+        {
+            long z = mezclar(hash);
+            long m = mascara(z);
+            return (bloques[bloque(z)] & m) == m;
+        }
+    }
+
+    /**
+     * Cursor sobre los pares de la tabla: advance() avanza al siguiente par, y
+     * key(), value() y setValue() operan sobre el par actual. A diferencia de
+     * los iteradores de las vistas, recorre directamente el arreglo de soporte
+     * sin crear un Map.Entry por par ni controlar el modCount en cada paso,
+     * por lo que sirve para los recorridos de agregación sobre tablas grandes.
+     *
+     * Mientras se usa el cursor, la tabla solo puede modificarse a través de
+     * setValue(): si cambia su estructura (put() de una clave nueva, remove(),
+     * rehash...) el resultado del recorrido es indefinido. Los pares vencidos
+     * se saltean.
+     */
+    public final class MapCursor
+    {
+        // índice del casillero del par actual (-1 antes del primero)...
+        private int index = -1;
+
+        private MapCursor()
+        {
+        }
+
+        /**
+         * Avanza al siguiente par de la tabla.
+         * @return true si hay un par actual, false si el recorrido terminó.
+         */
+        public boolean advance()
+        {
+            Object []t = TSBHashTableDA.this.table;
+            long ahora = (vencibles > 0) ? System.nanoTime() : 0;
+            while(++index < t.length)
+            {
+                Entry<K,V> entry = (Entry<K,V>) t[index];
+                if(entry.getEstado() == 1 && (ahora == 0 || !vencido(entry, ahora))) return true;
+            }
+            index = t.length;
+            return false;
+        }
+
+        /**
+         * Retorna la clave del par actual.
+         * @return la clave del par actual.
+         * @throws IllegalStateException si no hay un par actual.
+         */
+        public K key()
+        {
+            return this.actual().getKey();
+        }
+
+        /**
+         * Retorna el valor del par actual.
+         * @return el valor del par actual.
+         * @throws IllegalStateException si no hay un par actual.
+         */
+        public V value()
+        {
+            return this.actual().getValue();
+        }
+
+        /**
+         * Reemplaza el valor del par actual (si el entry es compartido con un
+         * snapshot, se lo reemplaza por una copia).
+         * @param value el nuevo valor.
+         * @return el valor anterior.
+         * @throws NullPointerException si value es null.
+         * @throws IllegalStateException si no hay un par actual.
+         */
+        public V setValue(V value)
+        {
+            if(value == null) throw new NullPointerException("setValue(): parámetro null");
+
+            Entry<K,V> entry = this.actual();
+            if(entry.version != version) entry = propia(index);
+            V old = entry.value;
+            entry.value = value;
+            return old;
+        }
+
+        /**
+         * Vuelve a ubicar el cursor antes del primer par, para un nuevo
+         * recorrido.
+         */
+        public void reset()
+        {
+            index = -1;
+        }
+
+        private Entry<K,V> actual()
+        {
+            Object []t = TSBHashTableDA.this.table;
+            if(index < 0 || index >= t.length)
+            {
+                throw new IllegalStateException("MapCursor: no hay un par actual...");
+            }
+            return (Entry<K,V>) t[index];
+        }
+    }
+
+    /**
+     * Métricas de una tabla registrada con registerMBean(). Los valores se
+     * leen mientras la tabla puede estar cambiando, por lo que son
+     * aproximados.
+     */
+    public interface MetricsMBean
+    {
+        /** La cantidad de objetos de la tabla. */
+        int getSize();
+
+        /** La cantidad de casilleros del arreglo de soporte. */
+        int getCapacity();
+
+        /** La fracción de casilleros ocupados por objetos. */
+        double getLoad();
+
+        /** El factor de carga actual. */
+        float getLoadFactor();
+
+        /** La cantidad de casilleros marcados como tumba. */
+        int getTombstones();
+
+        /** La cantidad de rehash realizados desde que se creó la tabla. */
+        long getRehashCount();
+
+        /** El tiempo total que llevaron los rehash, en milisegundos. */
+        double getRehashTimeMillis();
+
+        /**
+         * La cantidad media de casilleros que recorre una búsqueda exitosa
+         * (se calcula recorriendo toda la tabla).
+         */
+        double getAverageProbeLength();
+
+        /**
+         * Las modificaciones por segundo de la tabla desde la consulta
+         * anterior de este valor.
+         */
+        double getModCountRate();
+    }
+
+    /*
+     * El MBean que registra registerMBean(). Cuando se quita su registro (lo
+     * quite esta tabla, otra tabla que se registra con el mismo nombre o una
+     * consola JMX) deja de ser el registro de la tabla, para que un
+     * unregisterMBean() posterior no quite el MBean de otra tabla.
+     */
+    private class Registro extends StandardMBean
+    {
+        private final ObjectName nombre;
+
+        Registro(ObjectName nombre) throws NotCompliantMBeanException
+        {
+            super(new Metricas(), MetricsMBean.class);
+            this.nombre = nombre;
+        }
+
+        @Override
+        public void postDeregister()
+        {
+            super.postDeregister();
+            if(TSBHashTableDA.this.mbean == this) TSBHashTableDA.this.mbean = null;
+        }
+    }
+
+    /*
+     * Implementación de MetricsMBean para esta tabla.
+     */
+    private class Metricas implements MetricsMBean
+    {
+        // modCount y momento (en nanosegundos) de la consulta anterior de la tasa...
+        private int ultimo_modCount = modCount;
+        private long ultimo_tiempo = System.nanoTime();
+
+        @Override
+        public int getSize()
+        {
+            return count;
+        }
+
+        @Override
+        public int getCapacity()
+        {
+            return table.length;
+        }
+
+        @Override
+        public double getLoad()
+        {
+            return (double) count / table.length;
+        }
+
+        @Override
+        public float getLoadFactor()
+        {
+            return load_factor;
+        }
+
+        @Override
+        public int getTombstones()
+        {
+            return tumbas;
+        }
+
+        @Override
+        public long getRehashCount()
+        {
+            return rehashes;
+        }
+
+        @Override
+        public double getRehashTimeMillis()
+        {
+            return tiempo_rehash / 1e6;
+        }
+
+        @Override
+        public double getAverageProbeLength()
+        {
+            Object []t = table;
+            long casilleros = 0;
+            int cerrados = 0;
+            for(int i = 0; i < t.length; i++)
+            {
+                Entry entry = (Entry) t[i];
+                if(entry == null || entry.getEstado() != 1) continue;
+
+                // se sigue la secuencia de exploración del hash hasta llegar al casillero i...
+                int hashMadre = h(entry.getHash(), t.length);
+                int j = 0;
+                while((hashMadre + j*j) % t.length != i && j < t.length) j++;
+                casilleros += j + 1;
+                cerrados++;
+            }
+            return (cerrados == 0) ? 0 : (double) casilleros / cerrados;
+        }
+
+        @Override
+        public synchronized double getModCountRate()
+        {
+            int mc = modCount;
+            long ahora = System.nanoTime();
+            double tasa = (mc - ultimo_modCount) / ((ahora - ultimo_tiempo) / 1e9);
+            ultimo_modCount = mc;
+            ultimo_tiempo = ahora;
+            return tasa;
+        }
+    }
+
+    /*
+     * Eventos de Java Flight Recorder. Con una grabación activa (por ejemplo,
+     * java -XX:StartFlightRecording ...) aparecen en la categoría TSBHashTableDA
+     * junto con los eventos del GC y del resto del JDK. Rehash y TombstonePurge
+     * admiten un umbral de duración en la configuración de la grabación
+     * (threshold); LongProbe usa el umbral de setLongProbeThreshold().
+     */
+    @Name("TSBHashTableDA.Rehash")
+    @Label("Rehash")
+    @Category("TSBHashTableDA")
+    @Description("Cambio de tamaño (o limpieza de tumbas) del arreglo de soporte")
+    private static class Rehash extends Event
+    {
+        @Label("Capacidad anterior")
+        int capacidadAnterior;
+
+        @Label("Capacidad nueva")
+        int capacidadNueva;
+
+        @Label("Entries movidos")
+        int entriesMovidos;
+
+        @Label("Paralelo")
+        boolean paralelo;
+    }
+
+    @Name("TSBHashTableDA.LongProbe")
+    @Label("Búsqueda larga")
+    @Category("TSBHashTableDA")
+    @Description("Búsqueda que recorrió al menos setLongProbeThreshold() casilleros")
+    private static class LongProbe extends Event
+    {
+        @Label("Hash de la clave")
+        int hash;
+
+        @Label("Casilleros recorridos")
+        int sondeos;
+    }
+
+    @Name("TSBHashTableDA.TombstonePurge")
+    @Label("Limpieza de tumbas")
+    @Category("TSBHashTableDA")
+    @Description("Tumbas eliminadas por un rehash")
+    private static class TombstonePurge extends Event
+    {
+        @Label("Tumbas eliminadas")
+        int tumbas;
+
+        @Label("Capacidad")
+        int capacidad;
+    }
+
+    /*
+     * Tarea del rehash paralelo sobre el tramo [desde, hasta) de un arreglo. Si
+     * el tramo es grande se divide en dos subtareas. En la primera pasada
+     * (abrir == false) el tramo es del arreglo viejo, y sus entries cerrados se
+     * ubican en el nuevo: los hilos se disputan cada casillero con
+     * compareAndSet(), y el que pierde sigue con el próximo casillero de su
+     * secuencia de exploración, tal como si lo hubiera encontrado ocupado. En
+     * la segunda pasada (abrir == true) el tramo es del arreglo nuevo, y cada
+     * casillero que quedó en null recibe un entry abierto.
+     */
+    private class Reubicacion extends RecursiveAction
+    {
+        private final Object []vieja;
+        private final Object []nueva;
+        private final int desde;
+        private final int hasta;
+        private final boolean abrir;
+
+        Reubicacion(Object []vieja, Object []nueva, int desde, int hasta, boolean abrir)
+        {
+            this.vieja = vieja;
+            this.nueva = nueva;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.abrir = abrir;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if(hasta - desde > TRAMO_REHASH)
+            {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(new Reubicacion(vieja, nueva, desde, medio, abrir),
+                          new Reubicacion(vieja, nueva, medio, hasta, abrir));
+                return;
+            }
+
+            if(abrir)
+            {
+                for(int i = desde; i < hasta; i++)
+                {
+                    if(nueva[i] == null) nueva[i] = new Entry<>();
+                }
+                return;
+            }
+
+            int n = nueva.length;
+            for(int i = desde; i < hasta; i++)
+            {
+                Entry entry = (Entry) vieja[i];
+                if(entry.getEstado() != 1) continue;
+
+                int hashMadre = h(entry.getHash(), n);
+                int index = hashMadre;
+                for(int j = 1; nueva[index] != null || !CASILLERO.compareAndSet(nueva, index, null, entry); j++)
+                {
+                    index = (hashMadre + j*j) % n;
+                }
+            }
+        }
+    }
+
+    /**
+     * Clase interna que representa la vista de solo lectura retornada por
+     * snapshot(). Guarda el arreglo de soporte que tenía la tabla al crear el
+     * snapshot, que la tabla puede seguir modificando, y la copia de cada
+     * tramo que la tabla le guardó antes de modificarlo. Busca con la misma
+     * exploración cuadrática que la tabla, leyendo cada casillero con leer().
      */
-    protected void rehash()
+    private class Snapshot extends AbstractMap<K,V>
     {
-        int old_length = this.table.length;
+        private final Object []t;
+        private final int count;
 
-        // nuevo tamaño: el siguiente número primo del doble del anterior.
-        int new_length = siguientePrimo(old_length * 2);
+        // la copia de cada tramo de t guardada por la tabla antes de
+        // modificarlo, o null si la tabla todavía no lo modificó...
+        private final Object [][]tramos;
 
-        // no permitir que la tabla tenga un tamaño mayor al límite máximo...
-        // ... para evitar overflow y/o desborde de índices...
-        if(new_length > TSBHashTableDA.MAX_SIZE)
+        // la cantidad de tramos sin copia (solo la usa el hilo de la tabla)...
+        private int pendientes;
+
+        private transient Set<Map.Entry<K,V>> entrySet;
+
+        Snapshot(Object []t, int count)
         {
-            new_length = TSBHashTableDA.MAX_SIZE;
+            this.t = t;
+            this.count = count;
+            this.tramos = new Object[(t.length + TRAMO_SNAPSHOT - 1) / TRAMO_SNAPSHOT][];
+            this.pendientes = this.tramos.length;
         }
 
-        // crear el nuevo arreglo con new_length listas vacías...
-        Object []temp = new Object[new_length]; // temp[] es la nueva table[]
-        for (int i = 0; i < new_length; i++)
+        /*
+         * Retorna el casillero i tal como estaba al crear el snapshot. La tabla
+         * publica la copia del tramo antes de escribir el casillero, por lo que
+         * si se leyó del arreglo un entry escrito después del snapshot, la
+         * segunda lectura del tramo ya encuentra la copia.
+         */
+        private Object leer(int i)
         {
-            temp[i] = new Entry<>();   // todo puede ser null?
+            int c = i / TRAMO_SNAPSHOT;
+            Object []copia = (Object[]) TRAMO.getAcquire(tramos, c);
+            if(copia == null)
+            {
+                Object entry = CASILLERO.getAcquire(t, i);
+                copia = (Object[]) TRAMO.getAcquire(tramos, c);
+                if(copia == null) return entry;
+            }
+            return copia[i - c * TRAMO_SNAPSHOT];
         }
 
-        // notificación fail-fast iterator... la tabla cambió su estructura...
-        this.modCount++;  // la idea del incremento del modCount es mostrar que varió su valor, no tanto cuánto vale.
-                          // aca se hace modCount++ para avisar que hubo rehash...
-
-        // recorrer el viejo arreglo y redistribuir los objetos que tenia...
+        /*
+         * Guarda la copia del tramo c si el snapshot todavía no la tiene.
+         * Retorna true si ya tiene copia de todos sus tramos (y no necesita
+         * más el arreglo de la tabla).
+         */
+        private boolean guardar(int c, Object []copia)
+        {
+            if(tramos[c] == null)
+            {
+                TRAMO.setRelease(tramos, c, copia);
+                pendientes--;
+            }
+            return pendientes == 0;
+        }
 
-        for(int i = 0; i < this.table.length; i++)
+        @Override
+        public V get(Object key)
         {
-            Entry entry = (Entry) table[i];
-            if (entry.getEstado()==1) // si no es una tumba, llama al put() para agregarlo a la nueva tabla
+            if(key == null) throw new NullPointerException("get(): parámetro null");
+
+            int hash = hashDe(key);
+            int hashMadre = h(hash, t.length);
+            for(int j = 0; ; j++)
             {
-                K key = (K)entry.getKey();
-                int index = h(key, new_length);
-                temp[index] = entry;
+                TSBHashTableDA.Entry entry = (TSBHashTableDA.Entry) this.leer((hashMadre + j*j) % t.length);
+                if(entry.getEstado() == 0) return null;
+                if(entry.getEstado() == 1 && entry.getHash() == hash && iguales(entry.getKey(), key))
+                {
+                    return (V) entry.getValue();
+                }
             }
         }
 
-        // cambiar la referencia table para que apunte a temp...
-        this.table = temp;
-    }
-    
+        @Override
+        public boolean containsKey(Object key)
+        {
+            return this.get(key) != null;
+        }
 
-    //************************ Métodos privados.
+        @Override
+        public int size()
+        {
+            return count;
+        }
 
-        // metodos hash.
-    /**
-     * Función hash. Toma una clave entera k y calcula y retorna un índice 
-     * válido para esa clave para entrar en la tabla.
-     * @param k recibe una clave de tipo int
-     * @return un indice válido de la tabla para dicha clave.
-     */
+        @Override
+        public Set<Map.Entry<K,V>> entrySet()
+        {
+            if(entrySet == null)
+            {
+                entrySet = new AbstractSet<Map.Entry<K,V>>()
+                {
+                    @Override
+                    public Iterator<Map.Entry<K,V>> iterator()
+                    {
+                        return new Iterator<Map.Entry<K,V>>()
+                        {
+                            private int i = avanzar(0);
+
+                            // el entry del casillero i, ya leído por avanzar()...
+                            private TSBHashTableDA.Entry entry;
+
+                            // saltea los casilleros abiertos y las tumbas...
+                            private int avanzar(int x)
+                            {
+                                for(; x < t.length; x++)
+                                {
+                                    entry = (TSBHashTableDA.Entry) leer(x);
+                                    if(entry.getEstado() == 1) break;
+                                }
+                                return x;
+                            }
+
+                            @Override
+                            public boolean hasNext()
+                            {
+                                return i < t.length;
+                            }
+
+                            @Override
+                            public Map.Entry<K,V> next()
+                            {
+                                if(!hasNext())
+                                {
+                                    throw new NoSuchElementException("next(): no existe el elemento pedido...");
+                                }
+                                TSBHashTableDA.Entry actual = entry;
+                                i = avanzar(i + 1);
+                                return new SimpleImmutableEntry<>((K) actual.getKey(), (V) actual.getValue());
+                            }
+                        };
+                    }
 
-    private int h(int k)
-    {
-        return h(k, table.length);
-    }
-    
-    /**
-     * Función hash. Toma un objeto key que representa una clave y calcula y 
-     * retorna un índice válido para esa clave para entrar en la tabla.
-     * @param key es una clave que se quiere hashear
-     * @return un indice valido para dicha clave para la tabla.
-     */
-    private int h(K key)
-    {
-        return h(key.hashCode(), table.length);
-    }
-    
-    /**
-     * Función hash. Toma un objeto key que representa una clave y un tamaño de 
-     * tabla t, y calcula y retorna un índice válido para esa clave dedo ese
-     * tamaño.
-     * @param key es una clave que se quiere hashear
-     * @param t es el tamaño de la tabla
-     * @return un indice valido para esa clave y para el tamaño de tabla ingresado
-     */
-    private int h(K key, int t)
-    {
-        return h(key.hashCode(), t);
-    }
-    
-    /**
-     * Función hash. Toma una clave entera k y un tamaño de tabla t, y calcula y 
-     * retorna un índice válido para esa clave dado ese tamaño.
-     * @param t recibe el tamaño de la tabla
-     * @param k recibe una clave de tipo entera
-     * @return un indice valido para el numero de clave y tamaño de tabla soliciotados.
-     */
-    private int h(int k, int t)
-    {
-        if(k < 0) k *= -1;
-        return k % t;        
+                    @Override
+                    public int size()
+                    {
+                        return count;
+                    }
+                };
+            }
+            return entrySet;
+        }
     }
 
-        // otros metodos privados.
     /**
-     * Busca en la lista bucket un objeto Nodo cuya clave coincida con key.
-     * Si lo encuentra, retorna ese objeto Nodo. Si no lo encuentra, retorna
-     * null.
+     * Clase interna que representa la copia inmutable retornada por freeze().
+     * Las n claves se reparten en buckets (de 5 claves en promedio) con una
+     * primera función hash. Luego, empezando por los buckets más grandes, se
+     * busca para cada bucket un desplazamiento (d0, d1) tal que la segunda
+     * función, (f1 + d0 * f2 + d1) % n, ubique todas sus claves en casilleros
+     * libres y distintos. Solo se guarda el desplazamiento de cada bucket, y
+     * una búsqueda lee el desplazamiento de su bucket y revisa un casillero.
+     *
+     * Si dos claves tienen el mismo hashCode() ninguna función hash puede
+     * separarlas: la segunda (y siguientes) se guardan en un arreglo aparte
+     * que solo se revisa cuando falla el casillero principal.
      */
-    private int search_for_entry_index(K key)
+    private static final class FrozenTable<K,V> extends AbstractMap<K,V> implements Serializable
     {
-        int hashMadre = h(key);
-        int index = 0;
-        int t = -1;
-        for (int j = 0; ;j++)
+        // cantidad promedio de claves por bucket...
+        private static final int LAMBDA = 5;
+
+        // cantidad máxima de valores de d0 a probar para un bucket...
+        private static final int MAX_D0 = 64;
+
+        // claves, valores y hash, cada uno en el casillero que le asignó la
+        // función hash perfecta...
+        private final Object []keys;
+        private final Object []values;
+        private final int []hashes;
+
+        // desplazamientos (d0, d1) de cada bucket...
+        private final int []d0;
+        private final int []d1;
+
+        // claves con un hashCode() repetido, y sus valores...
+        private final Object []extraKeys;
+        private final Object []extraValues;
+
+        // la cantidad de pares...
+        private final int count;
+
+        // la estrategia de hash de la tabla original, o null...
+        private final HashingStrategy<? super K> estrategia;
+
+        private transient Set<Map.Entry<K,V>> entrySet;
+
+        FrozenTable(Object []k, Object []v, int []h, HashingStrategy<? super K> estrategia)
         {
-            index = (hashMadre + j*j) % table.length;
-            Entry entrada = (Entry) table[index];
-            if (!(entrada.getEstado() == 0)) // el casillero está ocupado.
+            this.estrategia = estrategia;
+            int total = k.length;
+
+            // las claves cuyo hash ya apareció en otra clave van a los extras...
+            boolean []repetida = marcarRepetidos(h);
+            ArrayList<Object> ek = new ArrayList<>();
+            ArrayList<Object> ev = new ArrayList<>();
+            int n = 0;
+            for(int i = 0; i < total; i++)
+            {
+                if(repetida[i]) { ek.add(k[i]); ev.add(v[i]); }
+                else { n++; }
+            }
+            int []ph = new int[n];
+            Object []pk = new Object[n];
+            Object []pv = new Object[n];
+            for(int i = 0, j = 0; i < total; i++)
+            {
+                if(!repetida[i]) { ph[j] = h[i]; pk[j] = k[i]; pv[j] = v[i]; j++; }
+            }
+
+            this.keys = new Object[n];
+            this.values = new Object[n];
+            this.hashes = new int[n];
+            int r = Math.max(1, (n + LAMBDA - 1) / LAMBDA);
+            this.d0 = new int[r];
+            this.d1 = new int[r];
+
+            // repartir las claves en buckets: las del bucket b son
+            // miembros[inicio[b]] a miembros[inicio[b+1] - 1]...
+            int []inicio = new int[r + 1];
+            for(int i = 0; i < n; i++) { inicio[bucket(ph[i], r) + 1]++; }
+            for(int b = 0; b < r; b++) { inicio[b + 1] += inicio[b]; }
+            int []miembros = new int[n];
+            int []lleno = new int[r];
+            for(int i = 0; i < n; i++)
             {
-                if (entrada.getKey().equals(key)) // las keys son las mismas.
+                int b = bucket(ph[i], r);
+                miembros[inicio[b] + lleno[b]++] = i;
+            }
+
+            // procesar los buckets de mayor a menor tamaño...
+            Integer []buckets = new Integer[r];
+            for(int b = 0; b < r; b++) { buckets[b] = b; }
+            Arrays.sort(buckets, (a, b) -> (inicio[b + 1] - inicio[b]) - (inicio[a + 1] - inicio[a]));
+
+            boolean []ocupado = new boolean[n];
+            int []slots = new int[LAMBDA * 4];
+            int []base = new int[LAMBDA * 4];
+            int []paso = new int[LAMBDA * 4];
+            int libre = 0; // para los buckets de una sola clave
+            for(int x = 0; x < r; x++)
+            {
+                int b = buckets[x];
+                int size = inicio[b + 1] - inicio[b];
+                if(size == 0) { break; }
+
+                if(size == 1)
                 {
-                    return index; // retorna el index de ese nodo.
+                    // una sola clave: se elige d1 para que caiga en un libre...
+                    while(ocupado[libre]) { libre++; }
+                    int m = miembros[inicio[b]];
+                    d1[b] = (int) (((long) libre - f1(ph[m], n) + n) % n);
+                    this.ubicar(libre, pk[m], pv[m], ph[m]);
+                    ocupado[libre] = true;
+                    continue;
                 }
-                else // las keys son distintas.
+
+                if(slots.length < size)
                 {
-                    if (entrada.getEstado() == 2) // ese nodo es una tumba.
+                    slots = new int[size];
+                    base = new int[size];
+                    paso = new int[size];
+                }
+                for(int y = 0; y < size; y++)
+                {
+                    int m = miembros[inicio[b] + y];
+                    base[y] = f1(ph[m], n);
+                    paso[y] = f2(ph[m], n);
+                }
+
+                boolean ok = false;
+                for(int a = 0; a < MAX_D0 && !ok; a++)
+                {
+                    // casillero de cada clave con d1 = 0; al aumentar d1 en
+                    // uno, todos los casilleros avanzan uno...
+                    for(int y = 0; y < size; y++)
                     {
-                        if (t == -1)  // ya encontró una tumba antes? si no, guarda el indice
+                        slots[y] = (int) ((base[y] + (long) a * paso[y]) % n);
+                    }
+                    for(int c = 0; c < n && !ok; c++)
+                    {
+                        ok = true;
+                        for(int y = 0; y < size && ok; y++)
                         {
-                            t = index;
+                            int s = slots[y] + c;
+                            if(s >= n) { s -= n; }
+                            if(ocupado[s]) { ok = false; }
+                            for(int z = 0; z < y && ok; z++) { if(slots[z] == slots[y]) { ok = false; } }
+                        }
+                        if(ok)
+                        {
+                            d0[b] = a;
+                            d1[b] = c;
+                            for(int y = 0; y < size; y++)
+                            {
+                                slots[y] += c;
+                                if(slots[y] >= n) { slots[y] -= n; }
+                            }
                         }
                     }
                 }
-            }
-            else
-            { // el casillero está vacio.
-                if (t == -1) // si no se encontró una tumba antes, retorna el index del casillero vacío.
+                for(int y = 0; y < size; y++)
                 {
-                    return index;
+                    int m = miembros[inicio[b] + y];
+                    if(ok)
+                    {
+                        this.ubicar(slots[y], pk[m], pv[m], ph[m]);
+                        ocupado[slots[y]] = true;
+                    }
+                    else
+                    {
+                        // caso muy improbable (dos claves del bucket con los
+                        // mismos f1 y f2): el bucket completo va a los extras...
+                        ek.add(pk[m]);
+                        ev.add(pv[m]);
+                    }
                 }
-                return t; // sino retorna el casillero de la primera tumba que encontró
             }
 
+            this.extraKeys = ek.toArray();
+            this.extraValues = ev.toArray();
+            this.count = total;
         }
-    }
 
+        private boolean iguales(Object a, Object b)
+        {
+            return a == b || ((estrategia == null) ? a.equals(b) : estrategia.equals((K) a, (K) b));
+        }
 
-    /**
-     * Método que verifica si número ingresado por parámetro es primo. En caso de serlo, retorna true
-     * @param numero es el numero que se quiere verificar si es primo
-     * @return retorna un valor booleano. Retorna true en caso de que el número a verificar es primo,
-     *         y false en caso de no serlo.
-     */
-    private boolean esPrimo(int numero)
-    {
-        // El 0, 1 y 4 no son primos
-        if (numero == 0 || numero == 1 || numero == 4) {
-            return false;
+        @Override
+        public V get(Object key)
+        {
+            if(key == null) throw new NullPointerException("get(): parámetro null");
+
+            int n = keys.length;
+            if(n > 0)
+            {
+                int hash = (estrategia == null) ? key.hashCode() : estrategia.hash((K) key);
+                int b = bucket(hash, d0.length);
+                int s = slot(hash, d0[b], d1[b], n);
+                if(hashes[s] == hash && keys[s] != null && this.iguales(keys[s], key)) { return (V) values[s]; }
+            }
+            for(int i = 0; i < extraKeys.length; i++)
+            {
+                if(this.iguales(extraKeys[i], key)) { return (V) extraValues[i]; }
+            }
+            return null;
         }
-        for (int x = 2; x < numero / 2; x++) {
-            // Si es divisible por cualquiera de estos números, no
-            // es primo
-            if (numero % x == 0)
-                return false;
+
+        @Override
+        public boolean containsKey(Object key)
+        {
+            return this.get(key) != null;
         }
-        // Si no se pudo dividir por ninguno de los de arriba, sí es primo
-        return true;
-    }
 
+        @Override
+        public int size()
+        {
+            return count;
+        }
 
-    /**
-     * Método que busca el siguiente primo de un número ingresado por parámetro.
-     * @param n valor del tipo int que representa el número del que se quiere saber el siguiente primo
-     * @return el valor del siguiente número primo del número solicitado
-     */
-    private  int siguientePrimo(int n)
-    {
-        if ( n % 2 == 0)
-            n++;
-        for ( ; !esPrimo(n); n+=2 ) ;
-        return n;
-    }
+        @Override
+        public Set<Map.Entry<K,V>> entrySet()
+        {
+            if(entrySet == null)
+            {
+                entrySet = new AbstractSet<Map.Entry<K,V>>()
+                {
+                    @Override
+                    public Iterator<Map.Entry<K,V>> iterator()
+                    {
+                        return new Iterator<Map.Entry<K,V>>()
+                        {
+                            private int i = avanzar(0);
+
+                            // saltea los casilleros que quedaron sin clave...
+                            private int avanzar(int x)
+                            {
+                                while(x < keys.length && keys[x] == null) { x++; }
+                                return x;
+                            }
+
+                            @Override
+                            public boolean hasNext()
+                            {
+                                return i < keys.length + extraKeys.length;
+                            }
+
+                            @Override
+                            public Map.Entry<K,V> next()
+                            {
+                                if(!hasNext())
+                                {
+                                    throw new NoSuchElementException("next(): no existe el elemento pedido...");
+                                }
+                                int x = i;
+                                i = avanzar(i + 1);
+                                if(x < keys.length)
+                                {
+                                    return new SimpleImmutableEntry<>((K) keys[x], (V) values[x]);
+                                }
+                                x -= keys.length;
+                                return new SimpleImmutableEntry<>((K) extraKeys[x], (V) extraValues[x]);
+                            }
+                        };
+                    }
 
-    //************************ Clases Internas.
+                    @Override
+                    public int size()
+                    {
+                        return FrozenTable.this.size();
+                    }
+                };
+            }
+            return entrySet;
+        }
+
+        // los modificadores heredados de AbstractMap ya lanzan
+        // UnsupportedOperationException (put) o se apoyan en el iterador (que
+        // no soporta remove()).
+
+        // primera función hash: el bucket de la clave...
+        private static int bucket(int hash, int r)
+        {
+            int h = hash * 0x9E3779B9;
+            h ^= h >>> 16;
+            return (h & 0x7FFFFFFF) % r;
+        }
+
+        private static int f1(int hash, int n)
+        {
+            int h = hash * 0x85EBCA6B;
+            h ^= h >>> 13;
+            h *= 0xC2B2AE35;
+            h ^= h >>> 16;
+            return (h & 0x7FFFFFFF) % n;
+        }
+
+        private static int f2(int hash, int n)
+        {
+            int h = hash * 0x27D4EB2F;
+            h ^= h >>> 15;
+            h *= 0x165667B1;
+            h ^= h >>> 13;
+            return 1 + (h & 0x7FFFFFFF) % Math.max(1, n - 1);
+        }
+
+        // segunda función hash: el casillero de la clave dado el desplazamiento...
+        private static int slot(int hash, int d0, int d1, int n)
+        {
+            return (int) ((f1(hash, n) + (long) d0 * f2(hash, n) + d1) % n);
+        }
+
+        private void ubicar(int s, Object key, Object value, int hash)
+        {
+            keys[s] = key;
+            values[s] = value;
+            hashes[s] = hash;
+        }
+
+        // marca las posiciones cuyo hash ya apareció en una posición anterior...
+        private static boolean []marcarRepetidos(int []h)
+        {
+            int []ordenado = h.clone();
+            Arrays.sort(ordenado);
+            boolean []repetida = new boolean[h.length];
+            boolean hay = false;
+            for(int i = 1; i < ordenado.length && !hay; i++) { hay = (ordenado[i] == ordenado[i - 1]); }
+            if(!hay) { return repetida; }
+
+            HashSet<Integer> vistos = new HashSet<>();
+            for(int i = 0; i < h.length; i++) { repetida[i] = !vistos.add(h[i]); }
+            return repetida;
+        }
+    }
     
     /**
      * Clase interna que representa los pares de objetos que se almacenan en la
@@ -726,12 +2643,16 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
      * si estado == 0 -> casillero abierto.
      * si estado == 1 -> casillero cerrado.
      * si estado == 2 -> casillero tumba.
+     * Además guarda el hash de la key, para no tener que volver a calcularlo.
      */
     private class Entry<K, V> implements Map.Entry<K, V>
     {
         private K key;
         private V value;
         private int estado;
+        private int hash;
+        private int version;
+        private long vence; // instante de vencimiento según System.nanoTime(), o 0 si no vence
 
         //****************** Constructores
 
@@ -744,6 +2665,8 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
             this.key = key;
             this.value = value;
             this.estado = 1;
+            this.hash = TSBHashTableDA.this.hashDe(key);
+            this.version = TSBHashTableDA.this.version;
         }
 
         public Entry(K key, V value,int estado)
@@ -755,6 +2678,21 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
             this.key = key;
             this.value = value;
             this.estado = estado ; // 0 = abierto  1 = cerrado  2 = tumba
+            this.hash = TSBHashTableDA.this.hashDe(key);
+            this.version = TSBHashTableDA.this.version;
+        }
+
+        public Entry(K key, V value, int estado, int hash)
+        {
+            if(key == null || value == null)
+            {
+                throw new IllegalArgumentException("Entry(): parámetro null...");
+            }
+            this.key = key;
+            this.value = value;
+            this.estado = estado ; // 0 = abierto  1 = cerrado  2 = tumba
+            this.hash = hash;
+            this.version = TSBHashTableDA.this.version;
         }
 
         public Entry()
@@ -788,6 +2726,8 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
 
         /**
          * Método que setea el valor de un objeto Entry, con el valor recibido por parámetro.
+         * Si el Entry es compartido con un snapshot, no se lo modifica: el nuevo valor
+         * se guarda en la copia que lo reemplaza en la tabla.
          * @param value es el valor que se debe setear al objeto Entry.
          * @return el valor guardado anteriormente
          * @throws IllegalArgumentException si el value ingresado como parámetro es nulo
@@ -800,6 +2740,16 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
                 throw new IllegalArgumentException("setValue(): parámetro null...");
             }
 
+            if(this.version != TSBHashTableDA.this.version && this.estado == 1)
+            {
+                int index = TSBHashTableDA.this.search_for_entry_index(TSBHashTableDA.this.table, key, hash);
+                if(TSBHashTableDA.this.table[index] == this)
+                {
+                    Entry copia = TSBHashTableDA.this.propia(index);
+                    return (V) copia.setValue(value);
+                }
+            }
+
             V old = this.value;
             this.value = value;
             return old;
@@ -822,6 +2772,12 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
             if (i == 0 || i ==1 || i == 2) {this.estado = i;}
         }
 
+        /**
+         * Método que obtiene el hash de la key guardado al crear el Entry.
+         * @return el valor de key.hashCode().
+         */
+        public int getHash(){return hash; }
+
 
         /**
          * Método que devuelve un valor booleano true en caso de que los dos objetos comparados sean iguales
@@ -976,7 +2932,7 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
              */
             public KeySetIterator()
             {
-                current_entry = 0;
+                current_entry = -1;
                 last_entry = 0;
                 next_ok = false;
                 expected_modCount = TSBHashTableDA.this.modCount;
@@ -1072,7 +3028,7 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
                 }
 
                 // eliminar el objeto que retornó next() la última vez...
-                V valor = TSBHashTableDA.this.remove(((Entry)table[current_entry]).getKey());
+                V valor = TSBHashTableDA.this.eliminar(((Entry)table[current_entry]).getKey());
 
                 // quedar apuntando al anterior al que se retornó...
                 if(last_entry != current_entry)
@@ -1083,11 +3039,8 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
                 // avisar que el remove() válido para next() ya se activó...
                 next_ok = false;
 
-                // la tabla tiene un elemento menos...
-                TSBHashTableDA.this.count--;
-
-                // fail_fast iterator: todo en orden...
-                TSBHashTableDA.this.modCount++;
+                // fail_fast iterator: eliminar() ya descontó el count e incrementó
+                // el modCount de la tabla...
                 expected_modCount++;
             }
         }
@@ -1154,8 +3107,6 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
 
             if(TSBHashTableDA.this.remove(key) != null)
             {
-                TSBHashTableDA.this.count--;
-                TSBHashTableDA.this.modCount++;
                 return true;
             }
             return false;
@@ -1285,7 +3236,7 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
                 }
 
                 // eliminar el objeto que retornó next() la última vez...
-                V valor = TSBHashTableDA.this.remove(((Entry)table[current_entry]).getKey());
+                V valor = TSBHashTableDA.this.eliminar(((Entry)table[current_entry]).getKey());
 
                 // quedar apuntando al anterior al que se retornó...
                 if(last_entry != current_entry)
@@ -1296,11 +3247,8 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
                 // avisar que el remove() válido para next() ya se activó...
                 next_ok = false;
 
-                // la tabla tiene un elementon menos...
-                TSBHashTableDA.this.count--;
-
-                // fail_fast iterator: todo en orden...
-                TSBHashTableDA.this.modCount++;
+                // fail_fast iterator: eliminar() ya descontó el count e incrementó
+                // el modCount de la tabla...
                 expected_modCount++;
             }
         }
@@ -1377,7 +3325,7 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
              */
             public ValueCollectionIterator()
             {
-                current_entry = 0;
+                current_entry = -1;
                 last_entry = 0;
                 next_ok = false;
                 expected_modCount = TSBHashTableDA.this.modCount;
@@ -1461,7 +3409,7 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
                 }
 
                 // eliminar el objeto que retornó next() la última vez...
-                V valor = TSBHashTableDA.this.remove(((Entry)table[current_entry]).getKey());
+                V valor = TSBHashTableDA.this.eliminar(((Entry)table[current_entry]).getKey());
 
                 // quedar apuntando al anterior al que se retornó...
                 if(last_entry != current_entry)
@@ -1472,11 +3420,8 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
                 // avisar que el remove() válido para next() ya se activó...
                 next_ok = false;
 
-                // la tabla tiene un elemento menos...
-                TSBHashTableDA.this.count--;
-
-                // fail_fast iterator: todo en orden...
-                TSBHashTableDA.this.modCount++;
+                // fail_fast iterator: eliminar() ya descontó el count e incrementó
+                // el modCount de la tabla...
                 expected_modCount++;
             }
         }
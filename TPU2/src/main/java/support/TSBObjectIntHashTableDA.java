@@ -0,0 +1,356 @@
+package support;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Tabla hash que asocia objetos (claves) con valores int primitivos. Está
+ * pensada para los conteos por nombre (por vacuna, por sexo, por dosis...):
+ * los valores se guardan en un int[] paralelo al arreglo de claves, por lo que
+ * sumar a la cuenta de una clave no crea ningún objeto (ni un Integer ni un
+ * objeto que agrupe la clave con su cuenta).
+ *
+ * Cuando una clave no está en la tabla, getInt() y las demás operaciones que
+ * retornan un valor anterior retornan el valor por defecto, que es 0 salvo que
+ * se lo cambie con setDefaultReturnValue().
+ *
+ * Usa direccionamiento abierto con exploración lineal sobre un arreglo de
+ * tamaño potencia de 2, ocupado como máximo hasta la mitad. Al eliminar una
+ * clave, las claves siguientes de su mismo grupo se corren hacia atrás, por lo
+ * que la tabla nunca tiene tumbas. No admite claves null.
+ *
+ * @author Ardiles Micaela, Avila Pilar, Ríos Cardona Gastón, Targón Juan Cruz
+ * @version Octubre del 2021.
+ * @param <K> el tipo de los objetos que serán usados como clave.
+ */
+public class TSBObjectIntHashTableDA<K> implements Serializable
+{
+    //************************ Constantes (privadas o públicas).
+
+    // el tamaño máximo que podrá tener la tabla (potencia de 2)...
+    private final static int MAX_SIZE = 1 << 30;
+
+
+    //************************ Atributos privados (estructurales).
+
+    // las claves (null: casillero abierto), su hash y su valor...
+    private Object []keys;
+    private int []hashes;
+    private int []values;
+
+    // la cantidad de claves de la tabla...
+    private int count;
+
+    // el tamaño inicial de la tabla...
+    private int initial_capacity;
+
+    // el valor que se retorna para las claves que no están...
+    private int default_value;
+
+
+    //************************ Constructores.
+
+    /**
+     * Crea una tabla vacía con 16 casilleros.
+     */
+    public TSBObjectIntHashTableDA()
+    {
+        this(16);
+    }
+
+    /**
+     * Crea una tabla vacía con (al menos) la cantidad de casilleros indicada,
+     * redondeada a la siguiente potencia de 2.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     */
+    public TSBObjectIntHashTableDA(int initial_capacity)
+    {
+        if(initial_capacity < 4) { initial_capacity = 4; }
+        if(initial_capacity > MAX_SIZE) { initial_capacity = MAX_SIZE; }
+        this.initial_capacity = Integer.highestOneBit(initial_capacity - 1) << 1;
+        this.clear();
+    }
+
+
+    //************************ Métodos de la tabla.
+
+    /**
+     * Retorna el valor asociado a la clave, o el valor por defecto si la clave
+     * no está en la tabla.
+     * @param key la clave a buscar.
+     * @return el valor asociado a la clave, o el valor por defecto.
+     * @throws NullPointerException si key es null.
+     */
+    public int getInt(Object key)
+    {
+        if(key == null) throw new NullPointerException("getInt(): parámetro null");
+
+        int slot = this.buscar(key, hash(key));
+        return (keys[slot] != null) ? values[slot] : default_value;
+    }
+
+    /**
+     * Determina si la clave está en la tabla.
+     * @param key la clave a buscar.
+     * @return true si la clave está en la tabla.
+     * @throws NullPointerException si key es null.
+     */
+    public boolean containsKey(Object key)
+    {
+        if(key == null) throw new NullPointerException("containsKey(): parámetro null");
+
+        return keys[this.buscar(key, hash(key))] != null;
+    }
+
+    /**
+     * Asocia el valor a la clave.
+     * @param key la clave.
+     * @param value el valor a asociar.
+     * @return el valor anterior asociado a la clave, o el valor por defecto si
+     *         la clave no estaba.
+     * @throws NullPointerException si key es null.
+     */
+    public int putInt(K key, int value)
+    {
+        if(key == null) throw new NullPointerException("putInt(): parámetro null");
+
+        int hash = hash(key);
+        int slot = this.buscar(key, hash);
+        if(keys[slot] != null)
+        {
+            int old = values[slot];
+            values[slot] = value;
+            return old;
+        }
+
+        this.agregar(slot, key, hash, value);
+        return default_value;
+    }
+
+    /**
+     * Suma incremento al valor asociado a la clave. Si la clave no estaba, se
+     * la agrega con el valor por defecto más incremento.
+     * @param key la clave.
+     * @param incremento la cantidad a sumar (puede ser negativa).
+     * @return el valor anterior asociado a la clave, o el valor por defecto si
+     *         la clave no estaba.
+     * @throws NullPointerException si key es null.
+     */
+    public int addTo(K key, int incremento)
+    {
+        if(key == null) throw new NullPointerException("addTo(): parámetro null");
+
+        int hash = hash(key);
+        int slot = this.buscar(key, hash);
+        if(keys[slot] != null)
+        {
+            int old = values[slot];
+            values[slot] = old + incremento;
+            return old;
+        }
+
+        this.agregar(slot, key, hash, default_value + incremento);
+        return default_value;
+    }
+
+    /**
+     * Elimina la clave (y su valor) de la tabla.
+     * @param key la clave a eliminar.
+     * @return el valor que estaba asociado a la clave, o el valor por defecto
+     *         si la clave no estaba.
+     * @throws NullPointerException si key es null.
+     */
+    public int removeInt(Object key)
+    {
+        if(key == null) throw new NullPointerException("removeInt(): parámetro null");
+
+        int slot = this.buscar(key, hash(key));
+        if(keys[slot] == null) return default_value;
+
+        int old = values[slot];
+        this.eliminar(slot);
+        return old;
+    }
+
+    /**
+     * Aplica action a cada par (clave, valor) de la tabla, recorriendo
+     * directamente los arreglos (sin crear objetos por cada par). La acción
+     * no debe modificar la tabla.
+     * @param action la acción a aplicar a cada par.
+     * @throws NullPointerException si action es null.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(ObjIntConsumer<? super K> action)
+    {
+        if(action == null) throw new NullPointerException("forEach(): parámetro null");
+
+        for(int i = 0; i < keys.length; i++)
+        {
+            if(keys[i] != null) action.accept((K) keys[i], values[i]);
+        }
+    }
+
+    /**
+     * Retorna el valor que se retorna para las claves que no están en la tabla.
+     * @return el valor por defecto.
+     */
+    public int defaultReturnValue()
+    {
+        return default_value;
+    }
+
+    /**
+     * Fija el valor que se retorna para las claves que no están en la tabla
+     * (inicialmente 0).
+     * @param valor el nuevo valor por defecto.
+     */
+    public void setDefaultReturnValue(int valor)
+    {
+        this.default_value = valor;
+    }
+
+    /**
+     * Retorna la cantidad de claves de la tabla.
+     * @return la cantidad de claves.
+     */
+    public int size()
+    {
+        return count;
+    }
+
+    /**
+     * Determina si la tabla está vacía.
+     * @return true si la tabla no tiene claves.
+     */
+    public boolean isEmpty()
+    {
+        return count == 0;
+    }
+
+    /**
+     * Elimina todas las claves, y vuelve la tabla a su tamaño inicial. El
+     * valor por defecto no cambia.
+     */
+    public void clear()
+    {
+        this.crear(this.initial_capacity);
+        this.count = 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder cad = new StringBuilder("{");
+        for(int i = 0; i < keys.length; i++)
+        {
+            if(keys[i] == null) continue;
+            if(cad.length() > 1) cad.append(", ");
+            cad.append(keys[i]).append("=").append(values[i]);
+        }
+        return cad.append("}").toString();
+    }
+
+
+    //************************ Métodos privados.
+
+    /*
+     * hashCode() de la clave, mezclado para que los bits bajos, que eligen el
+     * casillero, dependan de todos los bits.
+     */
+    static int hash(Object key)
+    {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /*
+     * Retorna el casillero de la clave si está, o si no, el casillero abierto
+     * donde debería agregarse.
+     */
+    private int buscar(Object key, int hash)
+    {
+        int mask = keys.length - 1;
+        int slot = hash & mask;
+        while(keys[slot] != null)
+        {
+            if(hashes[slot] == hash && (keys[slot] == key || keys[slot].equals(key))) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /*
+     * Agrega la clave en el casillero abierto slot, y duplica la tabla si
+     * queda ocupada más allá de la mitad.
+     */
+    private void agregar(int slot, Object key, int hash, int value)
+    {
+        keys[slot] = key;
+        hashes[slot] = hash;
+        values[slot] = value;
+        if(++count > keys.length / 2 && keys.length < MAX_SIZE) this.rehash();
+    }
+
+    /*
+     * Libera el casillero slot. Las claves siguientes del grupo cuyo casillero
+     * inicial no queda entre su posición y el casillero liberado se corren a
+     * ese casillero, para que ninguna búsqueda se corte antes de llegar a
+     * ellas.
+     */
+    private void eliminar(int slot)
+    {
+        int mask = keys.length - 1;
+        int libre = slot;
+        int i = slot;
+        while(true)
+        {
+            i = (i + 1) & mask;
+            if(keys[i] == null) break;
+
+            int inicial = hashes[i] & mask;
+            // la clave de i puede correrse a libre si su casillero inicial no
+            // está en el tramo circular (libre, i]...
+            if(((i - inicial) & mask) >= ((i - libre) & mask))
+            {
+                keys[libre] = keys[i];
+                hashes[libre] = hashes[i];
+                values[libre] = values[i];
+                libre = i;
+            }
+        }
+        keys[libre] = null;
+        count--;
+    }
+
+    private void crear(int length)
+    {
+        this.keys = new Object[length];
+        this.hashes = new int[length];
+        this.values = new int[length];
+    }
+
+    /*
+     * Duplica el tamaño de la tabla y reubica las claves (con el hash que
+     * ya tienen guardado).
+     */
+    private void rehash()
+    {
+        Object []oldKeys = keys;
+        int []oldHashes = hashes;
+        int []oldValues = values;
+
+        this.crear(oldKeys.length * 2);
+        int mask = keys.length - 1;
+        for(int i = 0; i < oldKeys.length; i++)
+        {
+            if(oldKeys[i] == null) continue;
+
+            int slot = oldHashes[i] & mask;
+            while(keys[slot] != null) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            hashes[slot] = oldHashes[i];
+            values[slot] = oldValues[i];
+        }
+    }
+}
@@ -11,7 +11,9 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.FileChooser;
 import soporte.CantidadPorDosis;
 import soporte.Registro;
-import soporte.TSBHashTableDA;
+import soporte.TSBHashMultiMapDA;
+import soporte.TSBInternPool;
+import soporte.TSBObjectIntHashTableDA;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -33,9 +35,10 @@ public class RegistrosControlador {
      */
     private String []criterios;
     /**
-     * Tabla donde se guardan los registros.
+     * Tabla donde se guardan los registros, agrupados por departamento de
+     * aplicación: la consulta de un departamento solo recorre sus registros.
      */
-    private TSBHashTableDA<Integer, Registro> tabla;
+    private TSBHashMultiMapDA<String, Registro> tabla;
 
     @FXML
     private Button btnAbrir;
@@ -71,8 +74,11 @@ public class RegistrosControlador {
 
         txtnombreArchivo.setText(f.getName());
 
-        tabla = new TSBHashTableDA<>();
-        int cont = 0;
+        tabla = new TSBHashMultiMapDA<>();
+
+        // los valores de los campos se repiten en casi todas las líneas: cada
+        // registro usa la instancia del pool en lugar de su propia copia...
+        TSBInternPool<String> textos = new TSBInternPool<>();
 
         try
         {
@@ -82,13 +88,12 @@ public class RegistrosControlador {
                 String linea = miEscaner.nextLine();
                 String []line = linea.split(",");
                 if (Objects.equals(line[6], "\"Córdoba\"")) {
+                    textos.internAll(line);
                     Registro reg = new Registro(line[0], line[1], line[2], line[3],
                             line[4], line[5], line[6], line[7],
                             line[8], line[9], line[10], line[11],
                             line[12], line[13], line[14]);
-                    tabla.put(cont, reg);
-
-                    cont += 1;
+                    tabla.putValue(reg.getDepto_aplicacion(), reg);
                 }
             }
         }
@@ -178,23 +183,21 @@ public class RegistrosControlador {
     {
         int cont1 = 0 , cont2 = 0;
         if (chkTodos.isSelected()) {
-            for(int i = 0; i< tabla.size(); i++)
+            for(Registro reg : tabla.values())
             {
-                if(Objects.equals(tabla.get(i).getOrden_dosis(), "1"))
+                if(Objects.equals(reg.getOrden_dosis(), "1"))
                     cont1+= 1;
-                else if (Objects.equals(tabla.get(i).getOrden_dosis(), "2"))
+                else if (Objects.equals(reg.getOrden_dosis(), "2"))
                     cont2 +=1;
             }
         }
         else {
-            String value = (String) cmbDepto.getValue();
-            for(int i = 0; i< tabla.size(); i++) {
-                if (Objects.equals(tabla.get(i).getDepto_aplicacion(), "\"" + value + "\"")) {
-                    if(Objects.equals(tabla.get(i).getOrden_dosis(), "1"))
-                        cont1+= 1;
-                    else if (Objects.equals(tabla.get(i).getOrden_dosis(), "2"))
-                        cont2 +=1;
-                }
+            String depto = "\"" + cmbDepto.getValue() + "\"";
+            for(Registro reg : tabla.get(depto)) {
+                if(Objects.equals(reg.getOrden_dosis(), "1"))
+                    cont1+= 1;
+                else if (Objects.equals(reg.getOrden_dosis(), "2"))
+                    cont2 +=1;
             }
         }
 
@@ -221,23 +224,21 @@ public class RegistrosControlador {
     {
         int contM = 0 , contF = 0;
         if (chkTodos.isSelected()) {
-            for(int i = 0; i< tabla.size(); i++)
+            for(Registro reg : tabla.values())
             {
-                if(Objects.equals(tabla.get(i).getSexo(), "\"M\""))
+                if(Objects.equals(reg.getSexo(), "\"M\""))
                     contM += 1;
-                else if (Objects.equals(tabla.get(i).getSexo(), "\"F\""))
+                else if (Objects.equals(reg.getSexo(), "\"F\""))
                     contF +=1;
             }
         }
         else {
-            String value = (String) cmbDepto.getValue();
-            for(int i = 0; i< tabla.size(); i++) {
-                if (Objects.equals(tabla.get(i).getDepto_aplicacion(), "\"" + value + "\"")) {
-                    if(Objects.equals(tabla.get(i).getSexo(), "\"M\""))
-                        contM += 1;
-                    else if (Objects.equals(tabla.get(i).getSexo(), "\"F\""))
-                        contF +=1;
-                }
+            String depto = "\"" + cmbDepto.getValue() + "\"";
+            for(Registro reg : tabla.get(depto)) {
+                if(Objects.equals(reg.getSexo(), "\"M\""))
+                    contM += 1;
+                else if (Objects.equals(reg.getSexo(), "\"F\""))
+                    contF +=1;
             }
         }
         tablaDatos.getColumns().clear();
@@ -261,54 +262,27 @@ public class RegistrosControlador {
 
     private void cantidad_por_vacuna()
     {
-        int contSinopharm = 0 , contPfizer = 0, contModerna = 0 , contAstraZeneca = 0, contSputnik = 0;
+        // cantidad de registros por nombre de vacuna (tal como viene en el registro, entre comillas)...
+        TSBObjectIntHashTableDA<String> conteo = new TSBObjectIntHashTableDA<>();
         if (chkTodos.isSelected()) {
-            for(int i = 0; i< tabla.size(); i++)
+            for(Registro reg : tabla.values())
             {
-                if(Objects.equals(tabla.get(i).getVacuna(), "\"Sinopharm\""))
-                    contSinopharm += 1;
-                else if (Objects.equals(tabla.get(i).getVacuna(), "\"Pfizer\""))
-                    contPfizer +=1;
-                else if (Objects.equals(tabla.get(i).getVacuna(), "\"Moderna\""))
-                    contModerna +=1;
-                else if (Objects.equals(tabla.get(i).getVacuna(), "\"AstraZeneca\""))
-                    contAstraZeneca +=1;
-                else if (Objects.equals(tabla.get(i).getVacuna(), "\"Sputnik\""))
-                    contSputnik +=1;
+                conteo.addTo(reg.getVacuna(), 1);
             }
         }
         else {
-            String value = (String) cmbDepto.getValue();
-            for(int i = 0; i< tabla.size(); i++) {
-                if (Objects.equals(tabla.get(i).getDepto_aplicacion(), "\"" + value + "\"")) {
-                    if(Objects.equals(tabla.get(i).getVacuna(), "\"Sinopharm\""))
-                        contSinopharm += 1;
-                    else if (Objects.equals(tabla.get(i).getVacuna(), "\"Pfizer\""))
-                        contPfizer +=1;
-                    else if (Objects.equals(tabla.get(i).getVacuna(), "\"Moderna\""))
-                        contModerna +=1;
-                    else if (Objects.equals(tabla.get(i).getVacuna(), "\"AstraZeneca\""))
-                        contAstraZeneca +=1;
-                    else if (Objects.equals(tabla.get(i).getVacuna(), "\"Sputnik\""))
-                        contSputnik +=1;
-                }
+            String depto = "\"" + cmbDepto.getValue() + "\"";
+            for(Registro reg : tabla.get(depto)) {
+                conteo.addTo(reg.getVacuna(), 1);
             }
         }
         tablaDatos.getColumns().clear();
         tablaDatos.getItems().clear();
 
-        CantidadPorDosis cantXSinopharm = new CantidadPorDosis("Sinopharm", contSinopharm);
-        CantidadPorDosis cantXPfizer = new CantidadPorDosis("Pfizer", contPfizer);
-        CantidadPorDosis cantXModerna = new CantidadPorDosis("Moderna", contModerna);
-        CantidadPorDosis cantXAstraZeneca = new CantidadPorDosis("AstraZeneca", contAstraZeneca);
-        CantidadPorDosis cantXSputnik = new CantidadPorDosis("Sputnik", contSputnik);
-
         ObservableList<CantidadPorDosis> vacunas = FXCollections.observableArrayList();
-        vacunas.add(cantXSinopharm);
-        vacunas.add(cantXPfizer);
-        vacunas.add(cantXModerna);
-        vacunas.add(cantXAstraZeneca);
-        vacunas.add(cantXSputnik);
+        for (String nombre : new String[] {"Sinopharm", "Pfizer", "Moderna", "AstraZeneca", "Sputnik"}) {
+            vacunas.add(new CantidadPorDosis(nombre, conteo.getInt("\"" + nombre + "\"")));
+        }
 
         TableColumn<CantidadPorDosis, String> vacuna = new TableColumn<> ("Vacuna");
         TableColumn<CantidadPorDosis, Integer> cantidad = new TableColumn<> ("Cantidad");
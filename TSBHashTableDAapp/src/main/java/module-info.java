@@ -1,6 +1,8 @@
 module com.example.tsbhashtabledaapp {
     requires javafx.controls;
     requires javafx.fxml;
+    requires jdk.jfr;
+    requires java.management;
 
 
     opens com.example.tsbhashtabledaapp to javafx.fxml;
@@ -0,0 +1,297 @@
+package soporte;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Tabla hash en la que cada clave se asocia con un grupo de valores en lugar
+ * de un único valor (multimap). Cada grupo es un arreglo que crece a medida
+ * que se le agregan valores, por lo que agregar un valor es O(1) amortizado y
+ * recorrer los valores de una clave solo recorre ese grupo, sin pasar por los
+ * valores de las demás claves.
+ *
+ * El índice de claves es una TSBCompactHashTable: las claves se comparan con
+ * equals() y los grupos se recorren en el orden en que apareció cada clave.
+ * Los valores de cada grupo quedan en el orden en que se agregaron. No admite
+ * claves ni valores null.
+ *
+ * @param <K> el tipo de los objetos que serán usados como clave.
+ * @param <V> el tipo de los objetos que serán los valores de cada grupo.
+ */
+public class TSBHashMultiMapDA<K,V> implements Serializable
+{
+    //************************ Atributos privados.
+
+    // el índice: para cada clave, su grupo de valores...
+    private TSBCompactHashTable<K, Grupo<V>> grupos;
+
+    // la cantidad total de valores (de todas las claves)...
+    private int count;
+
+    private transient Collection<V> values = null;
+
+
+    //************************ Constructores.
+
+    /**
+     * Crea un multimap vacío.
+     */
+    public TSBHashMultiMapDA()
+    {
+        this.grupos = new TSBCompactHashTable<>();
+        this.count = 0;
+    }
+
+
+    //************************ Métodos del multimap.
+
+    /**
+     * Agrega el valor al grupo de la clave (creando el grupo si la clave no
+     * estaba). Un mismo valor puede agregarse más de una vez a un grupo.
+     * @param key la clave del grupo.
+     * @param value el valor a agregar.
+     * @throws NullPointerException si key o value son null.
+     */
+    public void putValue(K key, V value)
+    {
+        if(key == null || value == null) throw new NullPointerException("putValue(): parámetro null");
+
+        Grupo<V> grupo = grupos.get(key);
+        if(grupo == null)
+        {
+            grupo = new Grupo<>();
+            grupos.put(key, grupo);
+        }
+        grupo.agregar(value);
+        this.count++;
+    }
+
+    /**
+     * Retorna una vista de solo lectura de los valores asociados a la clave.
+     * La vista no copia los valores: refleja los que se agreguen luego a ese
+     * grupo. Si la clave no está, retorna una lista vacía (que no refleja
+     * agregados posteriores).
+     * @param key la clave a buscar.
+     * @return la lista de valores de la clave.
+     * @throws NullPointerException si key es null.
+     */
+    public List<V> get(Object key)
+    {
+        if(key == null) throw new NullPointerException("get(): parámetro null");
+
+        Grupo<V> grupo = grupos.get(key);
+        if(grupo == null) return Collections.emptyList();
+        return grupo.vista();
+    }
+
+    /**
+     * Retorna la cantidad de valores asociados a la clave, sin recorrerlos.
+     * @param key la clave a buscar.
+     * @return la cantidad de valores de la clave (0 si no está).
+     * @throws NullPointerException si key es null.
+     */
+    public int countFor(Object key)
+    {
+        if(key == null) throw new NullPointerException("countFor(): parámetro null");
+
+        Grupo<V> grupo = grupos.get(key);
+        return (grupo == null) ? 0 : grupo.cant;
+    }
+
+    /**
+     * Determina si la clave tiene al menos un valor asociado.
+     * @param key la clave a buscar.
+     * @return true si la clave está en el multimap.
+     */
+    public boolean containsKey(Object key)
+    {
+        return grupos.containsKey(key);
+    }
+
+    /**
+     * Elimina la clave y todos sus valores.
+     * @param key la clave a eliminar.
+     * @return la cantidad de valores eliminados (0 si la clave no estaba).
+     * @throws NullPointerException si key es null.
+     */
+    public int removeAll(Object key)
+    {
+        Grupo<V> grupo = grupos.remove(key);
+        if(grupo == null) return 0;
+
+        this.count -= grupo.cant;
+        return grupo.cant;
+    }
+
+    /**
+     * Retorna una vista de solo lectura de las claves que tienen valores
+     * asociados (para quitar una clave se usa removeAll(), que además
+     * descuenta sus valores de size()).
+     * @return el conjunto de claves.
+     */
+    public Set<K> keySet()
+    {
+        return Collections.unmodifiableSet(grupos.keySet());
+    }
+
+    /**
+     * Retorna una vista de solo lectura de todos los valores, recorridos grupo
+     * por grupo.
+     * @return la colección de todos los valores.
+     */
+    public Collection<V> values()
+    {
+        if(values == null)
+        {
+            values = new AbstractCollection<V>()
+            {
+                @Override
+                public Iterator<V> iterator()
+                {
+                    return new ValuesIterator();
+                }
+
+                @Override
+                public int size()
+                {
+                    return TSBHashMultiMapDA.this.count;
+                }
+            };
+        }
+        return values;
+    }
+
+    /**
+     * Retorna la cantidad total de valores (sumando los de todas las claves).
+     * @return la cantidad de valores.
+     */
+    public int size()
+    {
+        return this.count;
+    }
+
+    /**
+     * Retorna la cantidad de claves distintas.
+     * @return la cantidad de claves.
+     */
+    public int keyCount()
+    {
+        return grupos.size();
+    }
+
+    /**
+     * Determina si el multimap está vacío.
+     * @return true si no hay ningún valor.
+     */
+    public boolean isEmpty()
+    {
+        return this.count == 0;
+    }
+
+    /**
+     * Elimina todas las claves y sus valores.
+     */
+    public void clear()
+    {
+        grupos.clear();
+        this.count = 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder cad = new StringBuilder("{");
+        for(Map.Entry<K, Grupo<V>> e : grupos.entrySet())
+        {
+            if(cad.length() > 1) cad.append(", ");
+            cad.append(e.getKey()).append("=").append(e.getValue().vista());
+        }
+        return cad.append("}").toString();
+    }
+
+
+    //************************ Clases Internas.
+
+    /*
+     * Grupo de valores de una clave: un arreglo que se duplica al llenarse.
+     */
+    private static class Grupo<V> implements Serializable
+    {
+        private Object []valores = new Object[4];
+        private int cant;
+
+        void agregar(V value)
+        {
+            if(cant == valores.length) valores = Arrays.copyOf(valores, cant * 2);
+            valores[cant++] = value;
+        }
+
+        List<V> vista()
+        {
+            return new Vista<>(this);
+        }
+    }
+
+    /*
+     * Vista de solo lectura de un grupo. Lee siempre el arreglo actual del
+     * grupo, por lo que refleja los valores agregados después de crearla.
+     */
+    private static class Vista<V> extends AbstractList<V> implements RandomAccess
+    {
+        private final Grupo<V> grupo;
+
+        Vista(Grupo<V> grupo)
+        {
+            this.grupo = grupo;
+        }
+
+        @Override
+        public V get(int index)
+        {
+            if(index < 0 || index >= grupo.cant)
+            {
+                throw new IndexOutOfBoundsException("get(): índice fuera de rango: " + index);
+            }
+            return (V) grupo.valores[index];
+        }
+
+        @Override
+        public int size()
+        {
+            return grupo.cant;
+        }
+    }
+
+    /*
+     * Iterador de todos los valores: recorre los grupos en el orden del índice
+     * y, dentro de cada grupo, su arreglo de valores.
+     */
+    private class ValuesIterator implements Iterator<V>
+    {
+        private final Iterator<Grupo<V>> it = grupos.values().iterator();
+        private Grupo<V> actual;
+        private int pos;
+
+        @Override
+        public boolean hasNext()
+        {
+            while(actual == null || pos >= actual.cant)
+            {
+                if(!it.hasNext()) return false;
+                actual = it.next();
+                pos = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public V next()
+        {
+            if(!hasNext())
+            {
+                throw new NoSuchElementException("next(): no existe el elemento pedido...");
+            }
+            return (V) actual.valores[pos++];
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package soporte;
+
+import java.io.Serializable;
+
+/**
+ * Pool de instancias únicas construido sobre una TSBHashTableDA. intern()
+ * retorna, para cada valor, siempre la misma instancia: la primera que se le
+ * pasó. Sirve para que los campos que se repiten en millones de registros
+ * (jurisdicciones, departamentos, vacunas, grupos etarios...) compartan un
+ * único objeto en lugar de tener cada registro su propia copia.
+ *
+ * A diferencia de String.intern(), el pool no es global: cuando deja de
+ * usarse, sus instancias solo siguen vivas si algún objeto las referencia.
+ *
+ * @param <T> el tipo de los objetos del pool.
+ */
+public class TSBInternPool<T> implements Serializable
+{
+    // cada instancia se guarda como clave y como valor de sí misma...
+    private TSBHashTableDA<T, T> tabla;
+
+    /**
+     * Crea un pool vacío.
+     */
+    public TSBInternPool()
+    {
+        this.tabla = new TSBHashTableDA<>();
+    }
+
+    /**
+     * Retorna la instancia del pool igual (según equals()) a t. Si el pool no
+     * tiene ninguna, agrega a t y lo retorna.
+     * @param t el objeto a buscar.
+     * @return la instancia única igual a t.
+     * @throws NullPointerException si t es null.
+     */
+    public T intern(T t)
+    {
+        return tabla.intern(t, t);
+    }
+
+    /**
+     * Reemplaza cada elemento del arreglo por su instancia del pool.
+     * @param arreglo el arreglo a procesar.
+     * @return el mismo arreglo.
+     * @throws NullPointerException si el arreglo o alguno de sus elementos es null.
+     */
+    public T[] internAll(T[] arreglo)
+    {
+        for(int i = 0; i < arreglo.length; i++)
+        {
+            arreglo[i] = tabla.intern(arreglo[i], arreglo[i]);
+        }
+        return arreglo;
+    }
+
+    /**
+     * Retorna la cantidad de instancias distintas del pool.
+     * @return la cantidad de instancias.
+     */
+    public int size()
+    {
+        return tabla.size();
+    }
+
+    /**
+     * Elimina todas las instancias del pool.
+     */
+    public void clear()
+    {
+        tabla.clear();
+    }
+}
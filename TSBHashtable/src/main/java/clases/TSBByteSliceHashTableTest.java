@@ -0,0 +1,192 @@
+package clases;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class TSBByteSliceHashTableTest {
+
+    private TSBByteSliceHashTable<String> table;
+
+    @Before
+    public void setup() {
+        table = new TSBByteSliceHashTable<>();
+    }
+
+    @Test
+    public void whenKeysDoNotFit_keyArrayGrows() {
+        // el arreglo de claves empieza con 64 bytes y se duplica, salvo que
+        // la clave nueva necesite más...
+        assertEquals(64, table.dataLength());
+        table.put(clave('a', 40), "a");
+        assertEquals(64, table.dataLength());
+        table.put(clave('b', 40), "b");
+        assertEquals(128, table.dataLength());
+        table.put(clave('c', 200), "c");
+        assertEquals(280, table.dataLength());
+        assertEquals(280, table.used());
+
+        assertEquals("a", table.get(bytes(clave('a', 40)), 0, 40));
+        assertEquals("b", table.get(bytes(clave('b', 40)), 0, 40));
+        assertEquals("c", table.get(bytes(clave('c', 200)), 0, 200));
+    }
+
+    @Test
+    public void whenTombsFillTheTable_rehashKeepsCapacityAndDropsDeadBytes() {
+        for (int i = 0; i < 8; i++) {
+            table.put("key" + i, "v" + i);
+        }
+        for (int i = 0; i < 6; i++) {
+            table.remove(bytes("key" + i), 0, 4);
+        }
+
+        // los bytes de las claves eliminadas siguen en el arreglo...
+        assertEquals(16, table.capacity());
+        assertEquals(6, table.tombstones());
+        assertEquals(32, table.used());
+
+        // el siguiente put() reorganiza: con 2 claves vivas no hace falta
+        // crecer, y solo se copian los bytes de esas 2...
+        table.put("nuevo", "n");
+        assertEquals(16, table.capacity());
+        assertEquals(0, table.tombstones());
+        assertEquals(8 + 5, table.used());
+        assertEquals(3, table.size());
+        for (int i = 0; i < 6; i++) {
+            assertNull(table.get(bytes("key" + i), 0, 4));
+        }
+        assertEquals("v6", table.get(bytes("key6"), 0, 4));
+        assertEquals("v7", table.get(bytes("key7"), 0, 4));
+        assertEquals("n", table.get(bytes("nuevo"), 0, 5));
+    }
+
+    @Test
+    public void whenTableFillsWithKeys_rehashDoublesCapacity() {
+        for (int i = 0; i < 8; i++) {
+            table.put(clave((char) ('a' + i), 20), "v" + i);
+        }
+        table.remove(bytes(clave('a', 20)), 0, 20);
+        assertEquals(16, table.capacity());
+        assertEquals(160, table.used());
+
+        table.put(clave('z', 20), "z");
+        assertEquals(32, table.capacity());
+        assertEquals(160, table.used());
+        assertEquals(8, table.size());
+        assertNull(table.get(bytes(clave('a', 20)), 0, 20));
+        for (int i = 1; i < 8; i++) {
+            assertEquals("v" + i, table.get(bytes(clave((char) ('a' + i), 20)), 0, 20));
+        }
+        assertEquals("z", table.get(bytes(clave('z', 20)), 0, 20));
+    }
+
+    @Test
+    public void whenKeyIsRemoved_putReusesItsTomb() {
+        // "Aa" y "BB" tienen el mismo hash: "BB" queda después de "Aa" en la
+        // exploración...
+        table.put("Aa", "1");
+        table.put("BB", "2");
+        assertEquals("1", table.remove(bytes("Aa"), 0, 2));
+        assertNull(table.remove(bytes("Aa"), 0, 2));
+        assertEquals(1, table.tombstones());
+
+        // la tumba no corta la búsqueda: "BB" se encuentra y se reemplaza en
+        // su casillero, sin ocupar la tumba...
+        assertEquals("2", table.get(bytes("BB"), 0, 2));
+        assertEquals("2", table.put("BB", "20"));
+        assertEquals(1, table.tombstones());
+        assertEquals(1, table.size());
+
+        // una clave nueva sí ocupa la primera tumba del recorrido...
+        assertNull(table.put("Aa", "10"));
+        assertEquals(0, table.tombstones());
+        assertEquals(2, table.size());
+        assertEquals("10", table.get(bytes("Aa"), 0, 2));
+        assertEquals("20", table.get(bytes("BB"), 0, 2));
+    }
+
+    @Test
+    public void whenKeyIsASliceOfALine_itIsFoundFromAnyArray() {
+        byte[] linea = bytes("12,Capital,Córdoba");
+        assertNull(table.put(linea, 3, 7, "cap"));
+
+        // la tabla copió los bytes: la línea puede reutilizarse...
+        byte[] copia = linea.clone();
+        Arrays.fill(linea, (byte) 'x');
+        assertEquals("cap", table.get(bytes("xxCapitalyy"), 2, 7));
+        assertEquals("cap", table.get(bytes("Capital"), 0, 7));
+        assertNull(table.get(copia, 3, 6));
+        assertNull(table.get(copia, 2, 7));
+
+        // "Córdoba" ocupa 8 bytes en UTF-8, desde la posición 11...
+        table.put("Córdoba", "cba");
+        assertTrue(table.containsKey(copia, 11, 8));
+        assertEquals("cba", table.put(copia, 11, 8, "CBA"));
+
+        // la porción vacía al final del arreglo también es una clave...
+        table.put(copia, copia.length, 0, "vacía");
+        assertEquals("vacía", table.get(new byte[0], 0, 0));
+        assertEquals(3, table.size());
+        assertEquals(7 + 8, table.used());
+    }
+
+    @Test
+    public void whenSliceIsOutsideTheArray_throwException() {
+        byte[] b = new byte[10];
+        fuera(b, -1, 2);
+        fuera(b, 0, -1);
+        fuera(b, 5, 6);
+        fuera(b, 11, 0);
+        // off + len desborda el int: el control no debe sumarlos...
+        fuera(b, 1, Integer.MAX_VALUE);
+        fuera(b, Integer.MAX_VALUE, 1);
+
+        // en el borde la porción es válida...
+        assertNull(table.get(b, 10, 0));
+        assertNull(table.get(b, 0, 10));
+        assertEquals(0, table.size());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenGetCalledWithNullArray_throwException() {
+        table.get(null, 0, 0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenPutCalledWithNullValue_throwException() {
+        table.put("a", null);
+    }
+
+    private void fuera(byte[] b, int off, int len) {
+        try {
+            table.get(b, off, len);
+            fail("get(): porción aceptada: " + off + ", " + len);
+        } catch (IndexOutOfBoundsException e) {
+            // esperado...
+        }
+        try {
+            table.put(b, off, len, "v");
+            fail("put(): porción aceptada: " + off + ", " + len);
+        } catch (IndexOutOfBoundsException e) {
+            // esperado...
+        }
+        try {
+            table.remove(b, off, len);
+            fail("remove(): porción aceptada: " + off + ", " + len);
+        } catch (IndexOutOfBoundsException e) {
+            // esperado...
+        }
+    }
+
+    private static String clave(char c, int largo) {
+        return String.valueOf(c).repeat(largo);
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,139 @@
+package clases;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TSBCacheDATest {
+
+    private TSBCacheDA<String, Integer> cache;
+
+    @Before
+    public void setup() {
+        // los casilleros se ocupan en orden: a en 0, b en 1, c en 2...
+        cache = new TSBCacheDA<>(3);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+    }
+
+    @Test
+    public void whenCacheIsFull_clockEvictsInSlotOrder() {
+        // ningún casillero fue referenciado: la aguja desaloja el primero...
+        cache.put("d", 4);
+        assertEquals(3, cache.size());
+        assertNull(cache.get("a"));
+        assertEquals(Integer.valueOf(2), cache.get("b"));
+
+        // b quedó referenciado por el get(): pierde el bit y se desaloja c...
+        cache.put("e", 5);
+        assertNull(cache.get("c"));
+        assertEquals(Integer.valueOf(2), cache.get("b"));
+        assertEquals(Integer.valueOf(4), cache.get("d"));
+        assertEquals(Integer.valueOf(5), cache.get("e"));
+        assertEquals(3, cache.size());
+        assertEquals(2, cache.getEvictions());
+    }
+
+    @Test
+    public void whenEntryIsReferenced_itGetsOneSecondChance() {
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+
+        // a tiene el bit: desalojar() se lo quita y desaloja b...
+        cache.put("d", 4);
+        assertNull(cache.get("b"));
+        assertEquals(Integer.valueOf(3), cache.get("c"));
+
+        // c tiene el bit (por el get anterior) y a ya no: la aguja sigue en c,
+        // le quita el bit, vuelve al principio y desaloja a...
+        cache.put("e", 5);
+        assertNull(cache.get("a"));
+        assertEquals(Integer.valueOf(3), cache.get("c"));
+        assertEquals(Integer.valueOf(4), cache.get("d"));
+        assertEquals(Integer.valueOf(5), cache.get("e"));
+    }
+
+    @Test
+    public void whenEveryEntryIsReferenced_clockClearsAllBitsAndEvictsTheFirst() {
+        cache.get("a");
+        cache.get("b");
+        cache.get("c");
+        cache.put("d", 4);
+        assertNull(cache.get("a"));
+        assertEquals(3, cache.size());
+
+        // los bits de b y c se perdieron en la vuelta anterior...
+        cache.put("e", 5);
+        assertNull(cache.get("b"));
+        assertEquals(Integer.valueOf(3), cache.get("c"));
+    }
+
+    @Test
+    public void whenKeyIsRemoved_itsSlotIsReusedBeforeEvicting() {
+        assertEquals(Integer.valueOf(2), cache.remove("b"));
+        assertNull(cache.remove("b"));
+        assertEquals(2, cache.size());
+
+        // d ocupa el casillero libre de b, sin desalojar a nadie...
+        cache.put("d", 4);
+        assertEquals(0, cache.getEvictions());
+        assertEquals(3, cache.size());
+
+        // la aguja recorre los casilleros en orden: a (0), d (1), c (2)...
+        cache.put("e", 5);
+        assertNull(cache.get("a"));
+        cache.put("f", 6);
+        assertNull(cache.get("d"));
+        cache.put("g", 7);
+        assertNull(cache.get("c"));
+        assertEquals(3, cache.getEvictions());
+    }
+
+    @Test
+    public void whenCacheIsCleared_allSlotsAreFreeAndCountersAreKept() {
+        cache.get("a");
+        cache.get("z");
+        cache.put("d", 4);
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNull(cache.get("c"));
+
+        for (int i = 0; i < 3; i++) {
+            cache.put("k" + i, i);
+        }
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void whenLookupsHitAndMiss_countersAreUpdated() {
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+        assertNull(cache.get("z"));
+
+        // get() con función: un fallo que carga el valor y después un acierto...
+        assertEquals(Integer.valueOf(26), cache.get("z", k -> 26));
+        assertEquals(Integer.valueOf(26), cache.get("z", k -> -1));
+
+        // si la función retorna null no se guarda nada...
+        assertNull(cache.get("y", k -> null));
+        assertNull(cache.get("y"));
+
+        // un put() de una clave que ya está no cuenta ni desaloja...
+        assertEquals(Integer.valueOf(26), cache.put("z", 27));
+
+        assertEquals(2, cache.getHits());
+        assertEquals(4, cache.getMisses());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(3, cache.size());
+        assertEquals(3, cache.capacity());
+        assertEquals("TSBCacheDA[size=3, capacity=3, hits=2, misses=4, evictions=1]", cache.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenCreatedWithoutCapacity_throwException() {
+        new TSBCacheDA<String, Integer>(0);
+    }
+}
@@ -0,0 +1,628 @@
+package clases;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Variante de TSBHashTableDA que mantiene el orden de inserción y guarda los
+ * pares en forma compacta. Los pares (key, value) se agregan al final de
+ * arreglos densos (keys, values y el hash de cada key), y la tabla hash de
+ * direccionamiento abierto (indice) solo guarda, en un int[], la posición de
+ * cada par dentro de esos arreglos.
+ *
+ * Como los arreglos densos no tienen casilleros vacíos (salvo los pares que
+ * se eliminaron desde la última reorganización), recorrer las vistas es un
+ * recorrido lineal sobre los datos, en orden de inserción, sin pasar por los
+ * casilleros vacíos del índice. Además el índice usa 4 bytes por casillero en
+ * lugar de una referencia a un Entry.
+ *
+ * Reemplazar el valor de una clave existente no cambia su posición. Igual que
+ * TSBHashTableDA, no admite claves ni valores null.
+ *
+ * @param <K> el tipo de los objetos que serán usados como clave en la tabla.
+ * @param <V> el tipo de los objetos que serán los valores de la tabla.
+ */
+public class TSBCompactHashTable<K,V> extends AbstractMap<K,V> implements Cloneable, Serializable
+{
+    //************************ Constantes (privadas o públicas).
+
+    // valores especiales del índice: casillero abierto y tumba...
+    private final static int ABIERTO = -1;
+    private final static int TUMBA = -2;
+
+    // el tamaño máximo que podrá tener el índice (potencia de 2)...
+    private final static int MAX_SIZE = 1 << 30;
+
+
+    //************************ Atributos privados (estructurales).
+
+    // el índice: posición del par en los arreglos densos, ABIERTO o TUMBA...
+    private int []indice;
+
+    // los arreglos densos, en orden de inserción. Un par eliminado queda con
+    // key null hasta la siguiente reorganización...
+    private Object []keys;
+    private Object []values;
+    private int []hashes;
+
+    // cantidad de posiciones usadas de los arreglos densos (vivas o no)...
+    private int usados;
+
+    // el tamaño inicial de los arreglos densos...
+    private int initial_capacity;
+
+    // la cantidad de objetos que contiene la tabla...
+    private int count;
+
+    private transient Set<Map.Entry<K,V>> entrySet = null;
+    private transient Collection<V> valuesView = null;
+
+
+    //************************ Atributos protegidos (control de iteración).
+
+    // conteo de operaciones de cambio de tamaño (fail-fast iterator).
+    protected transient int modCount;
+
+
+    //************************ Constructores.
+
+    /**
+     * Crea una tabla vacía, con capacidad inicial para 8 objetos.
+     */
+    public TSBCompactHashTable()
+    {
+        this(8);
+    }
+
+    /**
+     * Crea una tabla vacía, con capacidad inicial para la cantidad de objetos
+     * indicada (como mínimo 8).
+     * @param initial_capacity la capacidad inicial de la tabla.
+     */
+    public TSBCompactHashTable(int initial_capacity)
+    {
+        if(initial_capacity < 8) { initial_capacity = 8; }
+        if(initial_capacity > MAX_SIZE / 2) { initial_capacity = MAX_SIZE / 2; }
+        this.initial_capacity = initial_capacity;
+        this.inicializar(initial_capacity);
+        this.modCount = 0;
+    }
+
+    /**
+     * Crea una tabla a partir del contenido del Map especificado.
+     * @param t el Map a partir del cual se creará la tabla.
+     */
+    public TSBCompactHashTable(Map<? extends K,? extends V> t)
+    {
+        this(t.size());
+        this.putAll(t);
+    }
+
+
+    //************************ Implementación de métodos especificados por Map.
+
+    @Override
+    public int size()
+    {
+        return this.count;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return (this.count == 0);
+    }
+
+    /**
+     * Determina si la clave key está en la tabla.
+     * @param key la clave a verificar.
+     * @return true si la clave está en la tabla.
+     * @throws NullPointerException si la clave es null.
+     */
+    @Override
+    public boolean containsKey(Object key)
+    {
+        if(key == null) throw new NullPointerException("containsKey(): parámetro null");
+        return this.indice[this.search_for_slot(key, key.hashCode())] >= 0;
+    }
+
+    /**
+     * Retorna el objeto al cual está asociada la clave key en la tabla, o null
+     * si la tabla no contiene ningún objeto asociado a esa clave.
+     * @param key la clave que será buscada en la tabla.
+     * @return el objeto asociado a la clave especificada o null.
+     * @throws NullPointerException si key es null.
+     */
+    @Override
+    public V get(Object key)
+    {
+        if(key == null) throw new NullPointerException("get(): parámetro null");
+
+        int pos = this.indice[this.search_for_slot(key, key.hashCode())];
+        return (pos >= 0) ? (V) values[pos] : null;
+    }
+
+    /**
+     * Asocia el valor (value) especificado, con la clave (key) especificada en
+     * esta tabla. Si la tabla contenía previamente un valor asociado para la
+     * clave, el valor anterior es reemplazado por el nuevo y el par mantiene
+     * su posición; si no, el par se agrega al final.
+     * @param key la clave del objeto que se quiere agregar a la tabla.
+     * @param value el objeto que se quiere agregar a la tabla.
+     * @return el objeto anteriormente asociado a la clave, o null.
+     * @throws NullPointerException si key es null o value es null.
+     */
+    @Override
+    public V put(K key, V value)
+    {
+        if(key == null || value == null) throw new NullPointerException("put(): parámetro null");
+
+        int hash = key.hashCode();
+        int slot = this.search_for_slot(key, hash);
+        int pos = this.indice[slot];
+        if(pos >= 0)
+        {
+            V old = (V) values[pos];
+            values[pos] = value;
+            return old;
+        }
+
+        if(this.usados == this.keys.length)
+        {
+            // los arreglos densos están llenos: se reorganiza la tabla y se
+            // vuelve a buscar el casillero del índice para la nueva clave...
+            this.rehash();
+            slot = this.search_for_slot(key, hash);
+        }
+
+        pos = this.usados++;
+        keys[pos] = key;
+        values[pos] = value;
+        hashes[pos] = hash;
+        this.indice[slot] = pos;
+        this.count++;
+        this.modCount++;
+        return null;
+    }
+
+    /**
+     * Elimina de la tabla la clave key (y su correspondiente valor asociado).
+     * El casillero del índice queda como tumba y la posición del par en los
+     * arreglos densos queda libre hasta la siguiente reorganización.
+     * @param key la clave a eliminar.
+     * @return El objeto al cual la clave estaba asociada, o null si la clave no
+     *         estaba en la tabla.
+     * @throws NullPointerException si la clave es null.
+     */
+    @Override
+    public V remove(Object key)
+    {
+        if(key == null) throw new NullPointerException("remove(): parámetro null");
+
+        int slot = this.search_for_slot(key, key.hashCode());
+        int pos = this.indice[slot];
+        if(pos < 0) { return null; }
+
+        V old = (V) values[pos];
+        this.indice[slot] = TUMBA;
+        this.eliminar(pos);
+        return old;
+    }
+
+    /**
+     * Elimina todo el contenido de la tabla, de forma de dejarla vacía y con
+     * el tamaño que inicialmente tuvo al ser creada.
+     */
+    @Override
+    public void clear()
+    {
+        this.inicializar(this.initial_capacity);
+        this.modCount++;
+    }
+
+    @Override
+    public Set<Map.Entry<K,V>> entrySet()
+    {
+        if(entrySet == null)
+        {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    /**
+     * Retorna una vista de los valores de la tabla, en orden de inserción. Su
+     * iterador recorre directamente el arreglo denso de valores.
+     * @return una colección a modo de vista de todos los valores de la tabla.
+     */
+    @Override
+    public Collection<V> values()
+    {
+        if(valuesView == null)
+        {
+            valuesView = new ValueCollection();
+        }
+        return valuesView;
+    }
+
+
+    //************************ Redefinición de métodos heredados desde Object.
+
+    /**
+     * Retorna una copia superficial de la tabla, con el mismo orden.
+     * @return una copia superficial de la tabla.
+     */
+    @Override
+    protected Object clone()
+    {
+        TSBCompactHashTable<K,V> t = new TSBCompactHashTable<>(this.count);
+        t.putAll(this);
+        return t;
+    }
+
+
+    //************************ Métodos específicos de la clase.
+
+    /**
+     * Reorganiza la tabla cuando se llenan los arreglos densos: compacta los
+     * pares vivos (quitando los eliminados, sin cambiar el orden) en arreglos
+     * con capacidad para el doble de pares vivos, y reconstruye el índice (sin
+     * tumbas) con el hash guardado de cada clave.
+     */
+    protected void rehash()
+    {
+        Object []oldKeys = this.keys;
+        Object []oldValues = this.values;
+        int []oldHashes = this.hashes;
+        int oldUsados = this.usados;
+
+        int capacidad = Math.max(this.count * 2, this.initial_capacity);
+        if(capacidad > MAX_SIZE / 2) { capacidad = MAX_SIZE / 2; }
+        this.inicializar(capacidad);
+
+        for(int i = 0; i < oldUsados; i++)
+        {
+            if(oldKeys[i] != null)
+            {
+                int pos = this.usados++;
+                keys[pos] = oldKeys[i];
+                values[pos] = oldValues[i];
+                hashes[pos] = oldHashes[i];
+                this.indice[this.search_for_free_slot(oldHashes[i])] = pos;
+                this.count++;
+            }
+        }
+        this.modCount++;
+    }
+
+    /**
+     * Retorna el tamaño de los arreglos densos.
+     * @return la cantidad de pares que caben antes de reorganizar la tabla.
+     */
+    int capacity()
+    {
+        return this.keys.length;
+    }
+
+    /**
+     * Retorna la cantidad de posiciones usadas de los arreglos densos,
+     * incluyendo las de los pares eliminados desde la última reorganización.
+     * @return la cantidad de posiciones usadas.
+     */
+    int used()
+    {
+        return this.usados;
+    }
+
+
+    //************************ Métodos privados.
+
+    /**
+     * Crea los arreglos densos para la capacidad indicada, y un índice vacío
+     * con al menos 1.5 casilleros por par, cuyo tamaño es potencia de 2.
+     */
+    private void inicializar(int capacidad)
+    {
+        int length = 8;
+        while(length < capacidad + capacidad / 2) { length <<= 1; }
+
+        this.indice = new int[length];
+        Arrays.fill(this.indice, ABIERTO);
+        this.keys = new Object[capacidad];
+        this.values = new Object[capacidad];
+        this.hashes = new int[capacidad];
+        this.usados = 0;
+        this.count = 0;
+    }
+
+    /**
+     * Busca la clave key en el índice. Si la encuentra, retorna el casillero
+     * del índice que apunta a ella. Si no, retorna el casillero donde debería
+     * agregarse (la primera tumba encontrada, o el casillero abierto final).
+     */
+    private int search_for_slot(Object key, int hash)
+    {
+        int mask = this.indice.length - 1;
+        int slot = h(hash) & mask;
+        int t = -1;
+        for(int j = 1; ; j++)
+        {
+            int pos = this.indice[slot];
+            if(pos == ABIERTO)
+            {
+                return (t == -1) ? slot : t;
+            }
+            if(pos == TUMBA)
+            {
+                if(t == -1) { t = slot; }
+            }
+            else if(hashes[pos] == hash)
+            {
+                Object k = keys[pos];
+                if(k == key || k.equals(key)) { return slot; }
+            }
+            slot = (slot + j) & mask; // exploración cuadrática (números triangulares)
+        }
+    }
+
+    /**
+     * Retorna el primer casillero abierto del índice para el hash indicado
+     * (usado al reconstruir el índice, donde no hay tumbas ni repetidos).
+     */
+    private int search_for_free_slot(int hash)
+    {
+        int mask = this.indice.length - 1;
+        int slot = h(hash) & mask;
+        for(int j = 1; this.indice[slot] != ABIERTO; j++)
+        {
+            slot = (slot + j) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Libera la posición pos de los arreglos densos.
+     */
+    private void eliminar(int pos)
+    {
+        keys[pos] = null;
+        values[pos] = null;
+        this.count--;
+        this.modCount++;
+    }
+
+    /**
+     * Elimina el par de la posición pos, dejando su casillero del índice
+     * como tumba (usado por los iteradores).
+     */
+    private void eliminar_posicion(int pos)
+    {
+        int mask = this.indice.length - 1;
+        int slot = h(hashes[pos]) & mask;
+        for(int j = 1; this.indice[slot] != pos; j++)
+        {
+            slot = (slot + j) & mask;
+        }
+        this.indice[slot] = TUMBA;
+        this.eliminar(pos);
+    }
+
+    /**
+     * Función hash: mezcla los bits del hashCode() para que todos influyan en
+     * los bits bajos, que son los que determinan el casillero del índice.
+     */
+    private static int h(int hash)
+    {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 15);
+    }
+
+
+    //************************ Clases Internas.
+
+    /**
+     * Iterador base sobre las posiciones vivas de los arreglos densos, en
+     * orden de inserción.
+     */
+    private abstract class CompactIterator
+    {
+        // la siguiente posición a retornar...
+        private int next_pos;
+
+        // la posición retornada por next() (-1 si no corresponde)...
+        private int current_pos;
+
+        // el valor que debería tener el modCount de la tabla completa...
+        private int expected_modCount;
+
+        public CompactIterator()
+        {
+            next_pos = 0;
+            current_pos = -1;
+            expected_modCount = TSBCompactHashTable.this.modCount;
+            this.avanzar();
+        }
+
+        // deja next_pos en la siguiente posición viva (o en usados)...
+        private void avanzar()
+        {
+            Object []k = TSBCompactHashTable.this.keys;
+            int u = TSBCompactHashTable.this.usados;
+            while(next_pos < u && k[next_pos] == null) { next_pos++; }
+        }
+
+        public boolean hasNext()
+        {
+            return next_pos < TSBCompactHashTable.this.usados;
+        }
+
+        protected int nextPos()
+        {
+            if(TSBCompactHashTable.this.modCount != expected_modCount)
+            {
+                throw new ConcurrentModificationException("next(): modificación inesperada de tabla...");
+            }
+            if(!hasNext())
+            {
+                throw new NoSuchElementException("next(): no existe el elemento pedido...");
+            }
+
+            current_pos = next_pos++;
+            this.avanzar();
+            return current_pos;
+        }
+
+        public void remove()
+        {
+            if(current_pos == -1)
+            {
+                throw new IllegalStateException("remove(): debe invocar a next() antes de remove()...");
+            }
+            if(TSBCompactHashTable.this.modCount != expected_modCount)
+            {
+                throw new ConcurrentModificationException("remove(): modificación inesperada de tabla...");
+            }
+
+            TSBCompactHashTable.this.eliminar_posicion(current_pos);
+            current_pos = -1;
+            expected_modCount = TSBCompactHashTable.this.modCount;
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<K,V>>
+    {
+        @Override
+        public Iterator<Map.Entry<K,V>> iterator()
+        {
+            return new EntrySetIterator();
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+            if(!(o instanceof Map.Entry)) { return false; }
+            Map.Entry<?,?> entry = (Map.Entry<?,?>) o;
+            V value = TSBCompactHashTable.this.get(entry.getKey());
+            return value != null && value.equals(entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o)
+        {
+            if(!this.contains(o)) { return false; }
+            TSBCompactHashTable.this.remove(((Map.Entry<?,?>) o).getKey());
+            return true;
+        }
+
+        @Override
+        public int size()
+        {
+            return TSBCompactHashTable.this.count;
+        }
+
+        @Override
+        public void clear()
+        {
+            TSBCompactHashTable.this.clear();
+        }
+    }
+
+    private class EntrySetIterator extends CompactIterator implements Iterator<Map.Entry<K,V>>
+    {
+        @Override
+        public Map.Entry<K,V> next()
+        {
+            return new Entry(this.nextPos());
+        }
+    }
+
+    private class ValueCollection extends AbstractCollection<V>
+    {
+        @Override
+        public Iterator<V> iterator()
+        {
+            return new ValueCollectionIterator();
+        }
+
+        @Override
+        public int size()
+        {
+            return TSBCompactHashTable.this.count;
+        }
+
+        @Override
+        public void clear()
+        {
+            TSBCompactHashTable.this.clear();
+        }
+    }
+
+    private class ValueCollectionIterator extends CompactIterator implements Iterator<V>
+    {
+        @Override
+        public V next()
+        {
+            return (V) values[this.nextPos()];
+        }
+    }
+
+    /**
+     * Par (key, value) retornado por el iterador: accede directamente a la
+     * posición del arreglo denso, por lo que setValue() modifica la tabla.
+     */
+    private class Entry implements Map.Entry<K,V>
+    {
+        private final int pos;
+        private final K key;
+
+        public Entry(int pos)
+        {
+            this.pos = pos;
+            this.key = (K) keys[pos];
+        }
+
+        @Override
+        public K getKey()
+        {
+            return key;
+        }
+
+        @Override
+        public V getValue()
+        {
+            return (V) values[pos];
+        }
+
+        @Override
+        public V setValue(V value)
+        {
+            if(value == null)
+            {
+                throw new IllegalArgumentException("setValue(): parámetro null...");
+            }
+            V old = (V) values[pos];
+            values[pos] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if(!(obj instanceof Map.Entry)) { return false; }
+            Map.Entry<?,?> other = (Map.Entry<?,?>) obj;
+            return key.equals(other.getKey()) && getValue().equals(other.getValue());
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return key.hashCode() ^ getValue().hashCode();
+        }
+
+        @Override
+        public String toString()
+        {
+            return "(" + key.toString() + " --> " + getValue().toString() + ")";
+        }
+    }
+}
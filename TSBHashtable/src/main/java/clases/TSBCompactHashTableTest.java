@@ -0,0 +1,130 @@
+package clases;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TSBCompactHashTableTest {
+
+    private TSBCompactHashTable<String, Integer> table;
+
+    @Before
+    public void setup() {
+        table = new TSBCompactHashTable<>(8);
+    }
+
+    @Test
+    public void whenKeysAreAddedReplacedAndReadded_iterationFollowsInsertionOrder() {
+        table.put("z", 1);
+        table.put("a", 2);
+        table.put("m", 3);
+        table.put("b", 4);
+        assertEquals(Arrays.asList("z", "a", "m", "b"), new ArrayList<>(table.keySet()));
+
+        // reemplazar el valor no cambia la posición; quitar y volver a agregar
+        // una clave la pasa al final...
+        assertEquals(Integer.valueOf(2), table.put("a", 20));
+        assertEquals(Integer.valueOf(3), table.remove("m"));
+        table.put("m", 30);
+        assertEquals(Arrays.asList("z", "a", "b", "m"), new ArrayList<>(table.keySet()));
+        assertEquals(Arrays.asList(1, 20, 4, 30), new ArrayList<>(table.values()));
+    }
+
+    @Test
+    public void whenDenseArraysFillWithHoles_rehashCompactsThemInOrder() {
+        for (int i = 0; i < 8; i++) {
+            table.put("k" + i, i);
+        }
+        table.remove("k1");
+        table.remove("k3");
+        table.remove("k5");
+
+        // los pares eliminados siguen ocupando su posición hasta reorganizar...
+        assertEquals(8, table.capacity());
+        assertEquals(8, table.used());
+        assertEquals(5, table.size());
+
+        // el siguiente put() encuentra llenos los arreglos densos: se quitan
+        // los huecos y la capacidad pasa a ser el doble de los pares vivos...
+        table.put("x", 99);
+        assertEquals(10, table.capacity());
+        assertEquals(6, table.used());
+        assertEquals(6, table.size());
+        assertEquals(Arrays.asList("k0", "k2", "k4", "k6", "k7", "x"), new ArrayList<>(table.keySet()));
+        for (int i = 0; i < 8; i += 2) {
+            assertEquals(Integer.valueOf(i), table.get("k" + i));
+        }
+        assertNull(table.get("k1"));
+        assertEquals(Integer.valueOf(99), table.get("x"));
+    }
+
+    @Test
+    public void whenFewPairsSurviveRehash_capacityReturnsToInitial() {
+        for (int i = 0; i < 8; i++) {
+            table.put("k" + i, i);
+        }
+        for (int i = 0; i < 6; i++) {
+            table.remove("k" + i);
+        }
+        table.put("x", 99);
+        assertEquals(8, table.capacity());
+        assertEquals(3, table.used());
+        assertEquals(Arrays.asList("k6", "k7", "x"), new ArrayList<>(table.keySet()));
+    }
+
+    @Test
+    public void whenKeyIsRemovedThroughIterator_laterKeysOfItsProbeChainAreStillFound() {
+        // "Aa" y "BB" tienen el mismo hashCode(): comparten el casillero de
+        // origen del índice y "BB" queda más adelante en la exploración...
+        table.put("Aa", 1);
+        table.put("BB", 2);
+        table.put("c", 3);
+
+        Iterator<Map.Entry<String, Integer>> it = table.entrySet().iterator();
+        assertEquals("Aa", it.next().getKey());
+        it.remove();
+        assertEquals("BB", it.next().getKey());
+        assertEquals("c", it.next().getKey());
+        assertFalse(it.hasNext());
+
+        // el casillero de "Aa" quedó como tumba y no corta la búsqueda de "BB"...
+        assertEquals(2, table.size());
+        assertNull(table.get("Aa"));
+        assertEquals(Integer.valueOf(2), table.get("BB"));
+
+        Iterator<Integer> valores = table.values().iterator();
+        assertEquals(Integer.valueOf(2), valores.next());
+        valores.remove();
+        assertEquals(1, table.size());
+        assertFalse(table.containsKey("BB"));
+        assertEquals(Integer.valueOf(3), table.get("c"));
+
+        // las claves vuelven a agregarse al final...
+        table.put("BB", 20);
+        table.put("Aa", 10);
+        assertEquals(Arrays.asList("c", "BB", "Aa"), new ArrayList<>(table.keySet()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void whenIteratorRemovesTwice_throwException() {
+        table.put("a", 1);
+        table.put("b", 2);
+        Iterator<String> it = table.keySet().iterator();
+        it.next();
+        it.remove();
+        it.remove();
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void whenTableChangesDuringIteration_throwException() {
+        table.put("a", 1);
+        table.put("b", 2);
+        Iterator<String> it = table.keySet().iterator();
+        it.next();
+        table.put("c", 3);
+        it.next();
+    }
+}
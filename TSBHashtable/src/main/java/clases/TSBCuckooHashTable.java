@@ -0,0 +1,742 @@
+package clases;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Variante de TSBHashTableDA que resuelve las colisiones con la estrategia
+ * cuckoo hashing con buckets de 4 casilleros. Cada clave tiene dos buckets
+ * posibles, calculados con dos funciones hash distintas, y siempre se
+ * encuentra en alguno de ellos: una búsqueda revisa como máximo 8 casilleros
+ * (dos buckets), sin importar cuán cargada esté la tabla ni cuántas claves se
+ * hayan eliminado. No se usan tumbas: al eliminar, el casillero queda libre.
+ *
+ * Al insertar, si los dos buckets de la clave están llenos, se desaloja una
+ * clave de uno de ellos y se la reubica en su bucket alternativo, repitiendo
+ * el proceso hasta encontrar un casillero libre. Si se superan MAX_DESALOJOS
+ * movimientos (o si la tabla supera el factor de carga), se duplica el tamaño
+ * y se redistribuyen las claves. Las inserciones son más costosas que en
+ * TSBHashTableDA, por lo que la tabla conviene para tablas de mucha lectura.
+ *
+ * Los dos buckets de una clave salen del mismo hashCode(), por lo que las
+ * claves con igual hashCode() compiten siempre por los mismos dos buckets, a
+ * cualquier tamaño de la tabla: si son más de 8, agrandar la tabla no sirve.
+ * Por eso, cuando una clave no tiene lugar y sus dos buckets están llenos de
+ * claves con su mismo hash, la clave va a un área de desborde (stash) al final
+ * de los arreglos, que se recorre secuencialmente, en lugar de agrandar la
+ * tabla. Las búsquedas solo revisan el stash si no está vacío.
+ *
+ * Igual que TSBHashTableDA, no admite claves ni valores null.
+ *
+ * @param <K> el tipo de los objetos que serán usados como clave en la tabla.
+ * @param <V> el tipo de los objetos que serán los valores de la tabla.
+ */
+public class TSBCuckooHashTable<K,V> extends AbstractMap<K,V> implements Cloneable, Serializable
+{
+    //************************ Constantes (privadas o públicas).
+
+    // cantidad de casilleros de cada bucket...
+    private final static int SLOTS = 4;
+
+    // la cantidad máxima de buckets (potencia de 2)...
+    private final static int MAX_BUCKETS = 1 << 28;
+
+    // cantidad máxima de desalojos antes de agrandar la tabla...
+    private final static int MAX_DESALOJOS = 500;
+
+
+    //************************ Atributos privados (estructurales).
+
+    // claves, valores y hash de cada casillero (el bucket b ocupa los
+    // casilleros b*SLOTS a b*SLOTS+3). Los casilleros que siguen al último
+    // bucket forman el stash. Un casillero libre tiene key null...
+    private Object []keys;
+    private Object []values;
+    private int []hashes;
+
+    // la cantidad de claves que están en el stash...
+    private int en_stash;
+
+    // la cantidad de buckets menos 1 (la cantidad es potencia de 2)...
+    private int mask;
+
+    // el tamaño inicial de la tabla (en buckets)...
+    private int initial_buckets;
+
+    // la cantidad de objetos que contiene la tabla...
+    private int count;
+
+    // el factor de carga para calcular si hace falta un rehashing...
+    private float load_factor;
+
+    // estado del generador usado para elegir qué clave desalojar...
+    private int semilla = 0x2545F491;
+
+    // la clave que quedó sin lugar cuando fallan los desalojos...
+    private transient Object sin_lugar_key;
+    private transient Object sin_lugar_value;
+    private transient int sin_lugar_hash;
+
+    private transient Set<Map.Entry<K,V>> entrySet = null;
+
+
+    //************************ Atributos protegidos (control de iteración).
+
+    // conteo de operaciones de cambio de tamaño (fail-fast iterator).
+    protected transient int modCount;
+
+
+    //************************ Constructores.
+
+    /**
+     * Crea una tabla vacía, con capacidad inicial para 16 objetos y factor de
+     * carga igual a 0.9f.
+     */
+    public TSBCuckooHashTable()
+    {
+        this(16, 0.9f);
+    }
+
+    /**
+     * Crea una tabla vacía, con la capacidad inicial indicada y con factor de
+     * carga igual a 0.9f.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     */
+    public TSBCuckooHashTable(int initial_capacity)
+    {
+        this(initial_capacity, 0.9f);
+    }
+
+    /**
+     * Crea una tabla vacía, con la capacidad inicial y el factor de carga
+     * indicados. La cantidad de buckets se ajusta a la potencia de 2 siguiente
+     * a initial_capacity / 4. Si el factor de carga indicado no está entre 0
+     * y 0.95, se ajustará a 0.9f (con 4 casilleros por bucket, la tabla puede
+     * llenarse hasta algo más del 95% antes de que los desalojos fallen).
+     * @param initial_capacity la capacidad inicial de la tabla.
+     * @param load_factor el factor de carga de la tabla.
+     */
+    public TSBCuckooHashTable(int initial_capacity, float load_factor)
+    {
+        if(load_factor <= 0 || load_factor > 0.95f) { load_factor = 0.9f; }
+        int buckets = 2;
+        while(buckets * SLOTS < initial_capacity && buckets < MAX_BUCKETS) { buckets <<= 1; }
+
+        this.initial_buckets = buckets;
+        this.load_factor = load_factor;
+        this.inicializar(buckets);
+        this.modCount = 0;
+    }
+
+    /**
+     * Crea una tabla a partir del contenido del Map especificado.
+     * @param t el Map a partir del cual se creará la tabla.
+     */
+    public TSBCuckooHashTable(Map<? extends K,? extends V> t)
+    {
+        this(t.size(), 0.9f);
+        this.putAll(t);
+    }
+
+
+    //************************ Implementación de métodos especificados por Map.
+
+    @Override
+    public int size()
+    {
+        return this.count;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return (this.count == 0);
+    }
+
+    /**
+     * Determina si la clave key está en la tabla.
+     * @param key la clave a verificar.
+     * @return true si la clave está en la tabla.
+     * @throws NullPointerException si la clave es null.
+     */
+    @Override
+    public boolean containsKey(Object key)
+    {
+        if(key == null) throw new NullPointerException("containsKey(): parámetro null");
+        return this.search_for_index(key, key.hashCode()) != -1;
+    }
+
+    /**
+     * Retorna el objeto al cual está asociada la clave key en la tabla, o null
+     * si la tabla no contiene ningún objeto asociado a esa clave. Revisa como
+     * máximo los dos buckets de la clave.
+     * @param key la clave que será buscada en la tabla.
+     * @return el objeto asociado a la clave especificada o null.
+     * @throws NullPointerException si key es null.
+     */
+    @Override
+    public V get(Object key)
+    {
+        if(key == null) throw new NullPointerException("get(): parámetro null");
+
+        int index = this.search_for_index(key, key.hashCode());
+        return (index != -1) ? (V) values[index] : null;
+    }
+
+    /**
+     * Asocia el valor (value) especificado, con la clave (key) especificada en
+     * esta tabla. Si la tabla contenía previamente un valor asociado para la
+     * clave, entonces el valor anterior es reemplazado por el nuevo.
+     * @param key la clave del objeto que se quiere agregar a la tabla.
+     * @param value el objeto que se quiere agregar a la tabla.
+     * @return el objeto anteriormente asociado a la clave, o null.
+     * @throws NullPointerException si key es null o value es null.
+     */
+    @Override
+    public V put(K key, V value)
+    {
+        if(key == null || value == null) throw new NullPointerException("put(): parámetro null");
+
+        int hash = key.hashCode();
+        int index = this.search_for_index(key, hash);
+        if(index != -1)
+        {
+            V old = (V) values[index];
+            values[index] = value;
+            return old;
+        }
+
+        if(count >= this.load_factor * this.capacity()) this.rehash();
+
+        // se ubica la clave, desalojando otras si hace falta. Si no se pudo,
+        // la última clave desalojada quedó sin lugar: se agranda la tabla y
+        // se la vuelve a intentar ubicar...
+        while(!this.insertar(key, value, hash))
+        {
+            key = (K) this.sin_lugar_key;
+            value = (V) this.sin_lugar_value;
+            hash = this.sin_lugar_hash;
+            this.rehash();
+        }
+        this.sin_lugar_key = null;
+        this.sin_lugar_value = null;
+
+        this.modCount++;
+        return null;
+    }
+
+    /**
+     * Elimina de la tabla la clave key (y su correspondiente valor asociado).
+     * @param key la clave a eliminar.
+     * @return El objeto al cual la clave estaba asociada, o null si la clave no
+     *         estaba en la tabla.
+     * @throws NullPointerException si la clave es null.
+     */
+    @Override
+    public V remove(Object key)
+    {
+        if(key == null) throw new NullPointerException("remove(): parámetro null");
+
+        int index = this.search_for_index(key, key.hashCode());
+        if(index == -1) { return null; }
+
+        V old = (V) values[index];
+        keys[index] = null;
+        values[index] = null;
+        this.count--;
+        this.modCount++;
+
+        if(index >= this.capacity()) { this.en_stash--; }
+        else if(this.en_stash > 0) { this.rescatar(index); }
+        return old;
+    }
+
+    /**
+     * Elimina todo el contenido de la tabla, de forma de dejarla vacía y con
+     * el tamaño que inicialmente tuvo al ser creada.
+     */
+    @Override
+    public void clear()
+    {
+        this.inicializar(this.initial_buckets);
+        this.modCount++;
+    }
+
+    @Override
+    public Set<Map.Entry<K,V>> entrySet()
+    {
+        if(entrySet == null)
+        {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+
+    //************************ Redefinición de métodos heredados desde Object.
+
+    /**
+     * Retorna una copia superficial de la tabla.
+     * @return una copia superficial de la tabla.
+     */
+    @Override
+    protected Object clone()
+    {
+        TSBCuckooHashTable<K,V> t = new TSBCuckooHashTable<>(this.capacity(), this.load_factor);
+        t.putAll(this);
+        return t;
+    }
+
+
+    //************************ Métodos específicos de la clase.
+
+    /**
+     * Retorna la cantidad de casilleros de los buckets (sin contar el stash).
+     * @return la capacidad actual de la tabla.
+     */
+    public int capacity()
+    {
+        return (this.mask + 1) * SLOTS;
+    }
+
+    /**
+     * Retorna la cantidad de claves que están en el stash.
+     * @return la cantidad de claves en el stash.
+     */
+    int stashed()
+    {
+        return this.en_stash;
+    }
+
+    /**
+     * Duplica la cantidad de buckets y vuelve a ubicar todas las claves
+     * (también las del stash, que pueden tener lugar en la tabla nueva). Se
+     * usa el hash guardado en cada casillero, sin volver a invocar hashCode().
+     * Si alguna clave no puede ubicarse, se vuelve a duplicar el tamaño.
+     */
+    protected void rehash()
+    {
+        Object []oldKeys = this.keys;
+        Object []oldValues = this.values;
+        int []oldHashes = this.hashes;
+        int buckets = this.mask + 1;
+
+        boolean ok = false;
+        while(!ok)
+        {
+            if(buckets >= MAX_BUCKETS)
+            {
+                throw new IllegalStateException("rehash(): la tabla alcanzó su tamaño máximo");
+            }
+            buckets <<= 1;
+            this.inicializar(buckets);
+
+            ok = true;
+            for(int i = 0; i < oldKeys.length && ok; i++)
+            {
+                if(oldKeys[i] != null)
+                {
+                    ok = this.insertar(oldKeys[i], oldValues[i], oldHashes[i]);
+                }
+            }
+        }
+        this.modCount++;
+    }
+
+
+    //************************ Métodos privados.
+
+    private void inicializar(int buckets)
+    {
+        this.keys = new Object[buckets * SLOTS];
+        this.values = new Object[buckets * SLOTS];
+        this.hashes = new int[buckets * SLOTS];
+        this.mask = buckets - 1;
+        this.count = 0;
+        this.en_stash = 0;
+    }
+
+    /**
+     * Busca la clave key en sus dos buckets (y en el stash, si tiene claves) y
+     * retorna el índice del casillero que la contiene, o -1 si la clave no
+     * está en la tabla.
+     */
+    private int search_for_index(Object key, int hash)
+    {
+        int i = this.buscar_en_bucket(h1(hash), key, hash);
+        if(i != -1) { return i; }
+        i = this.buscar_en_bucket(h2(hash), key, hash);
+        if(i != -1 || this.en_stash == 0) { return i; }
+
+        for(i = this.capacity(); i < keys.length; i++)
+        {
+            Object k = keys[i];
+            if(k != null && hashes[i] == hash && (k == key || k.equals(key))) { return i; }
+        }
+        return -1;
+    }
+
+    private int buscar_en_bucket(int b, Object key, int hash)
+    {
+        int base = b * SLOTS;
+        for(int i = base; i < base + SLOTS; i++)
+        {
+            Object k = keys[i];
+            if(k != null && hashes[i] == hash && (k == key || k.equals(key))) { return i; }
+        }
+        return -1;
+    }
+
+    private int libre_en_bucket(int b)
+    {
+        int base = b * SLOTS;
+        for(int i = base; i < base + SLOTS; i++)
+        {
+            if(keys[i] == null) { return i; }
+        }
+        return -1;
+    }
+
+    /**
+     * Ubica la clave (que no debe estar en la tabla) en alguno de sus buckets,
+     * desalojando otras claves hacia su bucket alternativo si hace falta. Si
+     * la clave que queda sin lugar colisiona con todas las de sus buckets (ver
+     * colisiona()), se la ubica en el stash.
+     * @return true si se pudo ubicar todo, o false si luego de MAX_DESALOJOS
+     *         movimientos quedó una clave sin lugar. En ese caso la clave que
+     *         quedó afuera (que no está contada en count) se guarda en los
+     *         atributos sin_lugar_*.
+     */
+    private boolean insertar(Object key, Object value, int hash)
+    {
+        int b = h1(hash);
+        int i = this.libre_en_bucket(b);
+        if(i == -1)
+        {
+            b = h2(hash);
+            i = this.libre_en_bucket(b);
+        }
+        if(i != -1)
+        {
+            this.ubicar(i, key, value, hash);
+            return true;
+        }
+        if(this.colisiona(hash))
+        {
+            this.al_stash(key, value, hash);
+            return true;
+        }
+
+        // los dos buckets están llenos: se desaloja una clave al azar del
+        // bucket actual y se la intenta ubicar en su bucket alternativo...
+        for(int n = 0; n < MAX_DESALOJOS; n++)
+        {
+            i = b * SLOTS + (this.aleatorio() & (SLOTS - 1));
+            Object k = keys[i];
+            Object v = values[i];
+            int hk = hashes[i];
+            keys[i] = key;
+            values[i] = value;
+            hashes[i] = hash;
+
+            key = k;
+            value = v;
+            hash = hk;
+            b = (b == h1(hash)) ? h2(hash) : h1(hash);
+            i = this.libre_en_bucket(b);
+            if(i != -1)
+            {
+                this.ubicar(i, key, value, hash);
+                return true;
+            }
+        }
+
+        if(this.colisiona(hash))
+        {
+            this.al_stash(key, value, hash);
+            return true;
+        }
+
+        this.sin_lugar_key = key;
+        this.sin_lugar_value = value;
+        this.sin_lugar_hash = hash;
+        return false;
+    }
+
+    /**
+     * Determina si los dos buckets del hash están llenos de claves con ese
+     * mismo hash. En ese caso agrandar la tabla no sirve: esas claves volverían
+     * a caer juntas en los mismos dos buckets.
+     */
+    private boolean colisiona(int hash)
+    {
+        int b1 = h1(hash) * SLOTS;
+        int b2 = h2(hash) * SLOTS;
+        for(int i = 0; i < SLOTS; i++)
+        {
+            if(keys[b1 + i] == null || hashes[b1 + i] != hash) { return false; }
+            if(keys[b2 + i] == null || hashes[b2 + i] != hash) { return false; }
+        }
+        return true;
+    }
+
+    /**
+     * Ubica la clave en un casillero libre del stash, agrandando los arreglos
+     * si el stash está lleno.
+     */
+    private void al_stash(Object key, Object value, int hash)
+    {
+        int i = this.capacity();
+        while(i < keys.length && keys[i] != null) { i++; }
+        if(i == keys.length)
+        {
+            int length = keys.length + Math.max(SLOTS, keys.length - this.capacity());
+            this.keys = Arrays.copyOf(keys, length);
+            this.values = Arrays.copyOf(values, length);
+            this.hashes = Arrays.copyOf(hashes, length);
+        }
+        this.ubicar(i, key, value, hash);
+        this.en_stash++;
+    }
+
+    /**
+     * Pasa al casillero libre index (de un bucket) alguna clave del stash a la
+     * que le corresponda ese bucket, si la hay.
+     */
+    private void rescatar(int index)
+    {
+        int b = index / SLOTS;
+        for(int i = this.capacity(); i < keys.length; i++)
+        {
+            if(keys[i] != null && (h1(hashes[i]) == b || h2(hashes[i]) == b))
+            {
+                keys[index] = keys[i];
+                values[index] = values[i];
+                hashes[index] = hashes[i];
+                keys[i] = null;
+                values[i] = null;
+                this.en_stash--;
+                return;
+            }
+        }
+    }
+
+    private void ubicar(int i, Object key, Object value, int hash)
+    {
+        keys[i] = key;
+        values[i] = value;
+        hashes[i] = hash;
+        this.count++;
+    }
+
+    // primera función hash: bucket a partir de los bits bajos mezclados...
+    private int h1(int hash)
+    {
+        int h = hash * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    // segunda función hash: independiente de la primera...
+    private int h2(int hash)
+    {
+        int h = hash * 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    // generador xorshift para elegir el casillero a desalojar...
+    private int aleatorio()
+    {
+        int x = semilla;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        semilla = x;
+        return x;
+    }
+
+
+    //************************ Clases Internas.
+
+    /**
+     * Clase interna que representa una vista de todos los PARES mapeados en la
+     * tabla. Las vistas de claves y valores que hereda de AbstractMap se
+     * apoyan en esta.
+     */
+    private class EntrySet extends AbstractSet<Map.Entry<K,V>>
+    {
+        @Override
+        public Iterator<Map.Entry<K,V>> iterator()
+        {
+            return new EntrySetIterator();
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+            if(!(o instanceof Map.Entry)) { return false; }
+            Map.Entry<?,?> entry = (Map.Entry<?,?>) o;
+            V value = TSBCuckooHashTable.this.get(entry.getKey());
+            return value != null && value.equals(entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o)
+        {
+            if(!this.contains(o)) { return false; }
+            TSBCuckooHashTable.this.remove(((Map.Entry<?,?>) o).getKey());
+            return true;
+        }
+
+        @Override
+        public int size()
+        {
+            return TSBCuckooHashTable.this.count;
+        }
+
+        @Override
+        public void clear()
+        {
+            TSBCuckooHashTable.this.clear();
+        }
+    }
+
+    private class EntrySetIterator implements Iterator<Map.Entry<K,V>>
+    {
+        // índice del siguiente casillero a revisar...
+        private int next_index;
+
+        // índice del casillero retornado por next() (-1 si no corresponde)...
+        private int current_index;
+
+        // el valor que debería tener el modCount de la tabla completa...
+        private int expected_modCount;
+
+        public EntrySetIterator()
+        {
+            next_index = 0;
+            current_index = -1;
+            expected_modCount = TSBCuckooHashTable.this.modCount;
+            this.avanzar();
+        }
+
+        // deja next_index en el siguiente casillero cerrado (o al final)...
+        private void avanzar()
+        {
+            Object []k = TSBCuckooHashTable.this.keys;
+            while(next_index < k.length && k[next_index] == null) { next_index++; }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return next_index < TSBCuckooHashTable.this.keys.length;
+        }
+
+        @Override
+        public Map.Entry<K,V> next()
+        {
+            if(TSBCuckooHashTable.this.modCount != expected_modCount)
+            {
+                throw new ConcurrentModificationException("next(): modificación inesperada de tabla...");
+            }
+            if(!hasNext())
+            {
+                throw new NoSuchElementException("next(): no existe el elemento pedido...");
+            }
+
+            current_index = next_index++;
+            this.avanzar();
+            return new Entry(current_index);
+        }
+
+        @Override
+        public void remove()
+        {
+            if(current_index == -1)
+            {
+                throw new IllegalStateException("remove(): debe invocar a next() antes de remove()...");
+            }
+            if(TSBCuckooHashTable.this.modCount != expected_modCount)
+            {
+                throw new ConcurrentModificationException("remove(): modificación inesperada de tabla...");
+            }
+
+            keys[current_index] = null;
+            values[current_index] = null;
+            if(current_index >= TSBCuckooHashTable.this.capacity()) { TSBCuckooHashTable.this.en_stash--; }
+            TSBCuckooHashTable.this.count--;
+            TSBCuckooHashTable.this.modCount++;
+            current_index = -1;
+            expected_modCount = TSBCuckooHashTable.this.modCount;
+        }
+    }
+
+    /**
+     * Par (key, value) retornado por el iterador: accede directamente al
+     * casillero de la tabla, por lo que setValue() modifica la tabla.
+     */
+    private class Entry implements Map.Entry<K,V>
+    {
+        private final int index;
+        private final K key;
+
+        public Entry(int index)
+        {
+            this.index = index;
+            this.key = (K) keys[index];
+        }
+
+        @Override
+        public K getKey()
+        {
+            return key;
+        }
+
+        @Override
+        public V getValue()
+        {
+            return (V) values[index];
+        }
+
+        @Override
+        public V setValue(V value)
+        {
+            if(value == null)
+            {
+                throw new IllegalArgumentException("setValue(): parámetro null...");
+            }
+            V old = (V) values[index];
+            values[index] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if(!(obj instanceof Map.Entry)) { return false; }
+            Map.Entry<?,?> other = (Map.Entry<?,?>) obj;
+            return key.equals(other.getKey()) && getValue().equals(other.getValue());
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return key.hashCode() ^ getValue().hashCode();
+        }
+
+        @Override
+        public String toString()
+        {
+            return "(" + key.toString() + " --> " + getValue().toString() + ")";
+        }
+    }
+}
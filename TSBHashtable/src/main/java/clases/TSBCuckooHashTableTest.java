@@ -0,0 +1,132 @@
+package clases;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TSBCuckooHashTableTest {
+
+    private TSBCuckooHashTable<String, Integer> table;
+
+    @Before
+    public void setup() {
+        table = new TSBCuckooHashTable<>();
+    }
+
+    @Test
+    public void whenTableIsFilledUpToItsLoadFactor_displacementsPlaceEveryKey() {
+        TSBCuckooHashTable<Integer, Integer> t = new TSBCuckooHashTable<>(1024);
+        for (int i = 0; i < 900; i++) {
+            t.put(i * 7919, i);
+        }
+        assertEquals(1024, t.capacity());
+        assertEquals(0, t.stashed());
+        for (int i = 0; i < 900; i++) {
+            assertEquals(Integer.valueOf(i), t.get(i * 7919));
+        }
+    }
+
+    @Test
+    public void whenMoreThanTwoBucketsOfKeysShareTheHashCode_theRestGoToTheStash() {
+        // "Aa" y "BB" tienen el mismo hashCode(): las 16 combinaciones de
+        // cuatro de ellos también...
+        List<String> claves = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            StringBuilder s = new StringBuilder();
+            for (int j = 0; j < 4; j++) {
+                s.append(((i >> j) & 1) == 0 ? "Aa" : "BB");
+            }
+            claves.add(s.toString());
+        }
+        for (int i = 0; i < claves.size(); i++) {
+            table.put(claves.get(i), i);
+        }
+        assertEquals(16, table.size());
+        assertEquals(8, table.stashed());
+        assertEquals(32, table.capacity());
+        for (int i = 0; i < claves.size(); i++) {
+            assertEquals(Integer.valueOf(i), table.get(claves.get(i)));
+        }
+        assertNull(table.get("AaAaAaAaAa"));
+
+        Set<String> recorridas = new HashSet<>(table.keySet());
+        assertEquals(new HashSet<>(claves), recorridas);
+    }
+
+    @Test
+    public void whenManyKeysShareTheHashCode_tableGrowsOnlyWithTheLoadFactor() {
+        TSBCuckooHashTable<Clave, Integer> t = new TSBCuckooHashTable<>();
+        for (int i = 0; i < 2000; i++) {
+            t.put(new Clave(i, 42), i);
+        }
+        assertEquals(2000, t.size());
+        assertTrue(t.capacity() <= 4096);
+        assertEquals(2000 - 8, t.stashed());
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(Integer.valueOf(i), t.get(new Clave(i, 42)));
+        }
+    }
+
+    @Test
+    public void whenKeyLeavesAFullBucket_aStashedKeyTakesItsPlace() {
+        TSBCuckooHashTable<Clave, Integer> t = new TSBCuckooHashTable<>();
+        for (int i = 0; i < 10; i++) {
+            t.put(new Clave(i, 42), i);
+        }
+        assertEquals(2, t.stashed());
+
+        // la primera clave quedó en un bucket: al eliminarla, una del stash
+        // pasa a ese casillero...
+        assertEquals(Integer.valueOf(0), t.remove(new Clave(0, 42)));
+        assertEquals(1, t.stashed());
+
+        // y una del stash se elimina del stash...
+        Iterator<Clave> it = t.keySet().iterator();
+        while (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+        assertTrue(t.isEmpty());
+        assertEquals(0, t.stashed());
+        assertNull(t.get(new Clave(9, 42)));
+    }
+
+    @Test
+    public void whenKeysAreRemoved_slotsAreFreedWithoutTombs() {
+        TSBCuckooHashTable<Integer, Integer> t = new TSBCuckooHashTable<>(64);
+        for (int vuelta = 0; vuelta < 100; vuelta++) {
+            for (int i = 0; i < 50; i++) {
+                t.put(vuelta * 1000 + i, i);
+            }
+            for (int i = 0; i < 50; i++) {
+                assertEquals(Integer.valueOf(i), t.remove(vuelta * 1000 + i));
+            }
+        }
+        assertTrue(t.isEmpty());
+        assertEquals(64, t.capacity());
+    }
+
+    // clave con hashCode elegido, distinta de las demás por su id...
+    private static class Clave {
+        private final int id;
+        private final int hash;
+
+        Clave(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Clave && ((Clave) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package clases;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TSBHashBagTest {
+
+    private TSBHashBag<String> bag;
+
+    @Before
+    public void setup() {
+        bag = new TSBHashBag<>();
+    }
+
+    @Test
+    public void whenElementsAreAddedInBulk_countsAndTotalAccumulate() {
+        assertEquals(1, bag.add("Sputnik"));
+        assertEquals(4, bag.add("Sputnik", 3));
+        assertEquals(7, bag.add("Sinopharm", 7));
+
+        // sumar 0 no agrega el elemento...
+        assertEquals(0, bag.add("Moderna", 0));
+        assertEquals(4, bag.add("Sputnik", 0));
+        assertEquals(0, bag.count("Moderna"));
+        assertEquals(2, bag.distinct());
+        assertEquals(11, bag.size());
+    }
+
+    @Test
+    public void whenCountIsSetToZero_elementLeavesTheBag() {
+        bag.add("M", 5);
+        bag.add("F", 2);
+        assertEquals(5, bag.setCount("M", 8));
+        assertEquals(10, bag.size());
+
+        assertEquals(8, bag.setCount("M", 0));
+        assertEquals(0, bag.count("M"));
+        assertEquals(1, bag.distinct());
+        assertEquals(2, bag.size());
+        for (TSBHashBag.Entry<String> e : bag) {
+            assertEquals("F", e.getElement());
+        }
+
+        // fijar en 0 un elemento que no está no cambia nada...
+        assertEquals(0, bag.setCount("X", 0));
+        assertEquals(1, bag.distinct());
+        assertEquals(2, bag.size());
+    }
+
+    @Test
+    public void whenCountsExceedIntRange_sizeKeepsTheTotal() {
+        bag.setCount("a", Integer.MAX_VALUE);
+        bag.setCount("b", Integer.MAX_VALUE);
+        bag.add("c", 2);
+        assertEquals(2L * Integer.MAX_VALUE + 2, bag.size());
+
+        // addAll() suma cuenta por cuenta, y clear() vuelve el total a 0...
+        TSBHashBag<String> otro = new TSBHashBag<>();
+        otro.add("c", 3);
+        otro.add("d", 4);
+        bag.addAll(otro);
+        assertEquals(5, bag.count("c"));
+        assertEquals(2L * Integer.MAX_VALUE + 9, bag.size());
+        bag.clear();
+        assertEquals(0, bag.size());
+        assertEquals(0, bag.distinct());
+    }
+
+    @Test
+    public void whenTopKIsRequested_countsComeInDescendingOrder() {
+        bag.add("a", 5);
+        bag.add("b", 3);
+        bag.add("c", 9);
+        bag.add("d", 3);
+        bag.add("e", 1);
+
+        assertEquals(Arrays.asList(9, 5, 3, 3, 1), cuentas(bag.topK(10)));
+        assertEquals(Arrays.asList(9, 5), cuentas(bag.topK(2)));
+        assertEquals("c", bag.topK(1).get(0).getElement());
+        assertTrue(bag.topK(0).isEmpty());
+
+        // b y d empatan en el tercer lugar: entra uno de los dos...
+        List<TSBHashBag.Entry<String>> top = bag.topK(3);
+        assertEquals(Arrays.asList(9, 5, 3), cuentas(top));
+        String tercero = top.get(2).getElement();
+        assertTrue(tercero.equals("b") || tercero.equals("d"));
+
+        // con lugar para los dos, entran ambos...
+        Set<String> cuatro = new HashSet<>();
+        for (TSBHashBag.Entry<String> e : bag.topK(4)) {
+            cuatro.add(e.getElement());
+        }
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "c", "d")), cuatro);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenTopKCalledWithNegativeK_throwException() {
+        bag.topK(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenAddCalledWithNegativeCount_throwException() {
+        bag.add("a", -1);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void whenEntriesAreModified_throwException() {
+        bag.add("a");
+        bag.entries().clear();
+    }
+
+    private static List<Integer> cuentas(List<TSBHashBag.Entry<String>> entries) {
+        List<Integer> cuentas = new ArrayList<>();
+        for (TSBHashBag.Entry<String> e : entries) {
+            cuentas.add(e.getCount());
+        }
+        return cuentas;
+    }
+}
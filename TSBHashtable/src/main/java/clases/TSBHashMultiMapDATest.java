@@ -0,0 +1,150 @@
+package clases;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TSBHashMultiMapDATest {
+
+    private TSBHashMultiMapDA<String, Integer> multimap;
+
+    @Before
+    public void setup() {
+        multimap = new TSBHashMultiMapDA<>();
+    }
+
+    @Test
+    public void whenGroupGrowsPastItsInitialArray_valuesKeepTheirOrder() {
+        // el grupo empieza con 4 casilleros: con 10 valores se duplica dos
+        // veces, intercalado con los agregados de otra clave...
+        List<Integer> esperado = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            multimap.putValue("a", i);
+            esperado.add(i);
+            if (i % 3 == 0) multimap.putValue("b", -i);
+        }
+        multimap.putValue("a", 3); // un valor repetido también se agrega
+        esperado.add(3);
+
+        assertEquals(esperado, multimap.get("a"));
+        assertEquals(11, multimap.countFor("a"));
+        assertEquals(Arrays.asList(0, -3, -6, -9), multimap.get("b"));
+        assertEquals(15, multimap.size());
+        assertEquals(2, multimap.keyCount());
+    }
+
+    @Test
+    public void whenValuesAreAddedAfterGet_theViewReflectsThem() {
+        multimap.putValue("a", 1);
+        multimap.putValue("a", 2);
+        List<Integer> vista = multimap.get("a");
+        List<Integer> ausente = multimap.get("z");
+
+        // del 3 al 6 el grupo reemplaza su arreglo: la vista lee el nuevo...
+        for (int i = 3; i <= 6; i++) {
+            multimap.putValue("a", i);
+        }
+        multimap.putValue("z", 26);
+        assertEquals(6, vista.size());
+        assertEquals(Integer.valueOf(6), vista.get(5));
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), vista);
+
+        // la lista vacía de una clave que no estaba no cambia...
+        assertTrue(ausente.isEmpty());
+        assertEquals(Collections.singletonList(26), multimap.get("z"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void whenViewIsModified_throwException() {
+        multimap.putValue("a", 1);
+        multimap.get("a").add(2);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void whenViewIsReadPastItsSize_throwException() {
+        // el arreglo del grupo tiene 4 casilleros, pero solo 1 valor...
+        multimap.putValue("a", 1);
+        multimap.get("a").get(1);
+    }
+
+    @Test
+    public void whenKeyIsRemoved_sizeDropsByItsValues() {
+        for (int i = 0; i < 7; i++) {
+            multimap.putValue("a", i);
+        }
+        multimap.putValue("b", 1);
+        multimap.putValue("b", 2);
+        assertEquals(9, multimap.size());
+
+        assertEquals(7, multimap.removeAll("a"));
+        assertEquals(2, multimap.size());
+        assertEquals(1, multimap.keyCount());
+        assertFalse(multimap.containsKey("a"));
+        assertEquals(0, multimap.countFor("a"));
+        assertTrue(multimap.get("a").isEmpty());
+        assertEquals(0, multimap.removeAll("a"));
+        assertEquals(2, multimap.size());
+
+        // la clave vuelve con un grupo nuevo...
+        multimap.putValue("a", 10);
+        assertEquals(Collections.singletonList(10), multimap.get("a"));
+        assertEquals(3, multimap.size());
+
+        assertEquals(2, multimap.removeAll("b"));
+        assertEquals(1, multimap.removeAll("a"));
+        assertTrue(multimap.isEmpty());
+        assertEquals(0, multimap.keyCount());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void whenKeyIsRemovedThroughKeySet_throwException() {
+        // quitar la clave desde la vista no descontaría sus valores de size()...
+        multimap.putValue("a", 1);
+        multimap.keySet().remove("a");
+    }
+
+    @Test
+    public void whenKeysAreRemoved_valuesSkipTheirGroups() {
+        multimap.putValue("a", 1);
+        multimap.putValue("b", 2);
+        multimap.putValue("b", 3);
+        multimap.putValue("c", 4);
+        multimap.putValue("d", 5);
+        multimap.putValue("d", 6);
+        multimap.removeAll("b");
+        multimap.removeAll("c");
+
+        // los grupos quitados dejan huecos en el índice que el recorrido saltea...
+        Collection<Integer> valores = multimap.values();
+        assertEquals(3, valores.size());
+        assertEquals(Arrays.asList(1, 5, 6), new ArrayList<>(valores));
+
+        Iterator<Integer> it = valores.iterator();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(it.hasNext());
+            it.next();
+        }
+        assertFalse(it.hasNext());
+
+        multimap.removeAll("a");
+        multimap.removeAll("d");
+        assertEquals(0, valores.size());
+        assertFalse(valores.iterator().hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void whenValuesIteratorIsExhausted_throwException() {
+        multimap.putValue("a", 1);
+        Iterator<Integer> it = multimap.values().iterator();
+        it.next();
+        it.next();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenPutValueCalledWithNullValue_throwException() {
+        multimap.putValue("a", null);
+    }
+}
@@ -4,7 +4,18 @@ import org.junit.Before;
 import org.junit.Test;
 import clases.TSBHashTableDA;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -267,6 +278,650 @@ public class TSBHashTableDATest {
         assertFalse(table.values().contains(42));
     }
 
+    @Test
+    public void whenRehashed_allEntriesAreKept() {
+        String[] keys = new String[200];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "k" + i;
+            table.put(keys[i], i);
+        }
+        assertEquals(keys.length, table.size());
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(Integer.valueOf(i), table.get(keys[i]));
+        }
+    }
+
+    @Test
+    public void whenRehashedInParallel_allEntriesAreKept() throws Exception {
+        // con el umbral bajo, cada rehash desde un hilo del pool (de 4 hilos)
+        // reubica los entries en paralelo, en tramos que se disputan los
+        // casilleros del arreglo nuevo...
+        int umbral = TSBHashTableDA.umbral_paralelo;
+        ForkJoinPool pool = new ForkJoinPool(4);
+        TSBHashTableDA.umbral_paralelo = 1000;
+        try {
+            Map<String, Integer> esperado = new HashMap<>();
+            pool.submit(() -> {
+                for (int i = 0; i < 300000; i++) {
+                    table.put("k" + i, i);
+                    esperado.put("k" + i, i);
+                    // cada tanto se elimina una clave, para que haya tumbas...
+                    if (i % 7 == 0) {
+                        table.remove("k" + (i / 2));
+                        esperado.remove("k" + (i / 2));
+                    }
+                }
+            }).get();
+
+            assertTrue(table.capacity() > (1 << 17));
+            assertEquals(esperado.size(), table.size());
+            for (Map.Entry<String, Integer> e : esperado.entrySet()) {
+                assertEquals(e.getValue(), table.get(e.getKey()));
+            }
+            int recorridas = 0;
+            for (String key : table.keySet()) {
+                assertTrue(esperado.containsKey(key));
+                recorridas++;
+            }
+            assertEquals(esperado.size(), recorridas);
+        } finally {
+            TSBHashTableDA.umbral_paralelo = umbral;
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void whenTombIsReused_keyAndSizeAreUpdated() {
+        addTestData();
+        table.remove("a");
+        table.put("z", 26);
+        assertEquals(5, table.size());
+        assertNull(table.get("a"));
+        assertEquals(Integer.valueOf(26), table.get("z"));
+    }
+
+    @Test
+    public void testFreeze() {
+        addTestData();
+        table.put("Aa", 6);
+        table.put("BB", 7); // mismo hashCode() que "Aa"
+        Map<String, Integer> frozen = table.freeze();
+        assertEquals(table.size(), frozen.size());
+        for (String key : table.keySet()) {
+            assertEquals(table.get(key), frozen.get(key));
+        }
+        assertEquals(Integer.valueOf(6), frozen.get("Aa"));
+        assertEquals(Integer.valueOf(7), frozen.get("BB"));
+        assertNull(frozen.get("z"));
+        table.put("z", 26);
+        assertNull(frozen.get("z"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void whenFrozenTableIsModified_throwException() {
+        addTestData();
+        table.freeze().put("z", 26);
+    }
+
+    @Test
+    public void whenFrozenKeysShareHashCodes_extrasAreFoundAndIterated() {
+        // las 16 combinaciones de cuatro bloques "Aa" / "BB" tienen el mismo
+        // hashCode(): una queda en la función hash perfecta y las demás van al
+        // arreglo de extras. La última no se agrega y se busca como ausente...
+        List<String> repetidas = new ArrayList<>();
+        for (int m = 0; m < 16; m++) {
+            StringBuilder sb = new StringBuilder();
+            for (int b = 0; b < 4; b++) {
+                sb.append(((m >> b) & 1) == 0 ? "Aa" : "BB");
+            }
+            repetidas.add(sb.toString());
+        }
+        Map<String, Integer> esperado = new HashMap<>();
+        for (int i = 0; i < 15; i++) {
+            esperado.put(repetidas.get(i), i);
+        }
+        for (int i = 0; i < 100; i++) {
+            esperado.put("k" + i, 100 + i);
+        }
+        table.putAll(esperado);
+
+        Map<String, Integer> frozen = table.freeze();
+        assertEquals(esperado.size(), frozen.size());
+        for (Map.Entry<String, Integer> e : esperado.entrySet()) {
+            assertEquals(e.getValue(), frozen.get(e.getKey()));
+        }
+        assertNull(frozen.get(repetidas.get(15)));
+        assertFalse(frozen.containsKey(repetidas.get(15)));
+
+        // el recorrido saltea los casilleros que quedaron vacíos y retorna
+        // cada extra una sola vez...
+        Map<String, Integer> recorrido = new HashMap<>();
+        int pares = 0;
+        for (Map.Entry<String, Integer> e : frozen.entrySet()) {
+            recorrido.put(e.getKey(), e.getValue());
+            pares++;
+        }
+        assertEquals(esperado.size(), pares);
+        assertEquals(esperado, recorrido);
+    }
+
+    @Test
+    public void whenKeysAreRemovedAndAdded_tombsArePurged() {
+        for (int i = 0; i < 100000; i++) {
+            String key = "k" + i;
+            table.put(key, i);
+            table.remove(key);
+        }
+        assertTrue(table.isEmpty());
+        table.put("a", 1);
+        assertEquals(Integer.valueOf(1), table.get("a"));
+        assertNull(table.get("k0"));
+    }
+
+    @Test
+    public void whenKeysAreRemovedThroughViews_sizeIsDecrementedOnce() {
+        for (int i = 0; i < 100; i++) {
+            table.put("k" + i, i);
+        }
+
+        // cada remove() de un iterador descuenta un solo par, y el iterador
+        // sigue siendo válido para los next() siguientes...
+        int quitados = 0;
+        Iterator<String> claves = table.keySet().iterator();
+        while (claves.hasNext()) {
+            if (Integer.parseInt(claves.next().substring(1)) % 2 == 0) {
+                claves.remove();
+                quitados++;
+            }
+        }
+        assertEquals(100 - quitados, table.size());
+
+        Iterator<Integer> valores = table.values().iterator();
+        while (valores.hasNext()) {
+            if (valores.next() % 3 == 0) {
+                valores.remove();
+                quitados++;
+            }
+        }
+        assertEquals(100 - quitados, table.size());
+
+        // lo mismo al quitar un par a través de la vista entrySet()...
+        Map.Entry<String, Integer> par = table.entrySet().iterator().next();
+        String clave = par.getKey();
+        assertTrue(table.entrySet().remove(par));
+        assertEquals(100 - quitados - 1, table.size());
+        assertNull(table.get(clave));
+    }
+
+    @Test
+    public void whenChurnLeavesMostlyTombs_rehashKeepsTheSizeAndPurgesThem() {
+        // tabla de 11 casilleros con factor 0.5: dos claves vivas y muchas
+        // tumbas nunca justifican duplicarla...
+        table.put("a", 1);
+        table.put("b", 2);
+        for (int i = 0; i < 10000; i++) {
+            table.put("k" + i, i);
+            assertEquals(Integer.valueOf(i), table.remove("k" + i));
+            assertTrue(table.size() + table.tombstones() <= table.capacity() / 2 + 1);
+        }
+        assertEquals(11, table.capacity());
+        assertEquals(2, table.size());
+        assertEquals(Integer.valueOf(1), table.get("a"));
+        assertEquals(Integer.valueOf(2), table.get("b"));
+        assertNull(table.get("k0"));
+    }
+
+    @Test
+    public void whenIterated_allKeysAndValuesAreVisited() {
+        for (int i = 0; i < 1000; i++) {
+            table.put("k" + i, i);
+        }
+        int keys = 0, values = 0;
+        for (String key : table.keySet()) keys++;
+        for (Integer value : table.values()) values++;
+        assertEquals(1000, keys);
+        assertEquals(1000, values);
+    }
+
+    @Test
+    public void whenEntryIsInSlotZero_keySetAndValuesReturnIt() {
+        // el hashCode de Integer 0 es 0: la entrada queda en el casillero 0...
+        TSBHashTableDA<Integer, String> tabla = new TSBHashTableDA<>();
+        tabla.put(0, "cero");
+        tabla.put(5, "cinco");
+        assertEquals(new HashSet<>(Arrays.asList(0, 5)), new HashSet<>(tabla.keySet()));
+        assertEquals(new HashSet<>(Arrays.asList("cero", "cinco")), new HashSet<>(tabla.values()));
+
+        Iterator<Integer> it = tabla.keySet().iterator();
+        assertTrue(it.hasNext());
+        assertEquals(Integer.valueOf(0), it.next());
+        it.remove();
+        assertNull(tabla.get(0));
+        assertEquals(1, tabla.size());
+    }
+
+    @Test
+    public void whenBloomFilterIsEnabled_lookupsAreUnchanged() {
+        table.setBloomFilter(true);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String key = "k" + i;
+            keys.add(key);
+            table.put(key, i);
+        }
+        table.remove(keys.get(7));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i == 7 ? null : Integer.valueOf(i), table.get(keys.get(i)));
+        }
+        assertFalse(table.containsKey("z"));
+        table.clear();
+        assertFalse(table.containsKey(keys.get(0)));
+        table.put("a", 1);
+        assertTrue(table.containsKey("a"));
+    }
+
+    @Test
+    public void whenEqualKeyIsInterned_existingInstanceIsReturned() {
+        String first = new String("abc");
+        assertSame(first, table.intern(first, 1));
+        assertSame(first, table.intern(new String("abc"), 2));
+        assertEquals(1, table.size());
+        assertEquals(Integer.valueOf(1), table.get(first));
+    }
+
+    @Test
+    public void testBatchPutAndGet() {
+        String[] keys = new String[1000];
+        Integer[] values = new Integer[1000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "k" + i;
+            values[i] = i;
+        }
+        table.putAll(keys, values);
+        assertEquals(1000, table.size());
+
+        String[] query = {keys[5], "z", keys[999], keys[0]};
+        Integer[] out = new Integer[query.length];
+        assertEquals(3, table.getAll(query, out));
+        assertArrayEquals(new Integer[]{5, null, 999, 0}, out);
+    }
+
+    @Test
+    public void whenAdaptiveLoadFactorIsOn_itStaysInBoundsAndKeysAreKept() {
+        table.setAdaptiveLoadFactor(0.3f, 0.5f, 1.5f);
+        String[] keys = new String[5000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "k" + i;
+            table.put(keys[i], i);
+        }
+        assertTrue(table.getLoadFactor() >= 0.3f && table.getLoadFactor() <= 0.5f);
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(Integer.valueOf(i), table.get(keys[i]));
+        }
+    }
+
+    @Test
+    public void whenLookupsMissOnLongChains_adaptiveLoadFactorGoesDown() {
+        // 8 de las 32 combinaciones de cinco "Aa"/"BB" (todas con el mismo
+        // hashCode()) forman una cadena de 8 casilleros...
+        List<String> colisionan = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            StringBuilder s = new StringBuilder();
+            for (int j = 0; j < 5; j++) {
+                s.append(((i >> j) & 1) == 0 ? "Aa" : "BB");
+            }
+            colisionan.add(s.toString());
+        }
+        for (int i = 0; i < 8; i++) {
+            table.put(colisionan.get(i), i);
+        }
+        table.setAdaptiveLoadFactor(0.25f, 0.5f, 2f);
+        float inicial = table.getLoadFactor();
+
+        // las búsquedas exitosas no se miden...
+        for (int i = 0; i < 64; i++) {
+            assertEquals(Integer.valueOf(i % 8), table.get(colisionan.get(i % 8)));
+        }
+        assertEquals(inicial, table.getLoadFactor(), 0f);
+
+        // las fallidas recorren toda la cadena, sin que haya inserciones...
+        for (int i = 0; i < 64; i++) {
+            assertNull(table.get(colisionan.get(8 + i % 24)));
+        }
+        assertTrue(table.getLoadFactor() < inicial);
+        assertEquals(8, table.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenAdaptiveLoadFactorIsAboveHalf_throwException() {
+        table.setAdaptiveLoadFactor(0.3f, 0.8f, 2f);
+    }
+
+    @Test
+    public void whenRegisteredAsMBean_metricsAreVisible() throws Exception {
+        addTestData();
+        table.registerMBean("test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("TSBHashTableDA", "name", ObjectName.quote("test"));
+        assertEquals(5, server.getAttribute(name, "Size"));
+        assertTrue((Integer) server.getAttribute(name, "Capacity") >= 10);
+        table.unregisterMBean();
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    public void whenAnotherTableTakesTheMBeanName_oldTableDoesNotUnregisterIt() throws Exception {
+        addTestData();
+        TSBHashTableDA<String, Integer> nueva = new TSBHashTableDA<>();
+        nueva.put("x", 1);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("TSBHashTableDA", "name", ObjectName.quote("compartido"));
+
+        // la tabla nueva reemplaza a la vieja con el mismo nombre...
+        table.registerMBean("compartido");
+        nueva.registerMBean("compartido");
+        assertEquals(1, server.getAttribute(name, "Size"));
+
+        // ...y la vieja ya no es dueña de ese registro: no lo quita...
+        table.unregisterMBean();
+        assertTrue(server.isRegistered(name));
+        assertEquals(1, server.getAttribute(name, "Size"));
+
+        // si una consola JMX quita el registro, la tabla también lo olvida...
+        server.unregisterMBean(name);
+        table.registerMBean("compartido");
+        nueva.unregisterMBean();
+        assertTrue(server.isRegistered(name));
+        assertEquals(5, server.getAttribute(name, "Size"));
+        table.unregisterMBean();
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    public void whenWalkedWithForEachAndCursor_allPairsAreVisited() {
+        addTestData();
+        int[] sum = {0};
+        table.forEach((k, v) -> sum[0] += v);
+        assertEquals(15, sum[0]);
+
+        table.replaceAll((k, v) -> v * 10);
+        assertEquals(Integer.valueOf(30), table.get("c"));
+
+        TSBHashTableDA<String, Integer>.MapCursor cursor = table.cursor();
+        int count = 0;
+        while (cursor.advance()) {
+            cursor.setValue(cursor.value() + 1);
+            count++;
+        }
+        assertEquals(5, count);
+        assertEquals(Integer.valueOf(31), table.get("c"));
+    }
+
+    @Test
+    public void whenTableUsesCaseInsensitiveStrategy_keysDifferingInCaseAreTheSame() {
+        TSBHashTableDA<String, Integer> tabla = new TSBHashTableDA<>(HashingStrategy.caseInsensitive());
+        tabla.put("Pfizer", 1);
+        assertEquals(Integer.valueOf(1), tabla.put("PFIZER", 2));
+        assertEquals(1, tabla.size());
+        assertEquals(Integer.valueOf(2), tabla.get("pfizer"));
+        assertTrue(tabla.containsKey("pFiZeR"));
+        assertEquals(Integer.valueOf(2), ((TSBHashTableDA<String, Integer>) tabla.clone()).get("PfIzEr"));
+        assertEquals(Integer.valueOf(2), tabla.remove("pfizer"));
+        assertTrue(tabla.isEmpty());
+    }
+
+    @Test
+    public void whenTableUsesByteArrayStrategy_keysAreComparedByContent() {
+        TSBHashTableDA<byte[], String> tabla = new TSBHashTableDA<>(HashingStrategy.byteArray());
+        tabla.put(new byte[] {1, 2, 3}, "a");
+        assertEquals("a", tabla.get(new byte[] {1, 2, 3}));
+        assertNull(tabla.get(new byte[] {1, 2}));
+    }
+
+    @Test
+    public void whenKeyIsEqualButNotTheSameInstance_itIsFound() {
+        TSBHashTableDA<String, Integer> tabla = new TSBHashTableDA<>();
+        tabla.put(new String("clave"), 1);
+        assertEquals(Integer.valueOf(1), tabla.get(new String("clave")));
+        assertEquals(Integer.valueOf(1), tabla.put(new String("clave"), 2));
+        assertEquals(1, tabla.size());
+    }
+
+    @Test
+    public void whenMostKeysAreRemoved_tableShrinksAndKeepsTheRest() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            String key = "k" + i;
+            keys.add(key);
+            table.put(key, i);
+        }
+        for (int i = 0; i < 10000; i++) {
+            if (i % 100 != 0) table.remove(keys.get(i));
+        }
+        assertEquals(100, table.size());
+        for (int i = 0; i < 10000; i += 100) {
+            assertEquals(Integer.valueOf(i), table.get(keys.get(i)));
+        }
+        table.trimToSize();
+        assertEquals(100, table.size());
+        assertEquals(Integer.valueOf(0), table.get(keys.get(0)));
+    }
+
+    @Test
+    public void whenEntryExpires_itIsNoLongerFound() throws InterruptedException {
+        addTestData();
+        table.put("z", 26, 1, TimeUnit.NANOSECONDS);
+        table.setTimeToLive(1, TimeUnit.NANOSECONDS);
+        table.put("a", 10);
+        Thread.sleep(5);
+        assertNull(table.get("z"));
+        assertFalse(table.containsKey("a"));
+        assertEquals(Integer.valueOf(2), table.get("b"));
+        assertEquals(0, table.removeExpired());
+        assertEquals(4, table.size());
+    }
+
+    @Test
+    public void whenExpiredEntriesAreOnTheProbeChain_lookupTurnsThemIntoTombs() throws InterruptedException {
+        // "Aa" y "BB" tienen el mismo hashCode(): las 32 combinaciones de
+        // cinco de ellos forman una sola cadena de exploración...
+        List<String> colisionan = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            StringBuilder s = new StringBuilder();
+            for (int j = 0; j < 5; j++) {
+                s.append(((i >> j) & 1) == 0 ? "Aa" : "BB");
+            }
+            colisionan.add(s.toString());
+        }
+        for (int i = 0; i < 31; i++) {
+            table.put(colisionan.get(i), i, 200, TimeUnit.MILLISECONDS);
+        }
+        Thread.sleep(250);
+
+        // buscar la que falta recorre la cadena y vence todas las demás...
+        assertNull(table.get(colisionan.get(31)));
+        assertEquals(0, table.size());
+        assertEquals(31, table.tombstones());
+    }
+
+    @Test
+    public void whenTableChangesAfterSnapshot_snapshotIsKept() {
+        addTestData();
+        Map<String, Integer> snapshot = table.snapshot();
+        table.put("a", 10);
+        table.remove("b");
+        table.put("z", 26);
+        for (Map.Entry<String, Integer> entry : table.entrySet()) {
+            if (entry.getKey().equals("c")) entry.setValue(30);
+        }
+        Map<String, Integer> expected = new HashMap<>();
+        addTestData(expected);
+        assertEquals(expected, snapshot);
+        assertEquals(Integer.valueOf(10), table.get("a"));
+        assertNull(table.get("b"));
+        assertEquals(Integer.valueOf(30), table.get("c"));
+        assertEquals(5, table.size());
+    }
+
+    @Test
+    public void whenTableChangesAfterSnapshot_onlyTheWrittenChunksAreCopied() {
+        for (int i = 0; i < 3000; i++) {
+            table.put("k" + i, i);
+        }
+        Map<String, Integer> expected = new HashMap<>(table);
+        // el arreglo se copia para los snapshots en tramos de 1024 casilleros...
+        long tramos = (table.capacity() + 1023) / 1024;
+        assertTrue(tramos > 2);
+
+        // crear el snapshot no copia nada, y cambiar un valor copia un solo
+        // tramo; volver a cambiarlo ya no copia...
+        Map<String, Integer> primero = table.snapshot();
+        assertEquals(0, table.tramosCopiados());
+        table.put("k5", -5);
+        assertEquals(1, table.tramosCopiados());
+        table.put("k5", -6);
+        table.remove("k5");
+        assertEquals(1, table.tramosCopiados());
+
+        // cambiar todos los valores copia cada tramo una sola vez...
+        table.replaceAll((k, v) -> v + 1);
+        assertEquals(tramos, table.tramosCopiados());
+        assertEquals(expected, primero);
+
+        // un snapshot nuevo solo necesita sus propias copias...
+        Map<String, Integer> segundo = table.snapshot();
+        table.put("k7", 0);
+        assertEquals(tramos + 1, table.tramosCopiados());
+        assertEquals(Integer.valueOf(8), segundo.get("k7"));
+        assertNull(segundo.get("k5"));
+        assertEquals(2999, segundo.size());
+        assertEquals(Integer.valueOf(7), primero.get("k7"));
+
+        // clear() arma un arreglo nuevo: no copia nada y los snapshots siguen igual...
+        table.clear();
+        table.put("k7", 1);
+        assertEquals(tramos + 1, table.tramosCopiados());
+        assertEquals(expected, primero);
+        assertEquals(Integer.valueOf(8), segundo.get("k7"));
+    }
+
+    @Test
+    public void whenSnapshotIsReadWhileTableChanges_readerSeesItsOwnVersion() throws Exception {
+        for (int i = 0; i < 5000; i++) {
+            table.put("k" + i, 1);
+        }
+        Map<String, Integer> snapshot = table.snapshot();
+
+        // otro hilo recorre el snapshot mientras este modifica la tabla...
+        List<Throwable> errores = Collections.synchronizedList(new ArrayList<>());
+        Thread lector = new Thread(() -> {
+            try {
+                for (int vuelta = 0; vuelta < 20; vuelta++) {
+                    int suma = 0;
+                    for (Map.Entry<String, Integer> e : snapshot.entrySet()) {
+                        suma += e.getValue();
+                    }
+                    assertEquals(5000, suma);
+                    for (int i = 0; i < 5000; i += 7) {
+                        assertEquals(Integer.valueOf(1), snapshot.get("k" + i));
+                    }
+                }
+            } catch (Throwable t) {
+                errores.add(t);
+            }
+        });
+        lector.start();
+        for (int vuelta = 2; vuelta < 40; vuelta++) {
+            for (int i = 0; i < 5000; i += 3) {
+                table.put("k" + i, vuelta);
+                table.remove("k" + (i + 1));
+                table.put("k" + (i + 1), vuelta);
+            }
+        }
+        lector.join();
+        assertTrue(errores.toString(), errores.isEmpty());
+        assertEquals(5000, snapshot.size());
+    }
+
+
+    @Test
+    public void whenTableIsRehashed_rehashAndPurgeEventsAreRecorded() throws Exception {
+        List<RecordedEvent> eventos = grabar(() -> {
+            TSBHashTableDA<String, Integer> t = new TSBHashTableDA<>(11);
+            for (int i = 0; i < 6; i++) {
+                t.put("k" + i, i);
+            }
+            t.put("k6", 6);         // supera el factor de carga: la tabla crece...
+            t.remove("k0");
+            t.rehash();             // ...y el rehash forzado elimina la tumba.
+        });
+
+        List<RecordedEvent> rehash = filtrar(eventos, "TSBHashTableDA.Rehash");
+        assertEquals(2, rehash.size());
+        assertEquals(11, rehash.get(0).getInt("capacidadAnterior"));
+        assertTrue(rehash.get(0).getInt("capacidadNueva") > 11);
+        assertEquals(6, rehash.get(0).getInt("entriesMovidos"));
+        assertFalse(rehash.get(0).getBoolean("paralelo"));
+        assertEquals(6, rehash.get(1).getInt("entriesMovidos"));
+
+        List<RecordedEvent> purgas = filtrar(eventos, "TSBHashTableDA.TombstonePurge");
+        assertEquals(1, purgas.size());
+        assertEquals(1, purgas.get(0).getInt("tumbas"));
+    }
+
+    @Test
+    public void whenLongProbeThresholdIsOne_everyCollisionIsRecorded() throws Exception {
+        // "Aa" y "BB" tienen el mismo hashCode(): buscar la segunda recorre dos
+        // casilleros...
+        List<RecordedEvent> eventos;
+        TSBHashTableDA.setLongProbeThreshold(1);
+        try {
+            eventos = grabar(() -> {
+                table.put("Aa", 1);
+                table.put("BB", 2);
+                table.get("BB");
+                table.get("Aa");
+            });
+        } finally {
+            TSBHashTableDA.setLongProbeThreshold(32);
+        }
+
+        List<RecordedEvent> largas = filtrar(eventos, "TSBHashTableDA.LongProbe");
+        assertEquals(2, largas.size());  // el put y el get de "BB"
+        for (RecordedEvent e : largas) {
+            assertEquals("Aa".hashCode(), e.getInt("hash"));
+            assertEquals(2, e.getInt("sondeos"));
+        }
+    }
+
+    // ejecuta la acción con una grabación JFR activa y retorna sus eventos...
+    private static List<RecordedEvent> grabar(Runnable accion) throws Exception {
+        Path archivo = Files.createTempFile("tsbhashtable", ".jfr");
+        try (Recording grabacion = new Recording()) {
+            grabacion.enable("TSBHashTableDA.Rehash");
+            grabacion.enable("TSBHashTableDA.LongProbe");
+            grabacion.enable("TSBHashTableDA.TombstonePurge");
+            grabacion.start();
+            accion.run();
+            grabacion.stop();
+            grabacion.dump(archivo);
+            return RecordingFile.readAllEvents(archivo);
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    private static List<RecordedEvent> filtrar(List<RecordedEvent> eventos, String nombre) {
+        List<RecordedEvent> r = new ArrayList<>();
+        for (RecordedEvent e : eventos) {
+            if (e.getEventType().getName().equals(nombre)) {
+                r.add(e);
+            }
+        }
+        r.sort(Comparator.comparing(RecordedEvent::getStartTime));
+        return r;
+    }
+
 
 //    Object clone()
 
@@ -0,0 +1,724 @@
+package clases;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Variante de TSBHashTableDA que resuelve las colisiones con la estrategia
+ * hopscotch hashing. Toda clave se guarda a una distancia menor que VECINDAD
+ * de su casillero de origen (el índice que le asigna la función hash). Cada
+ * casillero de origen tiene un mapa de bits (un long) que indica cuáles de los
+ * VECINDAD casilleros siguientes contienen claves que tienen origen en él, de
+ * forma que una búsqueda solo revisa esos casilleros, sin recorrer cadenas de
+ * exploración ni saltar tumbas (al eliminar, el casillero queda libre).
+ *
+ * Para insertar se busca linealmente el primer casillero libre a partir del
+ * origen. Si está fuera de la vecindad, se lo va acercando: se busca una
+ * clave anterior que pueda moverse a ese casillero libre sin salir de su
+ * propia vecindad, y el casillero que deja pasa a ser el nuevo libre. Si no
+ * se logra acercarlo, se duplica el tamaño de la tabla.
+ *
+ * Como la cantidad de casilleros revisados por búsqueda está acotada por la
+ * vecindad y no por la ocupación, la tabla trabaja con un factor de carga de
+ * 0.9f por defecto: para la misma cantidad de claves usa alrededor de la
+ * mitad de casilleros que TSBHashTableDA con su factor de 0.5f.
+ *
+ * Las claves con igual hashCode() tienen el mismo origen a cualquier tamaño
+ * de la tabla, por lo que más de VECINDAD de ellas nunca entran en una
+ * vecindad. Cuando la vecindad de una clave está llena de claves con su mismo
+ * hash, la clave va a un área de desborde (stash) al final de los arreglos,
+ * que se recorre secuencialmente, en lugar de agrandar la tabla (lo que no
+ * serviría de nada). Las búsquedas solo revisan el stash si no está vacío.
+ *
+ * Igual que TSBHashTableDA, no admite claves ni valores null.
+ *
+ * @param <K> el tipo de los objetos que serán usados como clave en la tabla.
+ * @param <V> el tipo de los objetos que serán los valores de la tabla.
+ */
+public class TSBHopscotchHashTable<K,V> extends AbstractMap<K,V> implements Cloneable, Serializable
+{
+    //************************ Constantes (privadas o públicas).
+
+    // cantidad de casilleros de la vecindad de cada origen (bits del long)...
+    private final static int VECINDAD = 64;
+
+    // hasta qué distancia del origen se busca un casillero libre...
+    private final static int MAX_BUSQUEDA = 4096;
+
+    // el tamaño máximo que podrá tener el arreglo de soporte (potencia de 2)...
+    private final static int MAX_SIZE = 1 << 30;
+
+
+    //************************ Atributos privados (estructurales).
+
+    // claves, valores y hash de cada casillero. Los casilleros que siguen al
+    // último (mask) forman el stash. Un casillero libre tiene key null...
+    private Object []keys;
+    private Object []values;
+    private int []hashes;
+
+    // la cantidad de claves que están en el stash...
+    private int en_stash;
+
+    // hop[i]: el bit d está encendido si el casillero (i + d) contiene una
+    // clave cuyo casillero de origen es i...
+    private long []hop;
+
+    // el tamaño del arreglo menos 1 (el tamaño es potencia de 2)...
+    private int mask;
+
+    // el tamaño inicial de la tabla (tamaño con el que fue creada)...
+    private int initial_capacity;
+
+    // la cantidad de objetos que contiene la tabla...
+    private int count;
+
+    // el factor de carga para calcular si hace falta un rehashing...
+    private float load_factor;
+
+    private transient Set<Map.Entry<K,V>> entrySet = null;
+
+
+    //************************ Atributos protegidos (control de iteración).
+
+    // conteo de operaciones de cambio de tamaño (fail-fast iterator).
+    protected transient int modCount;
+
+
+    //************************ Constructores.
+
+    /**
+     * Crea una tabla vacía, con capacidad inicial igual a 64 casilleros y con
+     * factor de carga igual a 0.9f.
+     */
+    public TSBHopscotchHashTable()
+    {
+        this(64, 0.9f);
+    }
+
+    /**
+     * Crea una tabla vacía, con la capacidad inicial indicada y con factor de
+     * carga igual a 0.9f.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     */
+    public TSBHopscotchHashTable(int initial_capacity)
+    {
+        this(initial_capacity, 0.9f);
+    }
+
+    /**
+     * Crea una tabla vacía, con la capacidad inicial y el factor de carga
+     * indicados. La capacidad se ajusta a la siguiente potencia de 2, con un
+     * mínimo de VECINDAD casilleros. Si el factor de carga indicado no está
+     * entre 0 y 0.95, se ajustará a 0.9f.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     * @param load_factor el factor de carga de la tabla.
+     */
+    public TSBHopscotchHashTable(int initial_capacity, float load_factor)
+    {
+        if(load_factor <= 0 || load_factor > 0.95f) { load_factor = 0.9f; }
+        if(initial_capacity > MAX_SIZE) { initial_capacity = MAX_SIZE; }
+        int length = VECINDAD;
+        while(length < initial_capacity) { length <<= 1; }
+
+        this.initial_capacity = length;
+        this.load_factor = load_factor;
+        this.inicializar(length);
+        this.modCount = 0;
+    }
+
+    /**
+     * Crea una tabla a partir del contenido del Map especificado.
+     * @param t el Map a partir del cual se creará la tabla.
+     */
+    public TSBHopscotchHashTable(Map<? extends K,? extends V> t)
+    {
+        this(64, 0.9f);
+        this.putAll(t);
+    }
+
+
+    //************************ Implementación de métodos especificados por Map.
+
+    @Override
+    public int size()
+    {
+        return this.count;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return (this.count == 0);
+    }
+
+    /**
+     * Determina si la clave key está en la tabla.
+     * @param key la clave a verificar.
+     * @return true si la clave está en la tabla.
+     * @throws NullPointerException si la clave es null.
+     */
+    @Override
+    public boolean containsKey(Object key)
+    {
+        if(key == null) throw new NullPointerException("containsKey(): parámetro null");
+        return this.search_for_index(key, key.hashCode()) != -1;
+    }
+
+    /**
+     * Retorna el objeto al cual está asociada la clave key en la tabla, o null
+     * si la tabla no contiene ningún objeto asociado a esa clave.
+     * @param key la clave que será buscada en la tabla.
+     * @return el objeto asociado a la clave especificada o null.
+     * @throws NullPointerException si key es null.
+     */
+    @Override
+    public V get(Object key)
+    {
+        if(key == null) throw new NullPointerException("get(): parámetro null");
+
+        int index = this.search_for_index(key, key.hashCode());
+        return (index != -1) ? (V) values[index] : null;
+    }
+
+    /**
+     * Asocia el valor (value) especificado, con la clave (key) especificada en
+     * esta tabla. Si la tabla contenía previamente un valor asociado para la
+     * clave, entonces el valor anterior es reemplazado por el nuevo.
+     * @param key la clave del objeto que se quiere agregar a la tabla.
+     * @param value el objeto que se quiere agregar a la tabla.
+     * @return el objeto anteriormente asociado a la clave, o null.
+     * @throws NullPointerException si key es null o value es null.
+     */
+    @Override
+    public V put(K key, V value)
+    {
+        if(key == null || value == null) throw new NullPointerException("put(): parámetro null");
+
+        int hash = key.hashCode();
+        int index = this.search_for_index(key, hash);
+        if(index != -1)
+        {
+            V old = (V) values[index];
+            values[index] = value;
+            return old;
+        }
+
+        if(count >= this.load_factor * this.capacity()) this.rehash();
+
+        while(!this.insertar(key, value, hash))
+        {
+            // no se pudo acercar un casillero libre a la vecindad...
+            this.rehash();
+        }
+        this.modCount++;
+        return null;
+    }
+
+    /**
+     * Elimina de la tabla la clave key (y su correspondiente valor asociado).
+     * @param key la clave a eliminar.
+     * @return El objeto al cual la clave estaba asociada, o null si la clave no
+     *         estaba en la tabla.
+     * @throws NullPointerException si la clave es null.
+     */
+    @Override
+    public V remove(Object key)
+    {
+        if(key == null) throw new NullPointerException("remove(): parámetro null");
+
+        int index = this.search_for_index(key, key.hashCode());
+        if(index == -1) { return null; }
+
+        V old = (V) values[index];
+        this.eliminar(index);
+        if(this.en_stash > 0 && index < this.capacity()) { this.rescatar(index); }
+        return old;
+    }
+
+    /**
+     * Elimina todo el contenido de la tabla, de forma de dejarla vacía y con
+     * el tamaño que inicialmente tuvo al ser creada.
+     */
+    @Override
+    public void clear()
+    {
+        this.inicializar(this.initial_capacity);
+        this.modCount++;
+    }
+
+    @Override
+    public Set<Map.Entry<K,V>> entrySet()
+    {
+        if(entrySet == null)
+        {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+
+    //************************ Redefinición de métodos heredados desde Object.
+
+    /**
+     * Retorna una copia superficial de la tabla.
+     * @return una copia superficial de la tabla.
+     */
+    @Override
+    protected Object clone()
+    {
+        TSBHopscotchHashTable<K,V> t = new TSBHopscotchHashTable<>(this.capacity(), this.load_factor);
+        t.putAll(this);
+        return t;
+    }
+
+
+    //************************ Métodos específicos de la clase.
+
+    /**
+     * Retorna la cantidad de casilleros del arreglo de soporte (sin contar el
+     * stash).
+     * @return la capacidad actual de la tabla.
+     */
+    public int capacity()
+    {
+        return this.mask + 1;
+    }
+
+    /**
+     * Retorna la cantidad de claves que están en el stash.
+     * @return la cantidad de claves en el stash.
+     */
+    int stashed()
+    {
+        return this.en_stash;
+    }
+
+    /**
+     * Duplica el tamaño de la tabla y vuelve a ubicar todas las claves (también
+     * las del stash, que pueden tener lugar en la tabla nueva). Se usa el hash
+     * guardado en cada casillero, sin volver a invocar hashCode(). Si
+     * alguna clave no puede ubicarse dentro de su vecindad, se vuelve a
+     * duplicar el tamaño.
+     */
+    protected void rehash()
+    {
+        Object []oldKeys = this.keys;
+        Object []oldValues = this.values;
+        int []oldHashes = this.hashes;
+        int length = this.capacity();
+
+        boolean ok = false;
+        while(!ok)
+        {
+            if(length >= MAX_SIZE)
+            {
+                throw new IllegalStateException("rehash(): la tabla alcanzó su tamaño máximo");
+            }
+            length <<= 1;
+            this.inicializar(length);
+
+            ok = true;
+            for(int i = 0; i < oldKeys.length && ok; i++)
+            {
+                if(oldKeys[i] != null)
+                {
+                    ok = this.insertar(oldKeys[i], oldValues[i], oldHashes[i]);
+                }
+            }
+        }
+        this.modCount++;
+    }
+
+
+    //************************ Métodos privados.
+
+    private void inicializar(int length)
+    {
+        this.keys = new Object[length];
+        this.values = new Object[length];
+        this.hashes = new int[length];
+        this.hop = new long[length];
+        this.mask = length - 1;
+        this.count = 0;
+        this.en_stash = 0;
+    }
+
+    /**
+     * Busca la clave key en la vecindad de su casillero de origen (y en el
+     * stash, si tiene claves) y retorna el índice del casillero que la
+     * contiene, o -1 si no está en la tabla.
+     */
+    private int search_for_index(Object key, int hash)
+    {
+        int origen = h(hash);
+        long bits = hop[origen];
+        while(bits != 0)
+        {
+            int index = (origen + Long.numberOfTrailingZeros(bits)) & mask;
+            Object k = keys[index];
+            if(hashes[index] == hash && (k == key || k.equals(key))) { return index; }
+            bits &= bits - 1;
+        }
+        if(this.en_stash == 0) { return -1; }
+
+        for(int i = this.capacity(); i < keys.length; i++)
+        {
+            Object k = keys[i];
+            if(k != null && hashes[i] == hash && (k == key || k.equals(key))) { return i; }
+        }
+        return -1;
+    }
+
+    /**
+     * Ubica la clave (que no debe estar en la tabla) dentro de la vecindad de
+     * su casillero de origen, o en el stash si la vecindad está saturada (ver
+     * saturada()).
+     * @return true si se pudo ubicar, false si no se encontró un casillero
+     *         libre que pudiera llevarse a la vecindad (hace falta un rehash).
+     */
+    private boolean insertar(Object key, Object value, int hash)
+    {
+        int origen = h(hash);
+        if(hop[origen] == -1L && this.saturada(origen, hash))
+        {
+            this.al_stash(key, value, hash);
+            return true;
+        }
+
+        // buscar linealmente el primer casillero libre...
+        int distancia = 0;
+        while(keys[(origen + distancia) & mask] != null)
+        {
+            distancia++;
+            if(distancia >= MAX_BUSQUEDA || distancia > mask) { return false; }
+        }
+
+        // mientras esté fuera de la vecindad, acercarlo al origen...
+        while(distancia >= VECINDAD)
+        {
+            int libre = (origen + distancia) & mask;
+            int salto = this.acercar_libre(libre);
+            if(salto == 0) { return false; }
+            distancia -= salto;
+        }
+
+        int index = (origen + distancia) & mask;
+        keys[index] = key;
+        values[index] = value;
+        hashes[index] = hash;
+        hop[origen] |= 1L << distancia;
+        this.count++;
+        return true;
+    }
+
+    /**
+     * Busca, entre los VECINDAD - 1 casilleros anteriores al casillero libre,
+     * una clave que pueda moverse a él sin salir de la vecindad de su origen.
+     * Si la encuentra, la mueve.
+     * @return cuántos casilleros se acercó el libre (0 si no se pudo).
+     */
+    private int acercar_libre(int libre)
+    {
+        for(int d = VECINDAD - 1; d > 0; d--)
+        {
+            int origen = (libre - d) & mask;
+            long bits = hop[origen];
+
+            // las claves de ese origen que están antes del casillero libre...
+            bits &= (1L << d) - 1;
+            if(bits != 0)
+            {
+                int j = Long.numberOfTrailingZeros(bits);
+                int desde = (origen + j) & mask;
+
+                keys[libre] = keys[desde];
+                values[libre] = values[desde];
+                hashes[libre] = hashes[desde];
+                keys[desde] = null;
+                values[desde] = null;
+                hop[origen] = (hop[origen] & ~(1L << j)) | (1L << d);
+                return d - j;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Determina si las VECINDAD claves de la vecindad de origen (que debe
+     * estar llena) tienen todas el hash indicado. En ese caso agrandar la
+     * tabla no sirve: esas claves volverían a tener un mismo origen.
+     */
+    private boolean saturada(int origen, int hash)
+    {
+        for(int d = 0; d < VECINDAD; d++)
+        {
+            if(hashes[(origen + d) & mask] != hash) { return false; }
+        }
+        return true;
+    }
+
+    /**
+     * Ubica la clave en un casillero libre del stash, agrandando los arreglos
+     * si el stash está lleno.
+     */
+    private void al_stash(Object key, Object value, int hash)
+    {
+        int i = this.capacity();
+        while(i < keys.length && keys[i] != null) { i++; }
+        if(i == keys.length)
+        {
+            int length = keys.length + Math.max(VECINDAD, keys.length - this.capacity());
+            this.keys = Arrays.copyOf(keys, length);
+            this.values = Arrays.copyOf(values, length);
+            this.hashes = Arrays.copyOf(hashes, length);
+        }
+        keys[i] = key;
+        values[i] = value;
+        hashes[i] = hash;
+        this.count++;
+        this.en_stash++;
+    }
+
+    /**
+     * Libera el casillero index. Si es de la tabla, borra su bit del mapa de
+     * su origen.
+     */
+    private void eliminar(int index)
+    {
+        if(index >= this.capacity())
+        {
+            this.en_stash--;
+        }
+        else
+        {
+            int origen = h(hashes[index]);
+            hop[origen] &= ~(1L << ((index - origen) & mask));
+        }
+        keys[index] = null;
+        values[index] = null;
+        this.count--;
+        this.modCount++;
+    }
+
+    /**
+     * Pasa al casillero libre index (de la tabla) alguna clave del stash que
+     * tenga ese casillero en su vecindad, si la hay.
+     */
+    private void rescatar(int index)
+    {
+        for(int i = this.capacity(); i < keys.length; i++)
+        {
+            if(keys[i] == null) { continue; }
+
+            int origen = h(hashes[i]);
+            int d = (index - origen) & mask;
+            if(d < VECINDAD)
+            {
+                keys[index] = keys[i];
+                values[index] = values[i];
+                hashes[index] = hashes[i];
+                hop[origen] |= 1L << d;
+                keys[i] = null;
+                values[i] = null;
+                this.en_stash--;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Función hash: mezcla los bits del hashCode() (para que todos influyan en
+     * los bits bajos) y retorna el casillero de origen para el tamaño actual.
+     * Con claves de hashCode() consecutivo, una mala mezcla llenaría
+     * vecindades enteras y forzaría rehash con poca carga.
+     */
+    int h(int hash)
+    {
+        int h = hash ^ (hash >>> 16);
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+
+    //************************ Clases Internas.
+
+    /**
+     * Clase interna que representa una vista de todos los PARES mapeados en la
+     * tabla. Las vistas de claves y valores que hereda de AbstractMap se
+     * apoyan en esta.
+     */
+    private class EntrySet extends AbstractSet<Map.Entry<K,V>>
+    {
+        @Override
+        public Iterator<Map.Entry<K,V>> iterator()
+        {
+            return new EntrySetIterator();
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+            if(!(o instanceof Map.Entry)) { return false; }
+            Map.Entry<?,?> entry = (Map.Entry<?,?>) o;
+            V value = TSBHopscotchHashTable.this.get(entry.getKey());
+            return value != null && value.equals(entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o)
+        {
+            if(!this.contains(o)) { return false; }
+            TSBHopscotchHashTable.this.remove(((Map.Entry<?,?>) o).getKey());
+            return true;
+        }
+
+        @Override
+        public int size()
+        {
+            return TSBHopscotchHashTable.this.count;
+        }
+
+        @Override
+        public void clear()
+        {
+            TSBHopscotchHashTable.this.clear();
+        }
+    }
+
+    private class EntrySetIterator implements Iterator<Map.Entry<K,V>>
+    {
+        // índice del siguiente casillero a revisar...
+        private int next_index;
+
+        // índice del casillero retornado por next() (-1 si no corresponde)...
+        private int current_index;
+
+        // el valor que debería tener el modCount de la tabla completa...
+        private int expected_modCount;
+
+        public EntrySetIterator()
+        {
+            next_index = 0;
+            current_index = -1;
+            expected_modCount = TSBHopscotchHashTable.this.modCount;
+            this.avanzar();
+        }
+
+        // deja next_index en el siguiente casillero cerrado (o al final)...
+        private void avanzar()
+        {
+            Object []k = TSBHopscotchHashTable.this.keys;
+            while(next_index < k.length && k[next_index] == null) { next_index++; }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return next_index < TSBHopscotchHashTable.this.keys.length;
+        }
+
+        @Override
+        public Map.Entry<K,V> next()
+        {
+            if(TSBHopscotchHashTable.this.modCount != expected_modCount)
+            {
+                throw new ConcurrentModificationException("next(): modificación inesperada de tabla...");
+            }
+            if(!hasNext())
+            {
+                throw new NoSuchElementException("next(): no existe el elemento pedido...");
+            }
+
+            current_index = next_index++;
+            this.avanzar();
+            return new Entry(current_index);
+        }
+
+        @Override
+        public void remove()
+        {
+            if(current_index == -1)
+            {
+                throw new IllegalStateException("remove(): debe invocar a next() antes de remove()...");
+            }
+            if(TSBHopscotchHashTable.this.modCount != expected_modCount)
+            {
+                throw new ConcurrentModificationException("remove(): modificación inesperada de tabla...");
+            }
+
+            TSBHopscotchHashTable.this.eliminar(current_index);
+            current_index = -1;
+            expected_modCount = TSBHopscotchHashTable.this.modCount;
+        }
+    }
+
+    /**
+     * Par (key, value) retornado por el iterador: accede directamente al
+     * casillero de la tabla, por lo que setValue() modifica la tabla.
+     */
+    private class Entry implements Map.Entry<K,V>
+    {
+        private final int index;
+        private final K key;
+
+        public Entry(int index)
+        {
+            this.index = index;
+            this.key = (K) keys[index];
+        }
+
+        @Override
+        public K getKey()
+        {
+            return key;
+        }
+
+        @Override
+        public V getValue()
+        {
+            return (V) values[index];
+        }
+
+        @Override
+        public V setValue(V value)
+        {
+            if(value == null)
+            {
+                throw new IllegalArgumentException("setValue(): parámetro null...");
+            }
+            V old = (V) values[index];
+            values[index] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if(!(obj instanceof Map.Entry)) { return false; }
+            Map.Entry<?,?> other = (Map.Entry<?,?>) obj;
+            return key.equals(other.getKey()) && getValue().equals(other.getValue());
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return key.hashCode() ^ getValue().hashCode();
+        }
+
+        @Override
+        public String toString()
+        {
+            return "(" + key.toString() + " --> " + getValue().toString() + ")";
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package clases;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TSBHopscotchHashTableTest {
+
+    private TSBHopscotchHashTable<Clave, Integer> table;
+
+    @Before
+    public void setup() {
+        table = new TSBHopscotchHashTable<>(256);
+    }
+
+    @Test
+    public void whenLoadIsHigh_tableDoesNotGrow() {
+        TSBHopscotchHashTable<Integer, Integer> big = new TSBHopscotchHashTable<>(1 << 16);
+        int n = (int) (0.85 * (1 << 16));
+        for (int i = 0; i < n; i++) {
+            big.put(i * 31, i);
+        }
+        assertEquals(1 << 16, big.capacity());
+        for (int i = 0; i < n; i++) {
+            assertEquals(Integer.valueOf(i), big.get(i * 31));
+        }
+    }
+
+    @Test
+    public void whenFirstFreeSlotIsOutsideTheNeighbourhood_itIsHoppedCloser() {
+        // 40 claves de origen o ocupan o..o+39, y 30 de origen o+20 ocupan
+        // o+40..o+69: el primer casillero libre para otra clave de origen o
+        // está a distancia 70, y hay que correr claves de o+20 para acercarlo...
+        int hashA = 12345;
+        int o = table.h(hashA);
+        int hashB = hashCon(table, o + 20);
+        for (int i = 0; i < 40; i++) {
+            table.put(new Clave(i, hashA), i);
+        }
+        for (int i = 0; i < 30; i++) {
+            table.put(new Clave(100 + i, hashB), 100 + i);
+        }
+        for (int i = 40; i < 50; i++) {
+            table.put(new Clave(i, hashA), i);
+        }
+
+        assertEquals(256, table.capacity());
+        assertEquals(0, table.stashed());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(Integer.valueOf(i), table.get(new Clave(i, hashA)));
+        }
+        for (int i = 0; i < 30; i++) {
+            assertEquals(Integer.valueOf(100 + i), table.get(new Clave(100 + i, hashB)));
+        }
+    }
+
+    @Test
+    public void whenNeighbourhoodIsFullOfDistinctHashes_tableGrowsToSeparateThem() {
+        // 65 hashes distintos con el mismo origen en una tabla de 256
+        // casilleros: agrandar la tabla los reparte en otros orígenes...
+        int o = table.h(1);
+        int []hashes = new int[65];
+        for (int i = 0; i < 65; i++) {
+            hashes[i] = hashCon(table, o, (i == 0) ? 1 : hashes[i - 1] + 1);
+        }
+        for (int i = 0; i < 65; i++) {
+            table.put(new Clave(i, hashes[i]), i);
+        }
+        assertTrue(table.capacity() > 256);
+        assertEquals(0, table.stashed());
+        assertEquals(65, table.size());
+    }
+
+    @Test
+    public void whenMoreKeysThanTheNeighbourhoodShareTheHashCode_theRestGoToTheStash() {
+        for (int i = 0; i < 128; i++) {
+            table.put(new Clave(i, 42), i);
+        }
+        assertEquals(128, table.size());
+        assertEquals(256, table.capacity());
+        assertEquals(64, table.stashed());
+        for (int i = 0; i < 128; i++) {
+            assertEquals(Integer.valueOf(i), table.get(new Clave(i, 42)));
+        }
+        assertNull(table.get(new Clave(999, 42)));
+
+        Set<Integer> valores = new HashSet<>(table.values());
+        assertEquals(128, valores.size());
+
+        // al liberar un casillero de la vecindad, una clave del stash pasa a
+        // ocuparlo...
+        assertEquals(Integer.valueOf(0), table.remove(new Clave(0, 42)));
+        assertEquals(63, table.stashed());
+        for (int i = 1; i < 128; i++) {
+            assertEquals(Integer.valueOf(i), table.get(new Clave(i, 42)));
+        }
+    }
+
+    @Test
+    public void whenManyKeysShareTheHashCode_tableGrowsOnlyWithTheLoadFactor() {
+        TSBHopscotchHashTable<Clave, Integer> t = new TSBHopscotchHashTable<>();
+        for (int i = 0; i < 2000; i++) {
+            t.put(new Clave(i, 42), i);
+        }
+        assertEquals(2000, t.size());
+        assertTrue(t.capacity() <= 4096);
+        assertEquals(2000 - 64, t.stashed());
+
+        Iterator<Integer> it = t.values().iterator();
+        while (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+        assertTrue(t.isEmpty());
+        assertEquals(0, t.stashed());
+    }
+
+    // busca, desde el hash indicado, un hash cuyo origen en la tabla t sea o...
+    private static int hashCon(TSBHopscotchHashTable<?, ?> t, int o) {
+        return hashCon(t, o, 0);
+    }
+
+    private static int hashCon(TSBHopscotchHashTable<?, ?> t, int o, int desde) {
+        int destino = o & (t.capacity() - 1);
+        for (int h = desde; ; h++) {
+            if (t.h(h) == destino) {
+                return h;
+            }
+        }
+    }
+
+    // clave con hashCode elegido, distinta de las demás por su id...
+    private static class Clave {
+        private final int id;
+        private final int hash;
+
+        Clave(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Clave && ((Clave) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
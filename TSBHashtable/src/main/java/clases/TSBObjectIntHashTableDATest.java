@@ -0,0 +1,159 @@
+package clases;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TSBObjectIntHashTableDATest {
+
+    private TSBObjectIntHashTableDA<String> table;
+
+    @Before
+    public void setup() {
+        table = new TSBObjectIntHashTableDA<>();
+    }
+
+    @Test
+    public void whenAddToIsCalled_countsAccumulateFromTheDefaultValue() {
+        assertEquals(0, table.addTo("Sputnik", 1));
+        assertEquals(1, table.addTo("Sputnik", 1));
+        assertEquals(2, table.addTo("Sputnik", 3));
+        assertEquals(0, table.addTo("Sinopharm", -2));
+        assertEquals(5, table.getInt("Sputnik"));
+        assertEquals(-2, table.getInt("Sinopharm"));
+        assertEquals(2, table.size());
+
+        // una clave nueva parte del valor por defecto...
+        table.setDefaultReturnValue(10);
+        assertEquals(10, table.addTo("AstraZeneca", 1));
+        assertEquals(11, table.getInt("AstraZeneca"));
+    }
+
+    @Test
+    public void whenPutIntIsCalled_previousValueOrDefaultIsReturned() {
+        assertEquals(0, table.putInt("a", 7));
+        assertEquals(7, table.putInt("a", 8));
+        assertEquals(8, table.getInt("a"));
+        assertEquals(1, table.size());
+
+        // un valor guardado igual al valor por defecto sigue siendo una clave...
+        assertEquals(0, table.putInt("b", 0));
+        assertTrue(table.containsKey("b"));
+        assertFalse(table.containsKey("c"));
+    }
+
+    @Test
+    public void whenDefaultReturnValueIsChanged_missingKeysReturnIt() {
+        assertEquals(0, table.defaultReturnValue());
+        table.setDefaultReturnValue(-1);
+        assertEquals(-1, table.defaultReturnValue());
+        assertEquals(-1, table.getInt("x"));
+        assertEquals(-1, table.removeInt("x"));
+        assertEquals(-1, table.putInt("x", 3));
+        assertEquals(3, table.removeInt("x"));
+        assertEquals(-1, table.getInt("x"));
+
+        // clear() no cambia el valor por defecto...
+        table.putInt("y", 1);
+        table.clear();
+        assertTrue(table.isEmpty());
+        assertEquals(-1, table.getInt("y"));
+    }
+
+    @Test
+    public void whenKeyIsRemovedAtTheEndOfTheArray_groupIsShiftedBackAcrossTheWrap() {
+        // 16 casilleros: b, c y d tienen origen en el 15 y ocupan 15, 0 y 1; e
+        // tiene origen en 0 y queda en 2; f tiene origen en 3 y queda en 3...
+        TSBObjectIntHashTableDA<Clave> t = new TSBObjectIntHashTableDA<>(16);
+        Clave b = new Clave('b', hashCon(15, 15));
+        Clave c = new Clave('c', b.hash);
+        Clave d = new Clave('d', b.hash);
+        Clave e = new Clave('e', hashCon(0, 15));
+        Clave f = new Clave('f', hashCon(3, 15));
+        t.putInt(b, 1);
+        t.putInt(c, 2);
+        t.putInt(d, 3);
+        t.putInt(e, 4);
+        t.putInt(f, 5);
+        assertEquals("[c, d, e, f, b]", orden(t));
+
+        // al quitar b, c vuelve a 15 (pasando por el fin del arreglo), d y e se
+        // corren un casillero, y f se queda en su origen...
+        assertEquals(1, t.removeInt(b));
+        assertEquals("[d, e, f, c]", orden(t));
+        assertEquals(2, t.getInt(c));
+        assertEquals(3, t.getInt(d));
+        assertEquals(4, t.getInt(e));
+        assertEquals(5, t.getInt(f));
+        assertFalse(t.containsKey(b));
+        assertEquals(4, t.size());
+    }
+
+    @Test
+    public void whenManyKeysAreAddedAndRemoved_tableMatchesHashMap() {
+        Map<String, Integer> esperado = new HashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            table.addTo("k" + (i % 1000), i);
+            esperado.merge("k" + (i % 1000), i, Integer::sum);
+        }
+        for (int i = 0; i < 1000; i += 3) {
+            assertEquals((int) esperado.remove("k" + i), table.removeInt("k" + i));
+        }
+        assertEquals(esperado.size(), table.size());
+
+        Map<String, Integer> recorrido = new HashMap<>();
+        table.forEach((k, v) -> recorrido.put(k, v));
+        assertEquals(esperado, recorrido);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenAddToCalledWithNullKey_throwException() {
+        table.addTo(null, 1);
+    }
+
+    // las claves en el orden de sus casilleros...
+    private static String orden(TSBObjectIntHashTableDA<Clave> t) {
+        List<Clave> claves = new ArrayList<>();
+        t.forEach((k, v) -> claves.add(k));
+        return claves.toString();
+    }
+
+    // busca un hashCode cuyo hash mezclado tenga el casillero de origen
+    // indicado en una tabla con esa máscara...
+    private static int hashCon(int origen, int mask) {
+        for (int h = 0; ; h++) {
+            if ((TSBObjectIntHashTableDA.hash(new Clave('?', h)) & mask) == origen) {
+                return h;
+            }
+        }
+    }
+
+    // clave con hashCode elegido, distinta de las demás por su id...
+    private static class Clave {
+        private final char id;
+        private final int hash;
+
+        Clave(char id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Clave && ((Clave) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(id);
+        }
+    }
+}
@@ -0,0 +1,695 @@
+package clases;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+/**
+ * Variante de TSBHashTableDA (direccionamiento abierto) para tablas de más de
+ * 2^31 casilleros. En lugar de un único arreglo de soporte, los casilleros se
+ * guardan en páginas de tamaño fijo (por defecto 2^20 casilleros cada una), y
+ * se indexan con un long: el casillero i está en la página i / tamaño de
+ * página, en la posición i % tamaño de página. Ningún arreglo pasa nunca del
+ * tamaño de una página, y el tamaño de la tabla solo está limitado por la
+ * memoria disponible.
+ *
+ * El hash de cada clave es de 64 bits, y se guarda en su casillero para no
+ * recalcularlo en el rehash y para comparar las claves solo cuando coincide.
+ * Por defecto se obtiene mezclando los bits de hashCode(), que tiene solo 32:
+ * para tablas con más de unos cientos de millones de claves conviene indicar
+ * en el constructor una función que calcule un hash de 64 bits de la clave
+ * (por ejemplo, para claves Long, el propio valor).
+ *
+ * El tamaño de la tabla es siempre una potencia de 2 y la exploración usa la
+ * secuencia de números triangulares (que en ese caso visita todos los
+ * casilleros) calculada sobre long, por lo que no hay desbordes. La tabla se
+ * mantiene ocupada como máximo hasta la mitad (contando las tumbas).
+ *
+ * size() retorna como máximo Integer.MAX_VALUE, tal como pide Map; la cantidad
+ * exacta de claves la retorna longSize(). Igual que TSBHashTableDA, no admite
+ * claves ni valores null.
+ *
+ * @param <K> el tipo de los objetos que serán usados como clave en la tabla.
+ * @param <V> el tipo de los objetos que serán los valores de la tabla.
+ */
+public class TSBSegmentedHashTable<K,V> extends AbstractMap<K,V> implements Cloneable, Serializable
+{
+    //************************ Constantes (privadas o públicas).
+
+    // log2 del tamaño de página por defecto (2^20 casilleros)...
+    private final static int BITS_PAGINA = 20;
+
+    // el tamaño máximo que podrá tener la tabla (potencia de 2)...
+    private final static long MAX_SIZE = 1L << 50;
+
+    // estados de un casillero...
+    private final static byte ABIERTO = 0;
+    private final static byte CERRADO = 1;
+    private final static byte TUMBA = 2;
+
+
+    //************************ Atributos privados (estructurales).
+
+    // las páginas: estado, hash, clave y valor de cada casillero...
+    private byte [][]estados;
+    private long [][]hashes;
+    private Object [][]keys;
+    private Object [][]values;
+
+    // log2 del tamaño de página, y la máscara para la posición en la página...
+    private final int bits_pagina;
+    private final long mascara_pagina;
+
+    // la cantidad de casilleros de la tabla (potencia de 2)...
+    private long capacidad;
+
+    // el tamaño inicial de la tabla (tamaño con el que fue creada)...
+    private long initial_capacity;
+
+    // la cantidad de objetos que contiene la tabla...
+    private long count;
+
+    // la cantidad de casilleros marcados como tumba...
+    private long tumbas;
+
+    // función que calcula el hash de 64 bits de una clave (null: usa hashCode())...
+    private final ToLongFunction<? super K> hash64;
+
+    private transient Set<Map.Entry<K,V>> entrySet = null;
+
+
+    //************************ Atributos protegidos (control de iteración).
+
+    // conteo de operaciones de cambio de tamaño (fail-fast iterator).
+    protected transient int modCount;
+
+
+    //************************ Constructores.
+
+    /**
+     * Crea una tabla vacía, con capacidad inicial igual a 16 casilleros.
+     */
+    public TSBSegmentedHashTable()
+    {
+        this(16, null);
+    }
+
+    /**
+     * Crea una tabla vacía, con la capacidad inicial indicada (que se ajusta a
+     * la siguiente potencia de 2).
+     * @param initial_capacity la capacidad inicial de la tabla.
+     */
+    public TSBSegmentedHashTable(long initial_capacity)
+    {
+        this(initial_capacity, null);
+    }
+
+    /**
+     * Crea una tabla vacía, con la capacidad inicial indicada y la función que
+     * calcula el hash de 64 bits de cada clave.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     * @param hash64 la función de hash de las claves, o null para usar
+     *               hashCode().
+     */
+    public TSBSegmentedHashTable(long initial_capacity, ToLongFunction<? super K> hash64)
+    {
+        this(initial_capacity, BITS_PAGINA, hash64);
+    }
+
+    /**
+     * Crea una tabla vacía, con la capacidad inicial, el tamaño de página (2
+     * elevado a bits_pagina casilleros) y la función de hash indicados.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     * @param bits_pagina log2 del tamaño de página (entre 2 y 30).
+     * @param hash64 la función de hash de las claves, o null para usar
+     *               hashCode().
+     * @throws IllegalArgumentException si bits_pagina está fuera de rango.
+     */
+    public TSBSegmentedHashTable(long initial_capacity, int bits_pagina, ToLongFunction<? super K> hash64)
+    {
+        if(bits_pagina < 2 || bits_pagina > 30)
+        {
+            throw new IllegalArgumentException("TSBSegmentedHashTable(): tamaño de página fuera de rango");
+        }
+        if(initial_capacity < 4) { initial_capacity = 4; }
+        if(initial_capacity > MAX_SIZE) { initial_capacity = MAX_SIZE; }
+
+        this.bits_pagina = bits_pagina;
+        this.mascara_pagina = (1L << bits_pagina) - 1;
+        this.hash64 = hash64;
+        this.initial_capacity = siguientePotencia(initial_capacity);
+        this.inicializar(this.initial_capacity);
+        this.modCount = 0;
+    }
+
+    /**
+     * Crea una tabla a partir del contenido del Map especificado.
+     * @param t el Map a partir del cual se creará la tabla.
+     */
+    public TSBSegmentedHashTable(Map<? extends K,? extends V> t)
+    {
+        this(16, null);
+        this.putAll(t);
+    }
+
+
+    //************************ Implementación de métodos especificados por Map.
+
+    /**
+     * Retorna la cantidad de claves de la tabla, o Integer.MAX_VALUE si tiene
+     * más (ver longSize()).
+     * @return la cantidad de claves, como int.
+     */
+    @Override
+    public int size()
+    {
+        return (int) Math.min(this.count, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return (this.count == 0);
+    }
+
+    /**
+     * Determina si la clave key está en la tabla.
+     * @param key la clave a verificar.
+     * @return true si la clave está en la tabla.
+     * @throws NullPointerException si la clave es null.
+     */
+    @Override
+    public boolean containsKey(Object key)
+    {
+        if(key == null) throw new NullPointerException("containsKey(): parámetro null");
+        return this.estado(this.search_for_index(key, this.hash(key))) == CERRADO;
+    }
+
+    /**
+     * Retorna el objeto al cual está asociada la clave key en la tabla, o null
+     * si la tabla no contiene ningún objeto asociado a esa clave.
+     * @param key la clave que será buscada en la tabla.
+     * @return el objeto asociado a la clave especificada o null.
+     * @throws NullPointerException si key es null.
+     */
+    @Override
+    public V get(Object key)
+    {
+        if(key == null) throw new NullPointerException("get(): parámetro null");
+
+        long index = this.search_for_index(key, this.hash(key));
+        return (this.estado(index) == CERRADO) ? (V) values[pagina(index)][posicion(index)] : null;
+    }
+
+    /**
+     * Asocia el valor (value) especificado, con la clave (key) especificada en
+     * esta tabla. Si la tabla contenía previamente un valor asociado para la
+     * clave, entonces el valor anterior es reemplazado por el nuevo.
+     * @param key la clave del objeto que se quiere agregar a la tabla.
+     * @param value el objeto que se quiere agregar a la tabla.
+     * @return el objeto anteriormente asociado a la clave, o null.
+     * @throws NullPointerException si key es null o value es null.
+     */
+    @Override
+    public V put(K key, V value)
+    {
+        if(key == null || value == null) throw new NullPointerException("put(): parámetro null");
+
+        if(this.count + this.tumbas + 1 > this.capacidad / 2) this.rehash();
+
+        long hash = this.hash(key);
+        long index = this.search_for_index(key, hash);
+        int p = pagina(index), i = posicion(index);
+        if(estados[p][i] == CERRADO)
+        {
+            V old = (V) values[p][i];
+            values[p][i] = value;
+            return old;
+        }
+
+        if(estados[p][i] == TUMBA) { this.tumbas--; }
+        estados[p][i] = CERRADO;
+        hashes[p][i] = hash;
+        keys[p][i] = key;
+        values[p][i] = value;
+        this.count++;
+        this.modCount++;
+        return null;
+    }
+
+    /**
+     * Elimina de la tabla la clave key (y su correspondiente valor asociado).
+     * @param key la clave a eliminar.
+     * @return El objeto al cual la clave estaba asociada, o null si la clave no
+     *         estaba en la tabla.
+     * @throws NullPointerException si la clave es null.
+     */
+    @Override
+    public V remove(Object key)
+    {
+        if(key == null) throw new NullPointerException("remove(): parámetro null");
+
+        long index = this.search_for_index(key, this.hash(key));
+        if(this.estado(index) != CERRADO) { return null; }
+
+        V old = (V) values[pagina(index)][posicion(index)];
+        this.eliminar(index);
+        return old;
+    }
+
+    /**
+     * Elimina todo el contenido de la tabla, de forma de dejarla vacía y con
+     * el tamaño que inicialmente tuvo al ser creada.
+     */
+    @Override
+    public void clear()
+    {
+        this.inicializar(this.initial_capacity);
+        this.modCount++;
+    }
+
+    @Override
+    public Set<Map.Entry<K,V>> entrySet()
+    {
+        if(entrySet == null)
+        {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+
+    //************************ Redefinición de métodos heredados desde Object.
+
+    /**
+     * Retorna una copia superficial de la tabla.
+     * @return una copia superficial de la tabla.
+     */
+    @Override
+    protected Object clone()
+    {
+        TSBSegmentedHashTable<K,V> t = new TSBSegmentedHashTable<>(this.capacidad, this.bits_pagina, this.hash64);
+        t.putAll(this);
+        return t;
+    }
+
+
+    //************************ Métodos específicos de la clase.
+
+    /**
+     * Retorna la cantidad exacta de claves de la tabla.
+     * @return la cantidad de claves, como long.
+     */
+    public long longSize()
+    {
+        return this.count;
+    }
+
+    /**
+     * Retorna la cantidad de casilleros de la tabla (sumando todas las
+     * páginas).
+     * @return la capacidad actual de la tabla.
+     */
+    public long capacity()
+    {
+        return this.capacidad;
+    }
+
+    /**
+     * Retorna la cantidad de páginas de la tabla.
+     * @return la cantidad de páginas.
+     */
+    public int pageCount()
+    {
+        return this.keys.length;
+    }
+
+    /**
+     * Reorganiza la tabla. Si la mayor parte de la ocupación son tumbas, se
+     * reconstruye con el mismo tamaño, eliminándolas. Si no, se duplica el
+     * tamaño. Las claves no se vuelven a hashear: se usa el hash guardado en
+     * su casillero.
+     */
+    protected void rehash()
+    {
+        long old_length = this.capacidad;
+        long new_length = old_length;
+        if(this.count + 1 > old_length / 4 && old_length < MAX_SIZE)
+        {
+            new_length = old_length * 2;
+        }
+
+        byte [][]oldEstados = this.estados;
+        long [][]oldHashes = this.hashes;
+        Object [][]oldKeys = this.keys;
+        Object [][]oldValues = this.values;
+
+        this.inicializar(new_length);
+        this.modCount++;
+
+        for(int p = 0; p < oldEstados.length; p++)
+        {
+            byte []e = oldEstados[p];
+            for(int i = 0; i < e.length; i++)
+            {
+                if(e[i] != CERRADO) continue;
+
+                long index = this.search_for_free_index(oldHashes[p][i]);
+                int np = pagina(index), ni = posicion(index);
+                estados[np][ni] = CERRADO;
+                hashes[np][ni] = oldHashes[p][i];
+                keys[np][ni] = oldKeys[p][i];
+                values[np][ni] = oldValues[p][i];
+                this.count++;
+            }
+
+            // la página vieja ya no hace falta: se libera antes de seguir...
+            oldEstados[p] = null;
+            oldHashes[p] = null;
+            oldKeys[p] = null;
+            oldValues[p] = null;
+        }
+    }
+
+
+    //************************ Métodos privados.
+
+    /**
+     * Crea las páginas vacías para la cantidad de casilleros indicada.
+     */
+    private void inicializar(long length)
+    {
+        int tam = (int) Math.min(length, 1L << bits_pagina);
+        int paginas = (int) (length / tam);
+
+        this.estados = new byte[paginas][];
+        this.hashes = new long[paginas][];
+        this.keys = new Object[paginas][];
+        this.values = new Object[paginas][];
+        for(int p = 0; p < paginas; p++)
+        {
+            estados[p] = new byte[tam];
+            hashes[p] = new long[tam];
+            keys[p] = new Object[tam];
+            values[p] = new Object[tam];
+        }
+
+        this.capacidad = length;
+        this.count = 0;
+        this.tumbas = 0;
+    }
+
+    /**
+     * Busca la clave key y retorna el índice del casillero que la contiene. Si
+     * la clave no está, retorna el índice del casillero donde debería
+     * agregarse: la primera tumba del recorrido, o el casillero abierto que lo
+     * terminó.
+     */
+    private long search_for_index(Object key, long hash)
+    {
+        long mask = this.capacidad - 1;
+        long index = hash & mask;
+        long tumba = -1;
+        for(long j = 1; ; j++)
+        {
+            int p = pagina(index), i = posicion(index);
+            byte e = estados[p][i];
+            if(e == ABIERTO)
+            {
+                return (tumba == -1) ? index : tumba;
+            }
+            if(e == TUMBA)
+            {
+                if(tumba == -1) { tumba = index; }
+            }
+            else if(hashes[p][i] == hash)
+            {
+                Object k = keys[p][i];
+                if(k == key || k.equals(key)) { return index; }
+            }
+            index = sondear(index, j, mask);
+        }
+    }
+
+    /**
+     * Retorna el índice del primer casillero abierto que se encuentra
+     * siguiendo la secuencia de exploración del hash indicado (para el
+     * rehash, cuando la tabla no tiene tumbas).
+     */
+    private long search_for_free_index(long hash)
+    {
+        long mask = this.capacidad - 1;
+        long index = hash & mask;
+        for(long j = 1; estados[pagina(index)][posicion(index)] != ABIERTO; j++)
+        {
+            index = sondear(index, j, mask);
+        }
+        return index;
+    }
+
+    /**
+     * Marca como tumba el casillero index.
+     */
+    private void eliminar(long index)
+    {
+        int p = pagina(index), i = posicion(index);
+        estados[p][i] = TUMBA;
+        keys[p][i] = null;
+        values[p][i] = null;
+        this.count--;
+        this.tumbas++;
+        this.modCount++;
+    }
+
+    private byte estado(long index)
+    {
+        return estados[pagina(index)][posicion(index)];
+    }
+
+    /**
+     * El siguiente casillero de la secuencia de exploración: al índice del
+     * paso j - 1 se le suma j (números triangulares), módulo la capacidad.
+     */
+    static long sondear(long index, long j, long mask)
+    {
+        return (index + j) & mask;
+    }
+
+    int pagina(long index)
+    {
+        return (int) (index >>> bits_pagina);
+    }
+
+    int posicion(long index)
+    {
+        return (int) (index & mascara_pagina);
+    }
+
+    /**
+     * El hash de 64 bits de la clave, con los bits mezclados (fmix64 de
+     * MurmurHash3) para que los bits bajos, que eligen el casillero, dependan
+     * de todos los bits.
+     */
+    private long hash(Object key)
+    {
+        return mezclar((hash64 == null) ? key.hashCode() : hash64.applyAsLong((K) key));
+    }
+
+    static long mezclar(long h)
+    {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long siguientePotencia(long n)
+    {
+        long p = 4;
+        while(p < n) { p <<= 1; }
+        return p;
+    }
+
+
+    //************************ Clases Internas.
+
+    /**
+     * Clase interna que representa una vista de todos los PARES mapeados en la
+     * tabla. Las vistas de claves y valores que hereda de AbstractMap se
+     * apoyan en esta.
+     */
+    private class EntrySet extends AbstractSet<Map.Entry<K,V>>
+    {
+        @Override
+        public Iterator<Map.Entry<K,V>> iterator()
+        {
+            return new EntrySetIterator();
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+            if(!(o instanceof Map.Entry)) { return false; }
+            Map.Entry<?,?> entry = (Map.Entry<?,?>) o;
+            V value = TSBSegmentedHashTable.this.get(entry.getKey());
+            return value != null && value.equals(entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o)
+        {
+            if(!this.contains(o)) { return false; }
+            TSBSegmentedHashTable.this.remove(((Map.Entry<?,?>) o).getKey());
+            return true;
+        }
+
+        @Override
+        public int size()
+        {
+            return TSBSegmentedHashTable.this.size();
+        }
+
+        @Override
+        public void clear()
+        {
+            TSBSegmentedHashTable.this.clear();
+        }
+    }
+
+    private class EntrySetIterator implements Iterator<Map.Entry<K,V>>
+    {
+        // índice del siguiente casillero a revisar...
+        private long next_index;
+
+        // índice del casillero retornado por next() (-1 si no corresponde)...
+        private long current_index;
+
+        // el valor que debería tener el modCount de la tabla completa...
+        private int expected_modCount;
+
+        public EntrySetIterator()
+        {
+            next_index = 0;
+            current_index = -1;
+            expected_modCount = TSBSegmentedHashTable.this.modCount;
+            this.avanzar();
+        }
+
+        // deja next_index en el siguiente casillero cerrado (o al final)...
+        private void avanzar()
+        {
+            long n = TSBSegmentedHashTable.this.capacidad;
+            while(next_index < n && estado(next_index) != CERRADO) { next_index++; }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return next_index < TSBSegmentedHashTable.this.capacidad;
+        }
+
+        @Override
+        public Map.Entry<K,V> next()
+        {
+            if(TSBSegmentedHashTable.this.modCount != expected_modCount)
+            {
+                throw new ConcurrentModificationException("next(): modificación inesperada de tabla...");
+            }
+            if(!hasNext())
+            {
+                throw new NoSuchElementException("next(): no existe el elemento pedido...");
+            }
+
+            current_index = next_index++;
+            this.avanzar();
+            return new Entry(current_index);
+        }
+
+        @Override
+        public void remove()
+        {
+            if(current_index == -1)
+            {
+                throw new IllegalStateException("remove(): debe invocar a next() antes de remove()...");
+            }
+            if(TSBSegmentedHashTable.this.modCount != expected_modCount)
+            {
+                throw new ConcurrentModificationException("remove(): modificación inesperada de tabla...");
+            }
+
+            TSBSegmentedHashTable.this.eliminar(current_index);
+            current_index = -1;
+            expected_modCount = TSBSegmentedHashTable.this.modCount;
+        }
+    }
+
+    /**
+     * Par (key, value) retornado por el iterador: accede directamente al
+     * casillero de la tabla, por lo que setValue() modifica la tabla.
+     */
+    private class Entry implements Map.Entry<K,V>
+    {
+        private final int pagina;
+        private final int posicion;
+        private final K key;
+
+        public Entry(long index)
+        {
+            this.pagina = TSBSegmentedHashTable.this.pagina(index);
+            this.posicion = TSBSegmentedHashTable.this.posicion(index);
+            this.key = (K) keys[pagina][posicion];
+        }
+
+        @Override
+        public K getKey()
+        {
+            return key;
+        }
+
+        @Override
+        public V getValue()
+        {
+            return (V) values[pagina][posicion];
+        }
+
+        @Override
+        public V setValue(V value)
+        {
+            if(value == null)
+            {
+                throw new IllegalArgumentException("setValue(): parámetro null...");
+            }
+            V old = (V) values[pagina][posicion];
+            values[pagina][posicion] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if(!(obj instanceof Map.Entry)) { return false; }
+            Map.Entry<?,?> other = (Map.Entry<?,?>) obj;
+            return key.equals(other.getKey()) && getValue().equals(other.getValue());
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return key.hashCode() ^ getValue().hashCode();
+        }
+
+        @Override
+        public String toString()
+        {
+            return "(" + key.toString() + " --> " + getValue().toString() + ")";
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package clases;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TSBSegmentedHashTableTest {
+
+    private TSBSegmentedHashTable<String, Integer> table;
+
+    @Before
+    public void setup() {
+        // páginas de 16 casilleros, para que las pruebas usen muchas páginas
+        table = new TSBSegmentedHashTable<>(16, 4, null);
+    }
+
+    @Test
+    public void whenManyKeysAreAdded_tableGrowsInPagesAndKeepsThem() {
+        for (int i = 0; i < 10000; i++) {
+            table.put("k" + i, i);
+        }
+        assertEquals(10000, table.longSize());
+        assertTrue(table.capacity() >= 20000);
+        assertEquals(table.capacity() / 16, table.pageCount());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(Integer.valueOf(i), table.get("k" + i));
+        }
+    }
+
+    @Test
+    public void whenProbeSequenceReachesTheEndOfAPage_itContinuesOnTheNextOne() {
+        // 64 casilleros en páginas de 16: cuatro claves con origen en el
+        // casillero 15 (el último de la página 0) ocupan 15, 16, 18 y 21...
+        TSBSegmentedHashTable<Clave, Integer> t = new TSBSegmentedHashTable<>(64, 4, null);
+        int hash = hashCon(15, 63);
+        for (int i = 0; i < 4; i++) {
+            t.put(new Clave(i, hash), i);
+        }
+        assertEquals(64, t.capacity());
+        assertEquals(4, t.pageCount());
+        assertEquals(Arrays.asList(0, 1, 2, 3), new ArrayList<>(t.values()));
+
+        // al eliminar la del casillero 16, las siguientes se siguen encontrando
+        // a través de la tumba, y la próxima clave la reutiliza...
+        assertEquals(Integer.valueOf(1), t.remove(new Clave(1, hash)));
+        assertEquals(Integer.valueOf(2), t.get(new Clave(2, hash)));
+        assertEquals(Integer.valueOf(3), t.get(new Clave(3, hash)));
+        assertNull(t.get(new Clave(1, hash)));
+        t.put(new Clave(4, hash), 4);
+        assertEquals(Arrays.asList(0, 4, 2, 3), new ArrayList<>(t.values()));
+    }
+
+    @Test
+    public void whenProbeSequenceReachesTheLastSlot_itWrapsToTheFirstPage() {
+        // origen en el casillero 63 (el último de la última página): la
+        // secuencia sigue en 0, 2 y 5, en la primera página...
+        TSBSegmentedHashTable<Clave, Integer> t = new TSBSegmentedHashTable<>(64, 4, null);
+        int hash = hashCon(63, 63);
+        for (int i = 0; i < 4; i++) {
+            t.put(new Clave(i, hash), i);
+        }
+        assertEquals(64, t.capacity());
+        assertEquals(Arrays.asList(1, 2, 3, 0), new ArrayList<>(t.values()));
+        for (int i = 0; i < 4; i++) {
+            assertEquals(Integer.valueOf(i), t.get(new Clave(i, hash)));
+        }
+        assertNull(t.get(new Clave(9, hash)));
+    }
+
+    @Test
+    public void whenIndexIsAboveIntegerMaxValue_pageAndPositionAreNotTruncated() {
+        // con páginas de 16 casilleros, un índice de más de 31 bits está en una
+        // página de más de 27 bits: pagina() y posicion() no deben perder ni
+        // cambiar el signo de ninguno de ellos...
+        long []indices = { Integer.MAX_VALUE, 1L << 31, (1L << 31) + 1, (1L << 32) + 37, (1L << 34) - 1 };
+        for (long index : indices) {
+            int p = table.pagina(index), i = table.posicion(index);
+            assertTrue(p >= 0);
+            assertTrue(i >= 0 && i < 16);
+            assertEquals(index >>> 4, p);
+            assertEquals(index, ((long) p << 4) | i);
+        }
+    }
+
+    @Test
+    public void whenMaskIsAboveIntegerMaxValue_probeSequenceWrapsWithoutOverflow() {
+        // una tabla de 2^34 casilleros no entra en memoria, pero la secuencia de
+        // exploración es la misma: desde el penúltimo casillero sigue en el
+        // último, vuelve a 1 y luego a 4...
+        long mask = (1L << 34) - 1;
+        long index = mask - 1;
+        index = TSBSegmentedHashTable.sondear(index, 1, mask);
+        assertEquals(mask, index);
+        index = TSBSegmentedHashTable.sondear(index, 2, mask);
+        assertEquals(1, index);
+        index = TSBSegmentedHashTable.sondear(index, 3, mask);
+        assertEquals(4, index);
+
+        // y desde un origen por encima de Integer.MAX_VALUE, el índice nunca
+        // sale de [0, mask]...
+        index = (1L << 33) + 12345;
+        for (long j = 1; j < 200000; j++) {
+            index = TSBSegmentedHashTable.sondear(index, j, mask);
+            assertTrue(index >= 0 && index <= mask);
+        }
+    }
+
+    @Test
+    public void whenCapacityIsAPowerOfTwo_probeSequenceVisitsEverySlot() {
+        long mask = 63;
+        for (long origen = 0; origen <= mask; origen++) {
+            Set<Long> visitados = new HashSet<>();
+            long index = origen;
+            visitados.add(index);
+            for (long j = 1; j <= mask; j++) {
+                index = TSBSegmentedHashTable.sondear(index, j, mask);
+                visitados.add(index);
+            }
+            assertEquals(64, visitados.size());
+        }
+    }
+
+    @Test
+    public void whenLongHashIsGiven_keysAreFound() {
+        TSBSegmentedHashTable<Long, Long> longs = new TSBSegmentedHashTable<>(4, 6, k -> k);
+        for (long k = 0; k < 5000; k++) {
+            longs.put(k << 32, k);
+        }
+        for (long k = 0; k < 5000; k++) {
+            assertEquals(Long.valueOf(k), longs.get(k << 32));
+        }
+        assertNull(longs.get(1L));
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        for (int i = 0; i < 100; i++) {
+            table.put("k" + i, i);
+        }
+        Iterator<Integer> it = table.values().iterator();
+        while (it.hasNext()) {
+            if (it.next() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(50, table.size());
+        assertNull(table.get("k2"));
+        assertEquals(Integer.valueOf(3), table.get("k3"));
+    }
+
+    // busca un hashCode cuyo hash mezclado tenga el casillero de origen
+    // indicado en una tabla con esa máscara...
+    private static int hashCon(long origen, long mask) {
+        for (int h = 0; ; h++) {
+            if ((TSBSegmentedHashTable.mezclar(h) & mask) == origen) {
+                return h;
+            }
+        }
+    }
+
+    // clave con hashCode elegido, distinta de las demás por su id...
+    private static class Clave {
+        private final int id;
+        private final int hash;
+
+        Clave(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Clave && ((Clave) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package clases;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BinaryOperator;
+
+/**
+ * Conjunto de tablas (shards) para cargar datos en paralelo: cada hilo de la
+ * carga usa su propia TSBHashTableDA, que ningún otro hilo toca, por lo que
+ * durante la carga no hace falta ninguna sincronización. Al terminar, la
+ * operación mergeInto() combina todos los shards en una tabla destino.
+ *
+ * La combinación tiene dos pasos. El primero es paralelo: el rango de valores
+ * de hash se divide en tantas particiones como hilos, y cada hilo recorre
+ * todos los shards quedándose solo con las claves de su partición, que combina
+ * en una tabla parcial (es el paso donde se resuelven las claves repetidas
+ * entre shards). El segundo es secuencial: las tablas parciales se copian una
+ * por una a la tabla destino, que no admite escrituras concurrentes, y solo se
+ * combina con lo que el destino ya tuviera. Ese paso es un put() por clave
+ * distinta, así que su costo es O(claves distintas) en un solo hilo.
+ *
+ * Los shards no deben modificarse mientras se ejecuta mergeInto().
+ *
+ * @author Ardiles Micaela, Avila Pilar, Ríos Cardona Gastón, Targón Juan Cruz
+ * @version Octubre del 2021.
+ * @param <K> el tipo de los objetos que serán usados como clave.
+ * @param <V> el tipo de los objetos que serán los valores.
+ */
+public class TSBShardedHashTableDA<K,V>
+{
+    //************************ Atributos privados.
+
+    // un shard por hilo de carga...
+    private final TSBHashTableDA<K,V> []shards;
+
+
+    //************************ Constructores.
+
+    /**
+     * Crea la cantidad de shards indicada, todos vacíos.
+     * @param cantidad la cantidad de shards (normalmente, uno por hilo).
+     * @throws IllegalArgumentException si la cantidad es menor a 1.
+     */
+    public TSBShardedHashTableDA(int cantidad)
+    {
+        if(cantidad < 1) throw new IllegalArgumentException("TSBShardedHashTableDA(): cantidad menor a 1");
+
+        this.shards = new TSBHashTableDA[cantidad];
+        for(int i = 0; i < cantidad; i++)
+        {
+            this.shards[i] = new TSBHashTableDA<>();
+        }
+    }
+
+
+    //************************ Métodos.
+
+    /**
+     * Retorna la cantidad de shards.
+     * @return la cantidad de shards.
+     */
+    public int shardCount()
+    {
+        return shards.length;
+    }
+
+    /**
+     * Retorna el shard indicado. Cada hilo de carga debe usar un índice
+     * distinto, y ser el único que modifique ese shard.
+     * @param i el índice del shard (entre 0 y shardCount() - 1).
+     * @return el shard.
+     */
+    public TSBHashTableDA<K,V> shard(int i)
+    {
+        return shards[i];
+    }
+
+    /**
+     * Combina el contenido de todos los shards en la tabla destino. Si una
+     * clave aparece en más de un shard (o ya estaba en el destino), sus valores
+     * se combinan con mergeFn, que recibe el valor acumulado y el nuevo y
+     * retorna el valor combinado (puede modificar y retornar el primero).
+     * @param target la tabla destino.
+     * @param mergeFn la función que combina dos valores de una misma clave.
+     * @throws NullPointerException si target o mergeFn son null.
+     * @throws IllegalStateException si la combinación de alguna partición falla.
+     */
+    public void mergeInto(Map<K,V> target, BinaryOperator<V> mergeFn)
+    {
+        if(target == null || mergeFn == null) throw new NullPointerException("mergeInto(): parámetro null");
+
+        int partes = Math.max(1, Math.min(shards.length, Runtime.getRuntime().availableProcessors()));
+        List<TSBHashTableDA<K,V>> parciales = new ArrayList<>();
+        if(partes == 1)
+        {
+            parciales.add(this.combinar(0, 1, mergeFn));
+        }
+        else
+        {
+            ExecutorService hilos = Executors.newFixedThreadPool(partes);
+            try
+            {
+                List<Callable<TSBHashTableDA<K,V>>> tareas = new ArrayList<>();
+                for(int p = 0; p < partes; p++)
+                {
+                    final int parte = p;
+                    tareas.add(() -> this.combinar(parte, partes, mergeFn));
+                }
+                for(Future<TSBHashTableDA<K,V>> f : hilos.invokeAll(tareas))
+                {
+                    parciales.add(f.get());
+                }
+            }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("mergeInto(): combinación interrumpida", e);
+            }
+            catch(ExecutionException e)
+            {
+                throw new IllegalStateException("mergeInto(): falló la combinación de una partición", e.getCause());
+            }
+            finally
+            {
+                hilos.shutdown();
+            }
+        }
+
+        // paso secuencial: el destino no admite escrituras concurrentes, y como
+        // las particiones no comparten claves solo se combina con el destino...
+        for(TSBHashTableDA<K,V> parcial : parciales)
+        {
+            parcial.forEach((k, v) ->
+            {
+                V actual = target.get(k);
+                target.put(k, (actual == null) ? v : mergeFn.apply(actual, v));
+            });
+        }
+    }
+
+    /**
+     * Elimina el contenido de todos los shards.
+     */
+    public void clear()
+    {
+        for(TSBHashTableDA<K,V> shard : shards)
+        {
+            shard.clear();
+        }
+    }
+
+
+    //************************ Métodos privados.
+
+    /*
+     * Recorre todos los shards y combina, en una tabla nueva, los pares cuya
+     * clave pertenece a la partición indicada.
+     */
+    private TSBHashTableDA<K,V> combinar(int parte, int partes, BinaryOperator<V> mergeFn)
+    {
+        TSBHashTableDA<K,V> parcial = new TSBHashTableDA<>();
+        for(TSBHashTableDA<K,V> shard : shards)
+        {
+            shard.forEach((k, v) ->
+            {
+                if(particion(k.hashCode(), partes) != parte) return;
+
+                V actual = parcial.get(k);
+                parcial.put(k, (actual == null) ? v : mergeFn.apply(actual, v));
+            });
+        }
+        return parcial;
+    }
+
+    /*
+     * La partición (rango de valores de hash) a la que pertenece el hash: se
+     * mezclan sus bits y se toma el rango que corresponde a los 32 bits.
+     */
+    private static int particion(int hash, int partes)
+    {
+        int h = (hash ^ (hash >>> 16)) * 0x9E3779B1;
+        return (int) (((h & 0xFFFFFFFFL) * partes) >>> 32);
+    }
+}
@@ -0,0 +1,80 @@
+package clases;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TSBShardedHashTableDATest {
+
+    private TSBShardedHashTableDA<String, Integer> shards;
+
+    @Before
+    public void setup() {
+        shards = new TSBShardedHashTableDA<>(8);
+    }
+
+    @Test
+    public void whenKeysRepeatAcrossShards_mergeIntoCombinesEachKeyOnce() {
+        // la clave "k" + i se carga en i % 5 + 1 shards distintos, con valor 1
+        // en cada uno: combinada con la suma debe valer esa cantidad...
+        Map<String, Integer> esperado = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            int copias = i % 5 + 1;
+            for (int c = 0; c < copias; c++) {
+                shards.shard((i + c) % shards.shardCount()).put("k" + i, 1);
+            }
+            esperado.put("k" + i, copias);
+        }
+
+        TSBHashTableDA<String, Integer> destino = new TSBHashTableDA<>();
+        shards.mergeInto(destino, Integer::sum);
+        assertEquals(esperado.size(), destino.size());
+        for (Map.Entry<String, Integer> e : esperado.entrySet()) {
+            assertEquals(e.getValue(), destino.get(e.getKey()));
+        }
+    }
+
+    @Test
+    public void whenTargetAlreadyHasKeys_mergeIntoCombinesWithThem() {
+        shards.shard(0).put("a", 1);
+        shards.shard(3).put("a", 2);
+        shards.shard(5).put("b", 4);
+
+        TSBHashTableDA<String, Integer> destino = new TSBHashTableDA<>();
+        destino.put("a", 10);
+        destino.put("c", 100);
+        shards.mergeInto(destino, Integer::sum);
+
+        assertEquals(3, destino.size());
+        assertEquals(Integer.valueOf(13), destino.get("a"));
+        assertEquals(Integer.valueOf(4), destino.get("b"));
+        assertEquals(Integer.valueOf(100), destino.get("c"));
+    }
+
+    @Test
+    public void whenShardsAreCleared_mergeIntoLeavesTargetUnchanged() {
+        for (int i = 0; i < 100; i++) {
+            shards.shard(i % shards.shardCount()).put("k" + i, i);
+        }
+        shards.clear();
+
+        TSBHashTableDA<String, Integer> destino = new TSBHashTableDA<>();
+        destino.put("z", 26);
+        shards.mergeInto(destino, Integer::sum);
+        assertEquals(1, destino.size());
+        assertEquals(Integer.valueOf(26), destino.get("z"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenMergeIntoCalledWithNullFunction_throwException() {
+        shards.mergeInto(new HashMap<>(), null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenCreatedWithoutShards_throwException() {
+        new TSBShardedHashTableDA<String, Integer>(0);
+    }
+}
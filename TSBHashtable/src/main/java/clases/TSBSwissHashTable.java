@@ -0,0 +1,642 @@
+package clases;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Variante de TSBHashTableDA (direccionamiento abierto) organizada al estilo
+ * "SwissTable": además de los arreglos de claves y valores, la tabla mantiene
+ * un arreglo separado de bytes de control, uno por casillero. Cada byte de
+ * control indica si el casillero está abierto, es una tumba, o está cerrado;
+ * y en ese último caso guarda 7 bits del hash de la clave (h2).
+ *
+ * Los casilleros se agrupan de a 8 y los bytes de control de cada grupo se
+ * guardan empaquetados en un long. Una búsqueda calcula el grupo inicial con
+ * los bits altos del hash (h1) y compara los 8 bytes de control del grupo de
+ * una sola vez con operaciones de bits sobre el long (SWAR), de forma que
+ * solo se comparan las claves de los casilleros cuyo h2 coincide. Si el grupo
+ * tiene algún casillero abierto la búsqueda termina; si no, se pasa al
+ * siguiente grupo con exploración cuadrática sobre los grupos.
+ *
+ * La tabla admite una ocupación de hasta 7/8 de los casilleros (contando las
+ * tumbas). Al eliminar, si el grupo del casillero tiene algún casillero
+ * abierto, el casillero vuelve a quedar abierto en lugar de quedar como tumba,
+ * ya que ninguna búsqueda pudo haber pasado por ese grupo sin detenerse.
+ *
+ * Igual que TSBHashTableDA, no admite claves ni valores null.
+ *
+ * @param <K> el tipo de los objetos que serán usados como clave en la tabla.
+ * @param <V> el tipo de los objetos que serán los valores de la tabla.
+ */
+public class TSBSwissHashTable<K,V> extends AbstractMap<K,V> implements Cloneable, Serializable
+{
+    //************************ Constantes (privadas o públicas).
+
+    // cantidad de casilleros por grupo (bytes de control en un long)...
+    private final static int GRUPO = 8;
+
+    // el tamaño máximo que podrá tener el arreglo de soporte (potencia de 2)...
+    private final static int MAX_SIZE = 1 << 30;
+
+    // bytes de control especiales: abierto (1000 0000) y tumba (1111 1110)...
+    private final static long ABIERTO = 0x80L;
+    private final static long TUMBA = 0xFEL;
+
+    // constantes para las operaciones SWAR sobre los 8 bytes de un grupo...
+    private final static long LSBS = 0x0101010101010101L;
+    private final static long MSBS = 0x8080808080808080L;
+
+
+    //************************ Atributos privados (estructurales).
+
+    // los bytes de control: ctrl[g] contiene los 8 bytes del grupo g...
+    private long []ctrl;
+
+    // las claves y los valores de cada casillero...
+    private Object []keys;
+    private Object []values;
+
+    // el tamaño inicial de la tabla (tamaño con el que fue creada)...
+    private int initial_capacity;
+
+    // la cantidad de objetos que contiene la tabla...
+    private int count;
+
+    // la cantidad de casilleros marcados como tumba...
+    private int tumbas;
+
+    // cuántos casilleros abiertos pueden ocuparse todavía antes de un rehash...
+    private int disponibles;
+
+    private transient Set<Map.Entry<K,V>> entrySet = null;
+
+
+    //************************ Atributos protegidos (control de iteración).
+
+    // conteo de operaciones de cambio de tamaño (fail-fast iterator).
+    protected transient int modCount;
+
+
+    //************************ Constructores.
+
+    /**
+     * Crea una tabla vacía, con capacidad inicial igual a 16 casilleros.
+     */
+    public TSBSwissHashTable()
+    {
+        this(16);
+    }
+
+    /**
+     * Crea una tabla vacía, con la capacidad inicial indicada. La capacidad se
+     * ajusta a la siguiente potencia de 2 (con un mínimo de 8 casilleros), de
+     * forma que la exploración cuadrática sobre los grupos los visite a todos.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     */
+    public TSBSwissHashTable(int initial_capacity)
+    {
+        if(initial_capacity < GRUPO) { initial_capacity = GRUPO; }
+        if(initial_capacity > MAX_SIZE) { initial_capacity = MAX_SIZE; }
+        this.initial_capacity = siguientePotencia(initial_capacity);
+        this.inicializar(this.initial_capacity);
+        this.modCount = 0;
+    }
+
+    /**
+     * Crea una tabla a partir del contenido del Map especificado.
+     * @param t el Map a partir del cual se creará la tabla.
+     */
+    public TSBSwissHashTable(Map<? extends K,? extends V> t)
+    {
+        this(16);
+        this.putAll(t);
+    }
+
+
+    //************************ Implementación de métodos especificados por Map.
+
+    @Override
+    public int size()
+    {
+        return this.count;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return (this.count == 0);
+    }
+
+    /**
+     * Determina si la clave key está en la tabla.
+     * @param key la clave a verificar.
+     * @return true si la clave está en la tabla.
+     * @throws NullPointerException si la clave es null.
+     */
+    @Override
+    public boolean containsKey(Object key)
+    {
+        if(key == null) throw new NullPointerException("containsKey(): parámetro null");
+        return this.search_for_index(key, spread(key.hashCode())) != -1;
+    }
+
+    /**
+     * Retorna el objeto al cual está asociada la clave key en la tabla, o null
+     * si la tabla no contiene ningún objeto asociado a esa clave.
+     * @param key la clave que será buscada en la tabla.
+     * @return el objeto asociado a la clave especificada o null.
+     * @throws NullPointerException si key es null.
+     */
+    @Override
+    public V get(Object key)
+    {
+        if(key == null) throw new NullPointerException("get(): parámetro null");
+
+        int index = this.search_for_index(key, spread(key.hashCode()));
+        return (index != -1) ? (V) values[index] : null;
+    }
+
+    /**
+     * Asocia el valor (value) especificado, con la clave (key) especificada en
+     * esta tabla. Si la tabla contenía previamente un valor asociado para la
+     * clave, entonces el valor anterior es reemplazado por el nuevo.
+     * @param key la clave del objeto que se quiere agregar a la tabla.
+     * @param value el objeto que se quiere agregar a la tabla.
+     * @return el objeto anteriormente asociado a la clave, o null.
+     * @throws NullPointerException si key es null o value es null.
+     */
+    @Override
+    public V put(K key, V value)
+    {
+        if(key == null || value == null) throw new NullPointerException("put(): parámetro null");
+
+        int hash = spread(key.hashCode());
+        int index = this.search_for_index(key, hash);
+        if(index != -1)
+        {
+            V old = (V) values[index];
+            values[index] = value;
+            return old;
+        }
+
+        index = this.search_for_free_index(hash);
+        if(this.disponibles == 0 && this.getCtrl(index) == ABIERTO)
+        {
+            // no quedan casilleros abiertos para ocupar: se reorganiza la tabla
+            // y se vuelve a buscar el lugar para la nueva clave...
+            this.rehash();
+            index = this.search_for_free_index(hash);
+        }
+
+        if(this.getCtrl(index) == TUMBA) { this.tumbas--; }
+        else { this.disponibles--; }
+
+        this.setCtrl(index, h2(hash));
+        keys[index] = key;
+        values[index] = value;
+        this.count++;
+        this.modCount++;
+        return null;
+    }
+
+    /**
+     * Elimina de la tabla la clave key (y su correspondiente valor asociado).
+     * @param key la clave a eliminar.
+     * @return El objeto al cual la clave estaba asociada, o null si la clave no
+     *         estaba en la tabla.
+     * @throws NullPointerException si la clave es null.
+     */
+    @Override
+    public V remove(Object key)
+    {
+        if(key == null) throw new NullPointerException("remove(): parámetro null");
+
+        int index = this.search_for_index(key, spread(key.hashCode()));
+        if(index == -1) { return null; }
+
+        V old = (V) values[index];
+        this.eliminar(index);
+        return old;
+    }
+
+    /**
+     * Elimina todo el contenido de la tabla, de forma de dejarla vacía y con
+     * el tamaño que inicialmente tuvo al ser creada.
+     */
+    @Override
+    public void clear()
+    {
+        this.inicializar(this.initial_capacity);
+        this.modCount++;
+    }
+
+    @Override
+    public Set<Map.Entry<K,V>> entrySet()
+    {
+        if(entrySet == null)
+        {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+
+    //************************ Redefinición de métodos heredados desde Object.
+
+    /**
+     * Retorna una copia superficial de la tabla.
+     * @return una copia superficial de la tabla.
+     */
+    @Override
+    protected Object clone()
+    {
+        TSBSwissHashTable<K,V> t = new TSBSwissHashTable<>(this.keys.length);
+        t.putAll(this);
+        return t;
+    }
+
+
+    //************************ Métodos específicos de la clase.
+
+    /**
+     * Retorna la cantidad de casilleros del arreglo de soporte.
+     * @return la capacidad actual de la tabla.
+     */
+    public int capacity()
+    {
+        return this.keys.length;
+    }
+
+    /**
+     * Retorna la cantidad de casilleros marcados como tumba.
+     * @return la cantidad de tumbas.
+     */
+    int tombstones()
+    {
+        return this.tumbas;
+    }
+
+    /**
+     * Reorganiza la tabla. Si hay muchas tumbas (al menos la mitad de la
+     * ocupación máxima no son claves vivas) se reconstruye con el mismo
+     * tamaño, eliminando las tumbas. Si no, se duplica el tamaño.
+     */
+    protected void rehash()
+    {
+        int old_length = this.keys.length;
+        int new_length = old_length;
+        if(this.count > maximo(old_length) / 2 && old_length < MAX_SIZE)
+        {
+            new_length = old_length * 2;
+        }
+
+        Object []oldKeys = this.keys;
+        Object []oldValues = this.values;
+        long []oldCtrl = this.ctrl;
+
+        this.inicializar(new_length);
+        this.modCount++;
+
+        for(int i = 0; i < old_length; i++)
+        {
+            if((oldCtrl[i >>> 3] >>> ((i & 7) << 3) & 0x80L) == 0) // casillero cerrado
+            {
+                int hash = spread(oldKeys[i].hashCode());
+                int index = this.search_for_free_index(hash);
+                this.setCtrl(index, h2(hash));
+                this.keys[index] = oldKeys[i];
+                this.values[index] = oldValues[i];
+                this.count++;
+                this.disponibles--;
+            }
+        }
+    }
+
+
+    //************************ Métodos privados.
+
+    /**
+     * Crea los arreglos de soporte vacíos para la cantidad de casilleros
+     * indicada.
+     */
+    private void inicializar(int length)
+    {
+        this.ctrl = new long[length / GRUPO];
+        for(int g = 0; g < ctrl.length; g++)
+        {
+            ctrl[g] = ABIERTO * LSBS; // todos los bytes del grupo abiertos
+        }
+        this.keys = new Object[length];
+        this.values = new Object[length];
+        this.count = 0;
+        this.tumbas = 0;
+        this.disponibles = maximo(length);
+    }
+
+    /**
+     * Busca la clave key y retorna el índice del casillero que la contiene, o
+     * -1 si la clave no está en la tabla.
+     */
+    private int search_for_index(Object key, int hash)
+    {
+        long tag = h2(hash) * LSBS;
+        int mask = ctrl.length - 1;
+        int g = h1(hash) & mask;
+        for(int j = 1; ; j++)
+        {
+            long grupo = ctrl[g];
+
+            // bytes del grupo iguales a h2 (puede haber falsos positivos)...
+            long x = grupo ^ tag;
+            long coincide = (x - LSBS) & ~x & MSBS;
+            while(coincide != 0)
+            {
+                int index = (g << 3) + (Long.numberOfTrailingZeros(coincide) >>> 3);
+                Object k = keys[index];
+                if(k == key || (k != null && k.equals(key))) { return index; }
+                coincide &= coincide - 1;
+            }
+
+            // si el grupo tiene algún casillero abierto, la clave no está...
+            if(abiertos(grupo) != 0) { return -1; }
+
+            g = (g + j) & mask;
+        }
+    }
+
+    /**
+     * Retorna el índice del primer casillero abierto o tumba que se encuentra
+     * siguiendo la secuencia de grupos correspondiente al hash indicado.
+     */
+    private int search_for_free_index(int hash)
+    {
+        int mask = ctrl.length - 1;
+        int g = h1(hash) & mask;
+        for(int j = 1; ; j++)
+        {
+            long libres = ctrl[g] & MSBS; // abiertos y tumbas tienen el bit alto en 1
+            if(libres != 0)
+            {
+                return (g << 3) + (Long.numberOfTrailingZeros(libres) >>> 3);
+            }
+            g = (g + j) & mask;
+        }
+    }
+
+    /**
+     * Libera el casillero index. Si su grupo tiene algún casillero abierto, el
+     * casillero vuelve a quedar abierto; si no, queda marcado como tumba.
+     */
+    private void eliminar(int index)
+    {
+        if(abiertos(ctrl[index >>> 3]) != 0)
+        {
+            this.setCtrl(index, ABIERTO);
+            this.disponibles++;
+        }
+        else
+        {
+            this.setCtrl(index, TUMBA);
+            this.tumbas++;
+        }
+        keys[index] = null;
+        values[index] = null;
+        this.count--;
+        this.modCount++;
+    }
+
+    /**
+     * Retorna un long con el bit alto encendido en cada byte del grupo que
+     * corresponde a un casillero abierto (y no a una tumba).
+     */
+    private static long abiertos(long grupo)
+    {
+        return grupo & ~(grupo << 6) & MSBS;
+    }
+
+    private long getCtrl(int index)
+    {
+        return (ctrl[index >>> 3] >>> ((index & 7) << 3)) & 0xFFL;
+    }
+
+    private void setCtrl(int index, long valor)
+    {
+        int shift = (index & 7) << 3;
+        int g = index >>> 3;
+        ctrl[g] = (ctrl[g] & ~(0xFFL << shift)) | (valor << shift);
+    }
+
+    /**
+     * Mezcla los bits del hashCode() para que tanto h1 como h2 dependan de
+     * todos los bits de la clave.
+     */
+    static int spread(int h)
+    {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // los 7 bits bajos del hash, que se guardan en el byte de control...
+    static long h2(int hash)
+    {
+        return hash & 0x7F;
+    }
+
+    // el resto del hash, que determina el grupo inicial...
+    static int h1(int hash)
+    {
+        return hash >>> 7;
+    }
+
+    // la cantidad máxima de casilleros ocupados (claves o tumbas): 7/8...
+    private static int maximo(int length)
+    {
+        return length - length / 8;
+    }
+
+    private static int siguientePotencia(int n)
+    {
+        int p = GRUPO;
+        while(p < n) { p <<= 1; }
+        return p;
+    }
+
+
+    //************************ Clases Internas.
+
+    /**
+     * Clase interna que representa una vista de todos los PARES mapeados en la
+     * tabla. Las vistas de claves y valores que hereda de AbstractMap se
+     * apoyan en esta.
+     */
+    private class EntrySet extends AbstractSet<Map.Entry<K,V>>
+    {
+        @Override
+        public Iterator<Map.Entry<K,V>> iterator()
+        {
+            return new EntrySetIterator();
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+            if(!(o instanceof Map.Entry)) { return false; }
+            Map.Entry<?,?> entry = (Map.Entry<?,?>) o;
+            V value = TSBSwissHashTable.this.get(entry.getKey());
+            return value != null && value.equals(entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o)
+        {
+            if(!this.contains(o)) { return false; }
+            TSBSwissHashTable.this.remove(((Map.Entry<?,?>) o).getKey());
+            return true;
+        }
+
+        @Override
+        public int size()
+        {
+            return TSBSwissHashTable.this.count;
+        }
+
+        @Override
+        public void clear()
+        {
+            TSBSwissHashTable.this.clear();
+        }
+    }
+
+    private class EntrySetIterator implements Iterator<Map.Entry<K,V>>
+    {
+        // índice del siguiente casillero a revisar...
+        private int next_index;
+
+        // índice del casillero retornado por next() (-1 si no corresponde)...
+        private int current_index;
+
+        // el valor que debería tener el modCount de la tabla completa...
+        private int expected_modCount;
+
+        public EntrySetIterator()
+        {
+            next_index = 0;
+            current_index = -1;
+            expected_modCount = TSBSwissHashTable.this.modCount;
+            this.avanzar();
+        }
+
+        // deja next_index en el siguiente casillero cerrado (o al final)...
+        private void avanzar()
+        {
+            Object []k = TSBSwissHashTable.this.keys;
+            while(next_index < k.length && k[next_index] == null) { next_index++; }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return next_index < TSBSwissHashTable.this.keys.length;
+        }
+
+        @Override
+        public Map.Entry<K,V> next()
+        {
+            if(TSBSwissHashTable.this.modCount != expected_modCount)
+            {
+                throw new ConcurrentModificationException("next(): modificación inesperada de tabla...");
+            }
+            if(!hasNext())
+            {
+                throw new NoSuchElementException("next(): no existe el elemento pedido...");
+            }
+
+            current_index = next_index++;
+            this.avanzar();
+            return new Entry(current_index);
+        }
+
+        @Override
+        public void remove()
+        {
+            if(current_index == -1)
+            {
+                throw new IllegalStateException("remove(): debe invocar a next() antes de remove()...");
+            }
+            if(TSBSwissHashTable.this.modCount != expected_modCount)
+            {
+                throw new ConcurrentModificationException("remove(): modificación inesperada de tabla...");
+            }
+
+            TSBSwissHashTable.this.eliminar(current_index);
+            current_index = -1;
+            expected_modCount = TSBSwissHashTable.this.modCount;
+        }
+    }
+
+    /**
+     * Par (key, value) retornado por el iterador: accede directamente al
+     * casillero de la tabla, por lo que setValue() modifica la tabla.
+     */
+    private class Entry implements Map.Entry<K,V>
+    {
+        private final int index;
+        private final K key;
+
+        public Entry(int index)
+        {
+            this.index = index;
+            this.key = (K) keys[index];
+        }
+
+        @Override
+        public K getKey()
+        {
+            return key;
+        }
+
+        @Override
+        public V getValue()
+        {
+            return (V) values[index];
+        }
+
+        @Override
+        public V setValue(V value)
+        {
+            if(value == null)
+            {
+                throw new IllegalArgumentException("setValue(): parámetro null...");
+            }
+            V old = (V) values[index];
+            values[index] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if(!(obj instanceof Map.Entry)) { return false; }
+            Map.Entry<?,?> other = (Map.Entry<?,?>) obj;
+            return key.equals(other.getKey()) && getValue().equals(other.getValue());
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return key.hashCode() ^ getValue().hashCode();
+        }
+
+        @Override
+        public String toString()
+        {
+            return "(" + key.toString() + " --> " + getValue().toString() + ")";
+        }
+    }
+}
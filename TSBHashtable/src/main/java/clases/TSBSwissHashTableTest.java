@@ -0,0 +1,181 @@
+package clases;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TSBSwissHashTableTest {
+
+    private TSBSwissHashTable<String, Integer> table;
+
+    @Before
+    public void setup() {
+        table = new TSBSwissHashTable<>();
+    }
+
+    @Test
+    public void whenManyKeysAreAdded_tableGrowsAndKeepsThem() {
+        for (int i = 0; i < 10000; i++) {
+            table.put("k" + i, i);
+        }
+        assertEquals(10000, table.size());
+        assertTrue(table.capacity() * 7 / 8 >= 10000);
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(Integer.valueOf(i), table.get("k" + i));
+        }
+    }
+
+    @Test
+    public void whenGroupsAreFullOfMatchingTags_searchCrossesIntoTheNextGroups() {
+        // 32 casilleros = 4 grupos; 20 claves con el mismo hash llenan el
+        // grupo inicial y el siguiente, y ocupan 4 casilleros de un tercero...
+        TSBSwissHashTable<Clave, Integer> t = new TSBSwissHashTable<>(32);
+        for (int i = 0; i < 20; i++) {
+            t.put(new Clave(i, 7), i);
+        }
+        assertEquals(32, t.capacity());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(Integer.valueOf(i), t.get(new Clave(i, 7)));
+        }
+        assertNull(t.get(new Clave(99, 7)));
+
+        // en un grupo lleno el casillero liberado queda como tumba, y la
+        // búsqueda tiene que seguir pasando por ese grupo...
+        assertEquals(Integer.valueOf(3), t.remove(new Clave(3, 7)));
+        assertEquals(1, t.tombstones());
+        for (int i = 0; i < 20; i++) {
+            assertEquals((i == 3) ? null : Integer.valueOf(i), t.get(new Clave(i, 7)));
+        }
+        assertNull(t.get(new Clave(99, 7)));
+
+        // la próxima clave de esa secuencia reutiliza la tumba...
+        t.put(new Clave(20, 7), 20);
+        assertEquals(0, t.tombstones());
+        assertEquals(Integer.valueOf(20), t.get(new Clave(20, 7)));
+    }
+
+    @Test
+    public void whenNeighbourTagDiffersInTheLowestBit_onlyEqualKeysMatch() {
+        // c y a comparten el tag t, y b (entre ambas) tiene el tag t ^ 1: al
+        // buscar t, la resta SWAR marca también el byte de b (falso positivo)...
+        TSBSwissHashTable<Clave, String> t = new TSBSwissHashTable<>(32);
+        int mask = t.capacity() / 8 - 1;
+        int hashT = hashCon(0, mask, 0x10);
+        int hashT1 = hashCon(0, mask, 0x11);
+        int otroHashT = hashCon(0, mask, 0x10, hashT + 1);
+
+        t.put(new Clave(1, hashT), "c");
+        t.put(new Clave(2, hashT1), "b");
+        t.put(new Clave(3, otroHashT), "a");
+
+        assertEquals("c", t.get(new Clave(1, hashT)));
+        assertEquals("b", t.get(new Clave(2, hashT1)));
+        assertEquals("a", t.get(new Clave(3, otroHashT)));
+        assertNull(t.get(new Clave(4, hashT)));
+        assertNull(t.get(new Clave(4, hashT1)));
+    }
+
+    @Test
+    public void whenKeyIsRemovedFromGroupWithOpenSlots_slotIsOpenedInsteadOfTombed() {
+        TSBSwissHashTable<Clave, Integer> t = new TSBSwissHashTable<>(32);
+        for (int i = 0; i < 3; i++) {
+            t.put(new Clave(i, 5), i);
+        }
+        t.remove(new Clave(1, 5));
+        assertEquals(0, t.tombstones());
+        assertEquals(Integer.valueOf(2), t.get(new Clave(2, 5)));
+
+        // muchas vueltas de agregar y quitar no llenan la tabla de tumbas...
+        for (int i = 0; i < 1000; i++) {
+            t.put(new Clave(100 + i, 5), i);
+            t.remove(new Clave(100 + i, 5));
+        }
+        assertEquals(0, t.tombstones());
+        assertEquals(2, t.size());
+        assertEquals(32, t.capacity());
+    }
+
+    @Test
+    public void whenTombsFillTheTable_rehashAtSameSizeTurnsThemIntoOpenSlots() {
+        TSBSwissHashTable<Clave, Integer> t = new TSBSwissHashTable<>(32);
+        // cada clave de un grupo lleno que se elimina deja una tumba...
+        for (int i = 0; i < 24; i++) {
+            t.put(new Clave(i, 9), i);
+        }
+        for (int i = 0; i < 16; i++) {
+            t.remove(new Clave(i, 9));
+        }
+        assertTrue(t.tombstones() > 0);
+
+        // las claves nuevas van al único grupo con casilleros abiertos: al
+        // agotarse los disponibles la tabla se reconstruye sin tumbas (sin
+        // duplicarse, porque casi no hay claves)...
+        int mask = t.capacity() / 8 - 1;
+        int grupo = TSBSwissHashTable.h1(TSBSwissHashTable.spread(9)) & mask;
+        int otro = hashCon((grupo + 2) & mask, mask, 0x22);
+        for (int i = 100; i < 105; i++) {
+            t.put(new Clave(i, otro), i);
+        }
+        assertEquals(0, t.tombstones());
+        assertEquals(32, t.capacity());
+        assertEquals(13, t.size());
+        for (int i = 16; i < 24; i++) {
+            assertEquals(Integer.valueOf(i), t.get(new Clave(i, 9)));
+        }
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        for (int i = 0; i < 100; i++) {
+            table.put("k" + i, i);
+        }
+        Iterator<Integer> it = table.values().iterator();
+        while (it.hasNext()) {
+            if (it.next() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(50, table.size());
+        assertNull(table.get("k2"));
+        assertEquals(Integer.valueOf(3), table.get("k3"));
+    }
+
+    // busca un hashCode (desde) cuyo hash mezclado tenga el grupo inicial y
+    // el h2 indicados...
+    private static int hashCon(int grupo, int mask, long h2) {
+        return hashCon(grupo, mask, h2, 0);
+    }
+
+    private static int hashCon(int grupo, int mask, long h2, int desde) {
+        for (int h = desde; ; h++) {
+            int s = TSBSwissHashTable.spread(h);
+            if ((TSBSwissHashTable.h1(s) & mask) == grupo && TSBSwissHashTable.h2(s) == h2) {
+                return h;
+            }
+        }
+    }
+
+    // clave con hashCode elegido, distinta de las demás por su id...
+    private static class Clave {
+        private final int id;
+        private final int hash;
+
+        Clave(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Clave && ((Clave) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}